@@ -17,6 +17,8 @@
 
 package bisq.common;
 
+import bisq.common.metrics.MetricsRegistry;
+
 import com.google.common.util.concurrent.MoreExecutors;
 
 import java.time.Duration;
@@ -24,6 +26,7 @@ import java.time.Duration;
 import java.util.Random;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import java.lang.reflect.InvocationTargetException;
 
@@ -47,6 +50,7 @@ public class UserThread {
     @Getter
     @Setter
     private static Executor executor;
+    private static final LongAdder numPendingTasks = new LongAdder();
 
     public static void setTimerClass(Class<? extends Timer> timerClass) {
         UserThread.timerClass = timerClass;
@@ -56,10 +60,18 @@ public class UserThread {
         // If not defined we use same thread as caller thread
         executor = MoreExecutors.directExecutor();
         timerClass = FrameRateTimer.class;
+
+        MetricsRegistry.getDefault().gauge("bisq_user_thread_queue_size",
+                "Number of tasks waiting for execution on the user thread",
+                numPendingTasks::sum);
     }
 
     public static void execute(Runnable command) {
-        UserThread.executor.execute(command);
+        numPendingTasks.increment();
+        UserThread.executor.execute(() -> {
+            numPendingTasks.decrement();
+            command.run();
+        });
     }
 
     // Prefer FxTimer if a delay is needed in a JavaFx class (gui module)
@@ -127,6 +127,7 @@ public class Config {
     public static final String BTC_FEES_TS = "bitcoinFeesTs";
     public static final String BTC_FEE_INFO = "bitcoinFeeInfo";
     public static final String BYPASS_MEMPOOL_VALIDATION = "bypassMempoolValidation";
+    public static final String METRICS_PORT = "metricsPort";
 
     // Default values for certain options
     public static final int UNSPECIFIED_PORT = -1;
@@ -217,6 +218,7 @@ public class Config {
     public final boolean preventPeriodicShutdownAtSeedNode;
     public final boolean republishMailboxEntries;
     public final boolean bypassMempoolValidation;
+    public final int metricsPort;
 
     // Properties derived from options but not exposed as options themselves
     public final File torDir;
@@ -672,6 +674,14 @@ public class Config {
                         .ofType(boolean.class)
                         .defaultsTo(false);
 
+        ArgumentAcceptingOptionSpec<Integer> metricsPortOpt =
+                parser.accepts(METRICS_PORT,
+                        "Port of the local HTTP endpoint serving metrics in Prometheus text format " +
+                                "(seed node and daemon only, disabled if not set)")
+                        .withRequiredArg()
+                        .ofType(int.class)
+                        .defaultsTo(UNSPECIFIED_PORT);
+
         try {
             CompositeOptionSet options = new CompositeOptionSet();
 
@@ -790,6 +800,7 @@ public class Config {
             this.preventPeriodicShutdownAtSeedNode = options.valueOf(preventPeriodicShutdownAtSeedNodeOpt);
             this.republishMailboxEntries = options.valueOf(republishMailboxEntriesOpt);
             this.bypassMempoolValidation = options.valueOf(bypassMempoolValidationOpt);
+            this.metricsPort = options.valueOf(metricsPortOpt);
         } catch (OptionException ex) {
             throw new ConfigException("problem parsing option '%s': %s",
                     ex.options().get(0),
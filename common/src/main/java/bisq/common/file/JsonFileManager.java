@@ -112,4 +112,14 @@ public class JsonFileManager {
                 printWriter.close();
         }
     }
+
+    public void deleteFromDisc(String fileName) {
+        File jsonFile = new File(Paths.get(dir.getAbsolutePath(), fileName + ".json").toString());
+        try {
+            FileUtil.deleteFileIfExists(jsonFile);
+        } catch (Throwable t) {
+            log.error("Could not delete storageFile " + jsonFile.toString());
+            t.printStackTrace();
+        }
+    }
 }
@@ -0,0 +1,203 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Holds the counters, gauges and histograms of the application. Metrics are identified
+ * by their name and optional labels, which are passed as alternating label names and
+ * values (e.g. {@code counter("bisq_p2p_sent_messages_total", help, "message", "Ping")}).
+ * <p>
+ * The metrics don't depend on JavaFX or the UserThread, so they can be updated from
+ * any thread. The desktop app maps the values it displays to JavaFX properties itself,
+ * headless apps can expose them in the Prometheus text format with the
+ * {@link MetricsHttpServer}.
+ */
+public class MetricsRegistry {
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public Counter counter(String name, String help, String... labels) {
+        return getOrCreate(name, help, Metric.Type.COUNTER, labels, Counter::new);
+    }
+
+    public Histogram histogram(String name, String help, String... labels) {
+        return getOrCreate(name, help, Metric.Type.HISTOGRAM, labels, Histogram::new);
+    }
+
+    /**
+     * Registers a gauge. An already registered gauge with the same name and labels gets
+     * replaced.
+     */
+    public Gauge gauge(String name, String help, DoubleSupplier supplier, String... labels) {
+        Gauge gauge = new Gauge(supplier);
+        getFamily(name, help, Metric.Type.GAUGE).metrics.put(toLabelsText(labels), gauge);
+        return gauge;
+    }
+
+    public void remove(String name, String... labels) {
+        Family family = families.get(name);
+        if (family != null) {
+            family.metrics.remove(toLabelsText(labels));
+        }
+    }
+
+    /**
+     * Writes all metrics in the Prometheus text exposition format (version 0.0.4).
+     * Histograms are written as summaries with the 50th, 90th, 99th and 99.9th
+     * percentile.
+     */
+    public void writePrometheusText(Writer writer) throws IOException {
+        for (Family family : new TreeMap<>(families).values()) {
+            Map<String, Metric> metrics = new TreeMap<>(family.metrics);
+            if (metrics.isEmpty()) {
+                continue;
+            }
+
+            writer.write("# HELP " + family.name + " " + escapeHelp(family.help) + "\n");
+            writer.write("# TYPE " + family.name + " " + family.type.getPrometheusName() + "\n");
+            for (Map.Entry<String, Metric> entry : metrics.entrySet()) {
+                String labels = entry.getKey();
+                Metric metric = entry.getValue();
+                switch (family.type) {
+                    case COUNTER:
+                        writeSample(writer, family.name, labels, ((Counter) metric).get());
+                        break;
+                    case GAUGE:
+                        writeSample(writer, family.name, labels, ((Gauge) metric).get());
+                        break;
+                    case HISTOGRAM:
+                        Histogram histogram = (Histogram) metric;
+                        for (double quantile : QUANTILES) {
+                            String quantileLabel = "quantile=\"" + quantile + "\"";
+                            writeSample(writer,
+                                    family.name,
+                                    labels.isEmpty() ? quantileLabel : labels + "," + quantileLabel,
+                                    histogram.getValueAtPercentile(quantile * 100));
+                        }
+                        writeSample(writer, family.name + "_sum", labels, histogram.getSum());
+                        writeSample(writer, family.name + "_count", labels, histogram.getCount());
+                        break;
+                }
+            }
+        }
+    }
+
+    public String toPrometheusText() {
+        StringWriter writer = new StringWriter();
+        try {
+            writePrometheusText(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @SuppressWarnings("unchecked")
+    private <T extends Metric> T getOrCreate(String name,
+                                             String help,
+                                             Metric.Type type,
+                                             String[] labels,
+                                             Supplier<T> factory) {
+        return (T) getFamily(name, help, type).metrics.computeIfAbsent(toLabelsText(labels), k -> factory.get());
+    }
+
+    private Family getFamily(String name, String help, Metric.Type type) {
+        Family family = families.computeIfAbsent(name, k -> new Family(name, help, type));
+        checkArgument(family.type == type,
+                "Metric %s is already registered as %s", name, family.type);
+        return family;
+    }
+
+    private static String toLabelsText(String[] labels) {
+        checkArgument(labels.length % 2 == 0, "Labels must be passed as pairs of name and value");
+        if (labels.length == 0) {
+            return "";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(labels[i]).append("=\"").append(escapeLabelValue(labels[i + 1])).append('"');
+        }
+        return sb.toString();
+    }
+
+    private static void writeSample(Writer writer, String name, String labels, double value) throws IOException {
+        writer.write(name);
+        if (!labels.isEmpty()) {
+            writer.write("{" + labels + "}");
+        }
+        writer.write(" ");
+        writer.write(value == Math.rint(value) && !Double.isInfinite(value) ?
+                Long.toString((long) value) :
+                Double.toString(value));
+        writer.write("\n");
+    }
+
+    private static String escapeLabelValue(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    private static class Family {
+        private final String name;
+        private final String help;
+        private final Metric.Type type;
+        private final Map<String, Metric> metrics = new ConcurrentHashMap<>();
+
+        Family(String name, String help, Metric.Type type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+    }
+}
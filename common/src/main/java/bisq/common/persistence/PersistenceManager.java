@@ -149,7 +149,7 @@ public class PersistenceManager<T extends PersistableEnvelope> {
                     // we still call our shutdown and count down routine as the completeHandler is triggered in any case.
 
                     // We get our result handler called from the write thread so we map back to user thread.
-                    persistenceManager.persistNow(() ->
+                    persistenceManager.persistAll(() ->
                             UserThread.execute(() -> onWriteCompleted(completeHandler, openInstances, persistenceManager, doShutdown)));
                 } else {
                     onWriteCompleted(completeHandler, openInstances, persistenceManager, doShutdown);
@@ -158,6 +158,14 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         });
     }
 
+    protected static boolean isAllServicesInitialized() {
+        return allServicesInitialized.get();
+    }
+
+    protected static boolean isFlushAtShutdownCalled() {
+        return flushAtShutdownCalled;
+    }
+
     // We get called always from user thread here.
     private static void onWriteCompleted(ResultHandler completeHandler,
                                          AtomicInteger openInstances,
@@ -208,15 +216,15 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     // Class fields
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private final File dir;
-    private final PersistenceProtoResolver persistenceProtoResolver;
-    private final CorruptedStorageFileHandler corruptedStorageFileHandler;
-    private File storageFile;
-    private T persistable;
-    private String fileName;
-    private Source source = Source.PRIVATE_LOW_PRIO;
+    protected final File dir;
+    protected final PersistenceProtoResolver persistenceProtoResolver;
+    protected final CorruptedStorageFileHandler corruptedStorageFileHandler;
+    protected File storageFile;
+    protected T persistable;
+    protected String fileName;
+    protected Source source = Source.PRIVATE_LOW_PRIO;
     private Path usedTempFilePath;
-    private volatile boolean persistenceRequested;
+    protected volatile boolean persistenceRequested;
     @Nullable
     private Timer timer;
     private ExecutorService writeToDiskExecutor;
@@ -433,6 +441,13 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         }
     }
 
+    /**
+     * Called at {@link #flushAllDataToDiskAtShutdown} and {@link #flushAllDataToDiskAtBackup} to write all data.
+     */
+    protected void persistAll(@Nullable Runnable completeHandler) {
+        persistNow(completeHandler);
+    }
+
     public void writeToDisk(protobuf.PersistableEnvelope serialized, @Nullable Runnable completeHandler) {
         if (!allServicesInitialized.get()) {
             log.warn("Application has not completed start up yet so we do not permit writing data to disk.");
@@ -506,7 +521,7 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         }
     }
 
-    private ExecutorService getWriteToDiskExecutor() {
+    protected ExecutorService getWriteToDiskExecutor() {
         if (writeToDiskExecutor == null) {
             String name = "Write-" + fileName + "_to-disk";
             writeToDiskExecutor = Utilities.getSingleThreadExecutor(name);
@@ -0,0 +1,368 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.persistence;
+
+import bisq.common.UserThread;
+import bisq.common.config.Config;
+import bisq.common.crypto.Hash;
+import bisq.common.file.CorruptedStorageFileHandler;
+import bisq.common.file.FileUtil;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+import bisq.common.proto.persistable.ShardedPersistableEnvelope;
+import bisq.common.util.GcUtil;
+
+import com.google.protobuf.Message;
+
+import com.google.inject.Inject;
+
+import javax.inject.Named;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Persists a {@link ShardedPersistableEnvelope} as one file per shard in the directory {@code <fileName>_shards},
+ * together with a manifest file listing the keys of all shards. A {@link #requestPersistence(String)} call only
+ * causes the shard of the given key to be serialized and written. A {@link #requestPersistence()} call without a
+ * key and the flush at shut down serialize all shards, but only shards which have changed since they have been
+ * written last are written to disk.
+ * <p>
+ * Data persisted by older versions as a single file gets read if there is no manifest yet, and is written as
+ * shards with the next persistence call. To allow a downgrade we keep writing the single file at
+ * {@link #persistAll} (at shut down and backup), followed by the manifest. If the single file is newer than the
+ * manifest, it has
+ * been written by an older version after the migration, so we read it instead of the shards.
+ *
+ * @param <T>   The type of the {@link ShardedPersistableEnvelope} to be written or read from disk
+ */
+@Slf4j
+public class ShardedPersistenceManager<T extends ShardedPersistableEnvelope<T>> extends PersistenceManager<T> {
+    private static final String MANIFEST_FILE_NAME = "manifest";
+
+    private final Set<String> dirtyShardKeys = ConcurrentHashMap.newKeySet();
+    private volatile boolean allShardsDirty;
+    // Keys of the shards in the last manifest. Only accessed from the user thread.
+    private Set<String> persistedShardKeys = new HashSet<>();
+    // Hashes of the shards on disk. Only accessed from the read thread at startup and the write thread.
+    private final Map<String, byte[]> persistedShardHashes = new ConcurrentHashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public ShardedPersistenceManager(@Named(Config.STORAGE_DIR) File dir,
+                                     PersistenceProtoResolver persistenceProtoResolver,
+                                     CorruptedStorageFileHandler corruptedStorageFileHandler) {
+        super(dir, persistenceProtoResolver, corruptedStorageFileHandler);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Reading
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void readPersisted(Consumer<T> resultHandler, Runnable orElse) {
+        if (isFlushAtShutdownCalled()) {
+            log.warn("We have started the shut down routine already. We ignore that readPersisted call.");
+            return;
+        }
+
+        new Thread(() -> {
+            readCalled.set(true);
+            File manifestFile = new File(getShardDir(), MANIFEST_FILE_NAME);
+            boolean hasManifest = manifestFile.exists();
+            if (!hasManifest || storageFile.lastModified() > manifestFile.lastModified()) {
+                // Either not migrated yet, or an older version has written the single file after the migration.
+                // We read the single file and write it as shards at the next persistence call.
+                T persisted = getPersisted(fileName);
+                if (persisted != null || !hasManifest) {
+                    // Shards which are not contained in the single file anymore get removed at the next write.
+                    Set<String> shardKeysOnDisk = hasManifest ? readManifestOrEmpty(manifestFile) : Collections.emptySet();
+                    UserThread.execute(() -> {
+                        if (persisted != null) {
+                            persistedShardKeys = shardKeysOnDisk;
+                            resultHandler.accept(persisted);
+                            allShardsDirty = true;
+                            super.requestPersistence();
+                        } else {
+                            orElse.run();
+                        }
+                    });
+                    return;
+                }
+                log.warn("Reading {} failed. We read the shards instead.", fileName);
+            }
+
+            long ts = System.currentTimeMillis();
+            List<String> shardKeys;
+            try {
+                shardKeys = readManifest(manifestFile);
+            } catch (IOException e) {
+                log.error("Reading manifest of {} failed", fileName, e);
+                UserThread.execute(orElse);
+                return;
+            }
+
+            List<T> shards = shardKeys.stream()
+                    .map(this::readShard)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            log.info("Reading {} shards of {} completed in {} ms", shards.size(), fileName, System.currentTimeMillis() - ts);
+            UserThread.execute(() -> {
+                persistedShardKeys = new HashSet<>(shardKeys);
+                resultHandler.accept(persistable.fromShards(shards));
+
+                GcUtil.maybeReleaseMemory();
+            });
+        }, "PersistenceManager-read-" + fileName).start();
+    }
+
+    private static List<String> readManifest(File manifestFile) throws IOException {
+        return Files.readAllLines(manifestFile.toPath(), StandardCharsets.UTF_8).stream()
+                .filter(line -> !line.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private Set<String> readManifestOrEmpty(File manifestFile) {
+        try {
+            return new HashSet<>(readManifest(manifestFile));
+        } catch (IOException e) {
+            log.warn("Reading manifest of {} failed", fileName, e);
+            return new HashSet<>();
+        }
+    }
+
+    @Nullable
+    private T readShard(String shardKey) {
+        File shardFile = new File(getShardDir(), toShardFileName(shardKey));
+        if (!shardFile.exists()) {
+            log.warn("Shard {} of {} is listed in the manifest but does not exist", shardKey, fileName);
+            return null;
+        }
+
+        try (FileInputStream fileInputStream = new FileInputStream(shardFile)) {
+            protobuf.PersistableEnvelope proto = protobuf.PersistableEnvelope.parseDelimitedFrom(fileInputStream);
+            persistedShardHashes.put(shardKey, Hash.getSha256Hash(proto.toByteArray()));
+            //noinspection unchecked
+            return (T) persistenceProtoResolver.fromProto(proto);
+        } catch (Throwable t) {
+            log.error("Reading shard {} of {} failed with {}.", shardKey, fileName, t.getMessage());
+            try {
+                // We keep a backup which might be used for recovery
+                FileUtil.removeAndBackupFile(getShardDir(), shardFile, shardFile.getName(), "backup_of_corrupted_data");
+            } catch (IOException e) {
+                log.error(e.getMessage());
+                // We swallow Exception if backup fails
+            }
+            if (corruptedStorageFileHandler != null) {
+                corruptedStorageFileHandler.addFile(fileName + "/" + shardFile.getName());
+            }
+            return null;
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Writing
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Requests persistence of the shard with the given key. If the key is not contained anymore in the
+     * persistable, the shard gets removed.
+     */
+    public void requestPersistence(String shardKey) {
+        dirtyShardKeys.add(shardKey);
+        super.requestPersistence();
+    }
+
+    /**
+     * Requests persistence of all shards. Only shards which have changed get written to disk.
+     */
+    @Override
+    public void requestPersistence() {
+        allShardsDirty = true;
+        super.requestPersistence();
+    }
+
+    @Override
+    protected void persistAll(@Nullable Runnable completeHandler) {
+        allShardsDirty = true;
+        persistShards(completeHandler, true);
+    }
+
+    @Override
+    public void persistNow(@Nullable Runnable completeHandler) {
+        persistShards(completeHandler, false);
+    }
+
+    private void persistShards(@Nullable Runnable completeHandler, boolean writeSingleFile) {
+        long ts = System.currentTimeMillis();
+        try {
+            // As in the PersistenceManager we serialize on the user thread and only write in the write thread.
+            Set<String> shardKeys = new HashSet<>(persistable.getShardKeys());
+            boolean writeAll = allShardsDirty;
+            Set<String> keysToWrite = shardKeys.stream()
+                    .filter(key -> writeAll || dirtyShardKeys.contains(key) || !persistedShardKeys.contains(key))
+                    .collect(Collectors.toSet());
+            Map<String, Message> serializedShards = persistable.toShardMessages(keysToWrite);
+            // The single file of older versions only gets updated at shut down and backup, as writing it requires
+            // serializing all data again
+            @Nullable protobuf.PersistableEnvelope serialized = writeSingleFile ?
+                    (protobuf.PersistableEnvelope) persistable.toPersistableMessage() : null;
+            Set<String> removedShardKeys = new HashSet<>(persistedShardKeys);
+            removedShardKeys.removeAll(shardKeys);
+            @Nullable Set<String> manifest = writeAll || !shardKeys.equals(persistedShardKeys) ? shardKeys : null;
+
+            allShardsDirty = false;
+            dirtyShardKeys.clear();
+            persistedShardKeys = shardKeys;
+
+            getWriteToDiskExecutor().execute(() ->
+                    writeShardsToDisk(serializedShards, serialized, manifest, removedShardKeys, completeHandler));
+
+            long duration = System.currentTimeMillis() - ts;
+            if (duration > 100) {
+                log.info("Serializing {} shards of {} took {} msec", serializedShards.size(), fileName, duration);
+            }
+        } catch (Throwable e) {
+            log.error("Error in saveToFile toShardMessages: {}, {}", persistable.getClass().getSimpleName(), fileName);
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void writeShardsToDisk(Map<String, Message> serializedShards,
+                                   @Nullable protobuf.PersistableEnvelope serialized,
+                                   @Nullable Set<String> manifest,
+                                   Set<String> removedShardKeys,
+                                   @Nullable Runnable completeHandler) {
+        if (!isAllServicesInitialized()) {
+            log.warn("Application has not completed start up yet so we do not permit writing data to disk.");
+            UserThread.execute(completeHandler);
+            return;
+        }
+
+        long ts = System.currentTimeMillis();
+        int numWrittenShards = 0;
+        try {
+            File shardDir = getShardDir();
+            if (!shardDir.exists() && !shardDir.mkdirs())
+                log.warn("make dir failed {}", shardDir);
+
+            for (Map.Entry<String, Message> entry : serializedShards.entrySet()) {
+                String shardKey = entry.getKey();
+                byte[] bytes = entry.getValue().toByteArray();
+                byte[] hash = Hash.getSha256Hash(bytes);
+                if (Arrays.equals(hash, persistedShardHashes.get(shardKey))) {
+                    continue;
+                }
+
+                String shardFileName = toShardFileName(shardKey);
+                FileUtil.rollingBackup(shardDir, shardFileName, source.getNumMaxBackupFiles());
+                writeFile(shardDir, shardFileName, entry.getValue()::writeDelimitedTo);
+                persistedShardHashes.put(shardKey, hash);
+                numWrittenShards++;
+            }
+
+            if (serialized != null) {
+                try {
+                    FileUtil.rollingBackup(dir, fileName, source.getNumMaxBackupFiles());
+                    writeFile(dir, fileName, serialized::writeDelimitedTo);
+                } catch (IOException e) {
+                    log.error("Error at writing {}", fileName, e);
+                }
+            }
+
+            // The manifest is written after the shards, so it never lists a shard which has not been written. It is
+            // also written after the single file, so it is not older than the single file written by us.
+            if (manifest != null) {
+                byte[] manifestBytes = String.join("\n", manifest).getBytes(StandardCharsets.UTF_8);
+                writeFile(shardDir, MANIFEST_FILE_NAME, outputStream -> outputStream.write(manifestBytes));
+            }
+
+            for (String shardKey : removedShardKeys) {
+                FileUtil.deleteFileIfExists(new File(shardDir, toShardFileName(shardKey)));
+                persistedShardHashes.remove(shardKey);
+            }
+        } catch (Throwable t) {
+            log.error("Error at writing shards of {}", fileName, t);
+        } finally {
+            long duration = System.currentTimeMillis() - ts;
+            if (duration > 100) {
+                log.info("Writing {} shards of {} completed in {} msec", numWrittenShards, fileName, duration);
+            }
+            persistenceRequested = false;
+            if (completeHandler != null) {
+                UserThread.execute(completeHandler);
+            }
+        }
+    }
+
+    private void writeFile(File dir, String fileName, StreamWriter writer) throws IOException {
+        File tempFile = File.createTempFile("temp_" + fileName, null, dir);
+        try {
+            try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile)) {
+                writer.write(fileOutputStream);
+                fileOutputStream.flush();
+                fileOutputStream.getFD().sync();
+            }
+            FileUtil.renameFile(tempFile, new File(dir, fileName));
+        } finally {
+            if (tempFile.exists() && !tempFile.delete()) {
+                log.error("Cannot delete temp file {}", tempFile);
+            }
+        }
+    }
+
+    private interface StreamWriter {
+        void write(OutputStream outputStream) throws IOException;
+    }
+
+    private File getShardDir() {
+        return new File(dir, fileName + "_shards");
+    }
+
+    // Keys are trade or offer IDs, but we don't want to rely on that for file names.
+    private static String toShardFileName(String shardKey) {
+        return shardKey.replaceAll("[^A-Za-z0-9_.-]", "_");
+    }
+}
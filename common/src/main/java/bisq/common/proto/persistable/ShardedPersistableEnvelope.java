@@ -0,0 +1,50 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.proto.persistable;
+
+import com.google.protobuf.Message;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Persistable envelope which can be split into shards, so that a change of one element only requires writing
+ * the shard of that element. Used by the {@link bisq.common.persistence.ShardedPersistenceManager}.
+ * <p>
+ * Each shard is persisted as an envelope of the same type containing only the elements of that shard.
+ *
+ * @param <T>   The type of the envelope
+ */
+public interface ShardedPersistableEnvelope<T extends ShardedPersistableEnvelope<T>> extends PersistableEnvelope {
+
+    /**
+     * @return the keys of all shards. The keys are used as file names.
+     */
+    Set<String> getShardKeys();
+
+    /**
+     * @return the serialized envelopes of the shards with the given keys
+     */
+    Map<String, Message> toShardMessages(Set<String> shardKeys);
+
+    /**
+     * @return a new envelope containing the elements of all the given shards
+     */
+    T fromShards(List<T> shards);
+}
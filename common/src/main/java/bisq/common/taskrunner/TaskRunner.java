@@ -19,15 +19,31 @@ package bisq.common.taskrunner;
 
 import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.ResultHandler;
+import bisq.common.metrics.MetricsRegistry;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 
 import java.util.Arrays;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class TaskRunner<T extends Model> {
+    // Constructors of the task classes, looked up once per task class and model class instead of
+    // via reflection each time a task gets created.
+    private static final ClassValue<Map<Class<?>, MethodHandle>> TASK_CONSTRUCTORS = new ClassValue<>() {
+        @Override
+        protected Map<Class<?>, MethodHandle> computeValue(Class<?> taskClass) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     private final Queue<Class<? extends Task<T>>> tasks = new LinkedBlockingQueue<>();
     private final T sharedModel;
     private final Class<T> sharedModelClass;
@@ -37,6 +53,12 @@ public class TaskRunner<T extends Model> {
     private boolean isCanceled;
 
     private Class<? extends Task<T>> currentTask;
+    private long currentTaskStartDate;
+    private long currentTaskStartNanos;
+    private long currentTaskQueueWaitNanos;
+    private boolean currentTaskFinished = true;
+    // Time when the previous task has finished or the task runner got started
+    private long readyNanos;
 
 
     public TaskRunner(T sharedModel, ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
@@ -57,6 +79,7 @@ public class TaskRunner<T extends Model> {
     }
 
     public void run() {
+        readyNanos = System.nanoTime();
         next();
     }
 
@@ -66,7 +89,11 @@ public class TaskRunner<T extends Model> {
                 try {
                     currentTask = tasks.poll();
                     log.info("Run task: " + currentTask.getSimpleName());
-                    currentTask.getDeclaredConstructor(TaskRunner.class, sharedModelClass).newInstance(this, sharedModel).run();
+                    currentTaskStartDate = System.currentTimeMillis();
+                    currentTaskStartNanos = System.nanoTime();
+                    currentTaskQueueWaitNanos = currentTaskStartNanos - readyNanos;
+                    currentTaskFinished = false;
+                    newTask(currentTask).run();
                 } catch (Throwable throwable) {
                     throwable.printStackTrace();
                     handleErrorMessage("Error at taskRunner: " + throwable.getMessage());
@@ -82,12 +109,58 @@ public class TaskRunner<T extends Model> {
     }
 
     void handleComplete() {
+        onCurrentTaskFinished(TaskTiming.Outcome.COMPLETED);
+        readyNanos = System.nanoTime();
         next();
     }
 
     void handleErrorMessage(String errorMessage) {
         log.error("Task failed: " + currentTask.getSimpleName() + " / errorMessage: " + errorMessage);
+        onCurrentTaskFinished(TaskTiming.Outcome.FAILED);
         failed = true;
         errorMessageHandler.handleErrorMessage(errorMessage);
     }
+
+    /**
+     * Called after each task has completed or failed. Subclasses can override it to keep the timings, e.g. with
+     * the model of the protocol.
+     */
+    protected void onTaskFinished(TaskTiming taskTiming) {
+    }
+
+    private void onCurrentTaskFinished(TaskTiming.Outcome outcome) {
+        if (currentTask == null || currentTaskFinished) {
+            return;
+        }
+
+        currentTaskFinished = true;
+        long durationNanos = System.nanoTime() - currentTaskStartNanos;
+        MetricsRegistry.getDefault().histogram("bisq_task_duration_millis",
+                "Wall time of protocol tasks from start until completion or failure in milliseconds",
+                "task", currentTask.getSimpleName(),
+                "outcome", outcome.name())
+                .record(TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        onTaskFinished(new TaskTiming(currentTask.getSimpleName(),
+                currentTaskStartDate,
+                TimeUnit.NANOSECONDS.toMillis(currentTaskQueueWaitNanos),
+                TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                outcome));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Task<T> newTask(Class<? extends Task<T>> taskClass) throws Throwable {
+        MethodHandle constructor = TASK_CONSTRUCTORS.get(taskClass)
+                .computeIfAbsent(sharedModelClass, modelClass -> findConstructor(taskClass, modelClass));
+        return (Task<T>) constructor.invoke(this, sharedModel);
+    }
+
+    private static MethodHandle findConstructor(Class<?> taskClass, Class<?> modelClass) {
+        try {
+            return MethodHandles.lookup()
+                    .unreflectConstructor(taskClass.getDeclaredConstructor(TaskRunner.class, modelClass));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Task " + taskClass.getSimpleName() +
+                    " has no accessible constructor for " + modelClass.getSimpleName(), e);
+        }
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.taskrunner;
+
+import bisq.common.proto.ProtoUtil;
+import bisq.common.proto.persistable.PersistablePayload;
+
+import lombok.Value;
+
+/**
+ * Timing of a single task run by a {@link TaskRunner}.
+ * <p>
+ * The queue wait is the time from the completion of the previous task (or the start of the
+ * task runner for the first task) until the task got started. The duration is the wall time
+ * from the start of the task until it completed or failed, so it includes the time an
+ * asynchronous task waited for a wallet, a peer or the network.
+ */
+@Value
+public final class TaskTiming implements PersistablePayload {
+    public enum Outcome {
+        UNDEFINED,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String taskName;
+    // Wall clock time of the start of the task
+    private final long startDate;
+    private final long queueWaitMs;
+    private final long durationMs;
+    private final Outcome outcome;
+
+    public TaskTiming(String taskName, long startDate, long queueWaitMs, long durationMs, Outcome outcome) {
+        this.taskName = taskName;
+        this.startDate = startDate;
+        this.queueWaitMs = queueWaitMs;
+        this.durationMs = durationMs;
+        this.outcome = outcome;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public protobuf.TaskTiming toProtoMessage() {
+        return protobuf.TaskTiming.newBuilder()
+                .setTaskName(taskName)
+                .setStartDate(startDate)
+                .setQueueWaitMs(queueWaitMs)
+                .setDurationMs(durationMs)
+                .setOutcome(outcome.name())
+                .build();
+    }
+
+    public static TaskTiming fromProto(protobuf.TaskTiming proto) {
+        return new TaskTiming(proto.getTaskName(),
+                proto.getStartDate(),
+                proto.getQueueWaitMs(),
+                proto.getDurationMs(),
+                ProtoUtil.enumFromProto(Outcome.class, proto.getOutcome()));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void testCounterIsSharedByNameAndLabels() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Counter ping = registry.counter("messages_total", "help", "message", "Ping");
+        ping.increment();
+        registry.counter("messages_total", "help", "message", "Ping").add(2);
+        registry.counter("messages_total", "help", "message", "Pong").increment();
+
+        assertSame(ping, registry.counter("messages_total", "help", "message", "Ping"));
+        assertEquals(3, ping.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTypeMismatch() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("metric", "help");
+        registry.histogram("metric", "help");
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        Histogram histogram = new MetricsRegistry().histogram("latency", "help");
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500500, histogram.getSum());
+        assertEquals(1000, histogram.getMax());
+        assertWithinRelativeError(500, histogram.getValueAtPercentile(50));
+        assertWithinRelativeError(990, histogram.getValueAtPercentile(99));
+        assertEquals(1000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testBucketBounds() {
+        long[] values = {0, 1, 15, 16, 17, 31, 32, 1000, 123456789, Long.MAX_VALUE};
+        for (long value : values) {
+            int index = Histogram.bucketIndex(value);
+            assertTrue(value <= Histogram.bucketUpperBound(index));
+            assertTrue(index == 0 || value > Histogram.bucketUpperBound(index - 1));
+        }
+    }
+
+    @Test
+    public void testPrometheusText() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("sent_total", "Sent messages", "message", "Ping").add(5);
+        registry.gauge("queue_size", "Queue size", () -> 3);
+        registry.histogram("duration", "Duration").record(7);
+
+        String text = registry.toPrometheusText();
+        assertTrue(text.contains("# TYPE sent_total counter\nsent_total{message=\"Ping\"} 5\n"));
+        assertTrue(text.contains("# TYPE queue_size gauge\nqueue_size 3\n"));
+        assertTrue(text.contains("# TYPE duration summary\n"));
+        assertTrue(text.contains("duration{quantile=\"0.5\"} 7\n"));
+        assertTrue(text.contains("duration_count 1\n"));
+
+        registry.remove("queue_size");
+        assertFalse(registry.toPrometheusText().contains("queue_size"));
+    }
+
+    private static void assertWithinRelativeError(long expected, long actual) {
+        assertTrue("expected " + expected + " but was " + actual,
+                Math.abs(actual - expected) <= expected * 0.07);
+    }
+}
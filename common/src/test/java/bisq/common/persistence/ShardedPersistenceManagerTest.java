@@ -0,0 +1,302 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.persistence;
+
+import bisq.common.Payload;
+import bisq.common.file.CorruptedStorageFileHandler;
+import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.PersistablePayload;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+import bisq.common.proto.persistable.ShardedPersistableEnvelope;
+
+import com.google.protobuf.Message;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ShardedPersistenceManagerTest {
+    private static final String FILE_NAME = "TestEnvelope";
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File dir;
+    private File shardDir;
+    private CorruptedStorageFileHandler corruptedStorageFileHandler;
+    private final List<PersistenceManager<?>> persistenceManagers = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        PersistenceManager.onAllServicesInitialized();
+        dir = tempFolder.newFolder();
+        shardDir = new File(dir, FILE_NAME + "_shards");
+        corruptedStorageFileHandler = new CorruptedStorageFileHandler();
+    }
+
+    @After
+    public void tearDown() {
+        persistenceManagers.forEach(PersistenceManager::shutdown);
+    }
+
+    @Test
+    public void testMigrateAndPersistShards() throws Exception {
+        writeLegacyFile("a", "b", "c");
+
+        TestEnvelope envelope = new TestEnvelope();
+        ShardedPersistenceManager<TestEnvelope> persistenceManager = newShardedPersistenceManager(envelope);
+        assertEquals(Set.of("a", "b", "c"), read(persistenceManager, envelope));
+        persist(persistenceManager);
+
+        assertEquals(Set.of("a", "b", "c"), readManifest());
+        assertTrue(new File(shardDir, "a").exists());
+        // The single file is kept for a downgrade
+        assertTrue(new File(dir, FILE_NAME).exists());
+
+        envelope.items.add("d");
+        persistenceManager.requestPersistence("d");
+        persist(persistenceManager);
+        assertTrue(new File(shardDir, "d").exists());
+
+        envelope.items.remove("a");
+        persistenceManager.requestPersistence("a");
+        persist(persistenceManager);
+        assertFalse(new File(shardDir, "a").exists());
+        assertEquals(Set.of("b", "c", "d"), readManifest());
+
+        assertEquals(Set.of("b", "c", "d"), reRead());
+    }
+
+    @Test
+    public void testSingleFileOnlyWrittenAtPersistAll() throws Exception {
+        writeLegacyFile("a");
+        TestEnvelope envelope = new TestEnvelope();
+        ShardedPersistenceManager<TestEnvelope> persistenceManager = newShardedPersistenceManager(envelope);
+        read(persistenceManager, envelope);
+        persist(persistenceManager);
+
+        envelope.items.add("b");
+        persistenceManager.requestPersistence();
+        persist(persistenceManager);
+        assertEquals(Set.of("a", "b"), readManifest());
+        assertEquals(Set.of("a"), readLegacyFile());
+
+        CountDownLatch latch = new CountDownLatch(1);
+        persistenceManager.persistAll(latch::countDown);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(Set.of("a", "b"), readLegacyFile());
+        assertTrue(new File(shardDir, "manifest").lastModified() >= new File(dir, FILE_NAME).lastModified());
+    }
+
+    @Test
+    public void testReadWithCorruptedAndMissingShard() throws Exception {
+        writeLegacyFile("a", "b", "c");
+        TestEnvelope envelope = new TestEnvelope();
+        ShardedPersistenceManager<TestEnvelope> persistenceManager = newShardedPersistenceManager(envelope);
+        read(persistenceManager, envelope);
+        persist(persistenceManager);
+        shutdown(persistenceManager);
+
+        // Length prefix of 127 bytes but only 2 bytes of data
+        Files.write(new File(shardDir, "b").toPath(), new byte[]{0x7f, 0x01, 0x02});
+        assertTrue(new File(shardDir, "c").delete());
+
+        envelope = new TestEnvelope();
+        persistenceManager = newShardedPersistenceManager(envelope);
+        assertEquals(Set.of("a"), read(persistenceManager, envelope));
+        assertEquals(List.of(FILE_NAME + "/b"), corruptedStorageFileHandler.getFiles().orElseThrow());
+        assertTrue(new File(new File(shardDir, "backup_of_corrupted_data"), "b").exists());
+
+        persist(persistenceManager);
+        assertEquals(Set.of("a"), readManifest());
+        assertFalse(new File(shardDir, "b").exists());
+
+        assertEquals(Set.of("a"), reRead());
+    }
+
+    @Test
+    public void testReadSingleFileWrittenAfterMigration() throws Exception {
+        writeLegacyFile("a", "b");
+        TestEnvelope envelope = new TestEnvelope();
+        ShardedPersistenceManager<TestEnvelope> persistenceManager = newShardedPersistenceManager(envelope);
+        read(persistenceManager, envelope);
+        persist(persistenceManager);
+        shutdown(persistenceManager);
+
+        // An older version has written the single file after a downgrade
+        writeLegacyFile("a", "x");
+        File manifestFile = new File(shardDir, "manifest");
+        assertTrue(manifestFile.setLastModified(new File(dir, FILE_NAME).lastModified() - 10_000));
+
+        envelope = new TestEnvelope();
+        persistenceManager = newShardedPersistenceManager(envelope);
+        assertEquals(Set.of("a", "x"), read(persistenceManager, envelope));
+
+        persist(persistenceManager);
+        assertEquals(Set.of("a", "x"), readManifest());
+        assertFalse(new File(shardDir, "b").exists());
+        assertTrue(manifestFile.lastModified() >= new File(dir, FILE_NAME).lastModified());
+
+        assertEquals(Set.of("a", "x"), reRead());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Helpers
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void writeLegacyFile(String... items) throws InterruptedException {
+        PersistenceManager<TestEnvelope> persistenceManager = new PersistenceManager<>(dir,
+                new TestProtoResolver(),
+                corruptedStorageFileHandler);
+        persistenceManager.initialize(new TestEnvelope(items), FILE_NAME, PersistenceManager.Source.NETWORK);
+        persistenceManagers.add(persistenceManager);
+        CountDownLatch latch = new CountDownLatch(1);
+        persistenceManager.persistNow(latch::countDown);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        shutdown(persistenceManager);
+    }
+
+    private ShardedPersistenceManager<TestEnvelope> newShardedPersistenceManager(TestEnvelope envelope) {
+        ShardedPersistenceManager<TestEnvelope> persistenceManager = new ShardedPersistenceManager<>(dir,
+                new TestProtoResolver(),
+                corruptedStorageFileHandler);
+        // We use a long delay so that only our explicit persistNow calls write to disk
+        persistenceManager.initialize(envelope, FILE_NAME, PersistenceManager.Source.NETWORK);
+        persistenceManagers.add(persistenceManager);
+        return persistenceManager;
+    }
+
+    private Set<String> read(ShardedPersistenceManager<TestEnvelope> persistenceManager, TestEnvelope envelope)
+            throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        persistenceManager.readPersisted(persisted -> {
+            envelope.items.addAll(persisted.items);
+            latch.countDown();
+        }, latch::countDown);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        return new HashSet<>(envelope.items);
+    }
+
+    private Set<String> reRead() throws InterruptedException {
+        new ArrayList<>(persistenceManagers).forEach(this::shutdown);
+        TestEnvelope envelope = new TestEnvelope();
+        return read(newShardedPersistenceManager(envelope), envelope);
+    }
+
+    private void persist(PersistenceManager<?> persistenceManager) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        persistenceManager.persistNow(latch::countDown);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+
+    private void shutdown(PersistenceManager<?> persistenceManager) {
+        persistenceManager.shutdown();
+        persistenceManagers.remove(persistenceManager);
+    }
+
+    private Set<String> readManifest() throws IOException {
+        return Files.readAllLines(new File(shardDir, "manifest").toPath(), StandardCharsets.UTF_8).stream()
+                .filter(line -> !line.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    private Set<String> readLegacyFile() throws IOException {
+        try (FileInputStream fileInputStream = new FileInputStream(new File(dir, FILE_NAME))) {
+            return new HashSet<>(protobuf.PersistableEnvelope.parseDelimitedFrom(fileInputStream)
+                    .getNavigationPath().getPathList());
+        }
+    }
+
+    // Uses each item as its own shard
+    private static class TestEnvelope implements ShardedPersistableEnvelope<TestEnvelope> {
+        private final List<String> items;
+
+        TestEnvelope(String... items) {
+            this.items = new ArrayList<>(Arrays.asList(items));
+        }
+
+        @Override
+        public Message toProtoMessage() {
+            return protobuf.PersistableEnvelope.newBuilder()
+                    .setNavigationPath(protobuf.NavigationPath.newBuilder().addAllPath(items))
+                    .build();
+        }
+
+        @Override
+        public Set<String> getShardKeys() {
+            return new HashSet<>(items);
+        }
+
+        @Override
+        public Map<String, Message> toShardMessages(Set<String> shardKeys) {
+            return items.stream()
+                    .filter(shardKeys::contains)
+                    .collect(Collectors.toMap(Function.identity(), item -> new TestEnvelope(item).toProtoMessage()));
+        }
+
+        @Override
+        public TestEnvelope fromShards(List<TestEnvelope> shards) {
+            return new TestEnvelope(shards.stream()
+                    .flatMap(shard -> shard.items.stream())
+                    .toArray(String[]::new));
+        }
+    }
+
+    private static class TestProtoResolver implements PersistenceProtoResolver {
+        @Override
+        public PersistableEnvelope fromProto(protobuf.PersistableEnvelope proto) {
+            return new TestEnvelope(proto.getNavigationPath().getPathList().toArray(new String[0]));
+        }
+
+        @Override
+        public Payload fromProto(protobuf.PaymentAccountPayload proto) {
+            return null;
+        }
+
+        @Override
+        public PersistablePayload fromProto(protobuf.PersistableNetworkPayload proto) {
+            return null;
+        }
+    }
+}
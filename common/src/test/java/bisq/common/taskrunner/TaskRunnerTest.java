@@ -0,0 +1,84 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.taskrunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TaskRunnerTest {
+
+    public static class TestModel implements Model {
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    public static class CompletingTask extends Task<TestModel> {
+        public CompletingTask(TaskRunner<TestModel> taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            complete();
+        }
+    }
+
+    public static class FailingTask extends Task<TestModel> {
+        public FailingTask(TaskRunner<TestModel> taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            failed("test failure");
+        }
+    }
+
+    @Test
+    public void testTaskTimings() {
+        List<TaskTiming> timings = new ArrayList<>();
+        List<String> errorMessages = new ArrayList<>();
+        boolean[] completed = {false};
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(new TestModel(),
+                () -> completed[0] = true,
+                errorMessages::add) {
+            @Override
+            protected void onTaskFinished(TaskTiming taskTiming) {
+                timings.add(taskTiming);
+            }
+        };
+        taskRunner.addTasks(CompletingTask.class, CompletingTask.class, FailingTask.class, CompletingTask.class);
+        taskRunner.run();
+
+        assertFalse(completed[0]);
+        assertEquals(1, errorMessages.size());
+        assertEquals(3, timings.size());
+        assertEquals("CompletingTask", timings.get(0).getTaskName());
+        assertEquals(TaskTiming.Outcome.COMPLETED, timings.get(1).getOutcome());
+        assertEquals("FailingTask", timings.get(2).getTaskName());
+        assertEquals(TaskTiming.Outcome.FAILED, timings.get(2).getOutcome());
+        timings.forEach(timing -> assertTrue(timing.getDurationMs() >= 0 && timing.getQueueWaitMs() >= 0));
+    }
+}
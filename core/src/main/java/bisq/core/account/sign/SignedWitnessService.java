@@ -24,6 +24,7 @@ import bisq.core.user.User;
 
 import bisq.network.p2p.BootstrapListener;
 import bisq.network.p2p.P2PService;
+import bisq.network.p2p.storage.CompactByteArrayMap;
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreService;
 
@@ -77,11 +78,11 @@ public class SignedWitnessService {
     private final User user;
     private final FilterManager filterManager;
 
-    private final Map<P2PDataStorage.ByteArray, SignedWitness> signedWitnessMap = new HashMap<>();
+    private final Map<P2PDataStorage.ByteArray, SignedWitness> signedWitnessMap = new CompactByteArrayMap<>();
 
     // This map keeps all SignedWitnesses with the same AccountAgeWitnessHash in a Set.
     // This avoids iterations over the signedWitnessMap for getting the set of such SignedWitnesses.
-    private final Map<P2PDataStorage.ByteArray, Set<SignedWitness>> signedWitnessSetByAccountAgeWitnessHash = new HashMap<>();
+    private final Map<P2PDataStorage.ByteArray, Set<SignedWitness>> signedWitnessSetByAccountAgeWitnessHash = new CompactByteArrayMap<>();
 
     // Iterating over all SignedWitnesses and do a byte array comparison is a bit expensive and
     // it is called at filtering the offer book many times, so we use a lookup map for fast
@@ -94,6 +95,16 @@ public class SignedWitnessService {
     private final Map<P2PDataStorage.ByteArray, Boolean> verifySignatureWithDSAKeyResultCache = new HashMap<>();
     private final Map<P2PDataStorage.ByteArray, Boolean> verifySignatureWithECKeyResultCache = new HashMap<>();
 
+    // Whether a SignedWitness has a valid chain of signers does not depend on the time we check it, only the date
+    // check of the SignedWitness itself does. So we keep the result of the expensive chain walk per SignedWitness
+    // hash and derive from it the earliest time from when an AccountAgeWitness or an owner pubKey is a valid signer
+    // (Long.MIN_VALUE if signed by an arbitrator, Long.MAX_VALUE if not a signer at all).
+    // Adding a SignedWitness can only turn invalid chains into valid ones, so at adding we only drop the invalid
+    // entries. At removal of a SignedWitness or at a filter change we clear all.
+    private final Map<P2PDataStorage.ByteArray, Boolean> validSignerChainByWitnessHash = new HashMap<>();
+    private final Map<P2PDataStorage.ByteArray, Long> signerSinceByAccountAgeWitnessHash = new HashMap<>();
+    private final Map<P2PDataStorage.ByteArray, Long> signerSinceByOwnerPubKey = new HashMap<>();
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -135,6 +146,9 @@ public class SignedWitnessService {
                 addToMap((SignedWitness) e);
         });
 
+        // The filter can ban signers which invalidates all chains containing them
+        filterManager.filterProperty().addListener((observable, oldValue, newValue) -> onFilterChanged());
+
         if (p2PService.isBootstrapped()) {
             onBootstrapComplete();
         } else {
@@ -443,8 +457,13 @@ public class SignedWitnessService {
     }
 
     private boolean verifySigner(SignedWitness signedWitness) {
-        return getSignedWitnessSetByOwnerPubKey(signedWitness.getWitnessOwnerPubKey(), new Stack<>()).stream()
-                .anyMatch(w -> isValidSignerWitnessInternal(w, signedWitness.getDate(), new Stack<>()));
+        P2PDataStorage.ByteArray ownerPubKey = new P2PDataStorage.ByteArray(signedWitness.getWitnessOwnerPubKey());
+        Long signerSince = signerSinceByOwnerPubKey.get(ownerPubKey);
+        if (signerSince == null) {
+            signerSince = getSignerSince(signedWitnessSetByOwnerPubKey.getOrDefault(ownerPubKey, new HashSet<>()));
+            signerSinceByOwnerPubKey.put(ownerPubKey, signerSince);
+        }
+        return signerSince <= signedWitness.getDate();
     }
 
     /**
@@ -456,15 +475,44 @@ public class SignedWitnessService {
      * @return true if accountAgeWitness is allowed to sign at time, false otherwise.
      */
     private boolean isSignerAccountAgeWitness(AccountAgeWitness accountAgeWitness, long time) {
-        Stack<P2PDataStorage.ByteArray> excludedPubKeys = new Stack<>();
-        Set<SignedWitness> signedWitnessSet = getSignedWitnessSet(accountAgeWitness);
+        P2PDataStorage.ByteArray accountAgeWitnessHash = new P2PDataStorage.ByteArray(accountAgeWitness.getHash());
+        Long signerSince = signerSinceByAccountAgeWitnessHash.get(accountAgeWitnessHash);
+        if (signerSince == null) {
+            signerSince = getSignerSince(getSignedWitnessSet(accountAgeWitness));
+            signerSinceByAccountAgeWitnessHash.put(accountAgeWitnessHash, signerSince);
+        }
+        return signerSince <= time;
+    }
+
+    /**
+     * @param signedWitnessSet the SignedWitnesses of one AccountAgeWitness or one owner pubKey
+     * @return the earliest time at which any of the signedWitnesses is a valid signer, Long.MIN_VALUE if signed by an
+     * arbitrator and Long.MAX_VALUE if none of them is a valid signer.
+     */
+    private long getSignerSince(Set<SignedWitness> signedWitnessSet) {
+        long signerSince = Long.MAX_VALUE;
         for (SignedWitness signedWitness : signedWitnessSet) {
-            if (isValidSignerWitnessInternal(signedWitness, time, excludedPubKeys)) {
-                return true;
+            if (hasValidSignerChain(signedWitness)) {
+                // Same condition as in verifyDate
+                long validFrom = signedWitness.isSignedByArbitrator() ?
+                        Long.MIN_VALUE :
+                        signedWitness.getDate() + SIGNER_AGE;
+                signerSince = Math.min(signerSince, validFrom);
             }
         }
-        // If we have not returned in the loops or they have been empty we have not found a valid signer.
-        return false;
+        return signerSince;
+    }
+
+    private boolean hasValidSignerChain(SignedWitness signedWitness) {
+        P2PDataStorage.ByteArray hash = signedWitness.getHashAsByteArray();
+        Boolean result = validSignerChainByWitnessHash.get(hash);
+        if (result == null) {
+            // We use the max. possible child date so the date check of the signedWitness itself always passes. That
+            // check is done by the caller with the actual time.
+            result = isValidSignerWitnessInternal(signedWitness, Long.MAX_VALUE, new Stack<>());
+            validSignerChainByWitnessHash.put(hash, result);
+        }
+        return result;
     }
 
     /**
@@ -533,6 +581,22 @@ public class SignedWitnessService {
         P2PDataStorage.ByteArray ownerPubKey = new P2PDataStorage.ByteArray(signedWitness.getWitnessOwnerPubKey());
         signedWitnessSetByOwnerPubKey.putIfAbsent(ownerPubKey, new HashSet<>());
         signedWitnessSetByOwnerPubKey.get(ownerPubKey).add(signedWitness);
+
+        // A new SignedWitness can only add valid chains, so valid entries stay valid
+        validSignerChainByWitnessHash.values().removeIf(isValid -> !isValid);
+        signerSinceByAccountAgeWitnessHash.clear();
+        signerSinceByOwnerPubKey.clear();
+    }
+
+    @VisibleForTesting
+    void onFilterChanged() {
+        clearSignerStatus();
+    }
+
+    private void clearSignerStatus() {
+        validSignerChainByWitnessHash.clear();
+        signerSinceByAccountAgeWitnessHash.clear();
+        signerSinceByOwnerPubKey.clear();
     }
 
     private void publishSignedWitness(SignedWitness signedWitness) {
@@ -570,6 +634,8 @@ public class SignedWitnessService {
                 signedWitnessSetByOwnerPubKey.remove(ownerPubKey);
             }
         }
+
+        clearSignerStatus();
     }
 
     // Remove SignedWitnesses that are signed by TRADE that also have an ARBITRATOR signature
@@ -42,6 +42,7 @@ import bisq.network.p2p.BootstrapListener;
 import bisq.network.p2p.P2PService;
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreService;
+import bisq.network.p2p.storage.persistence.PersistableNetworkPayloadView;
 
 import bisq.common.UserThread;
 import bisq.common.crypto.CryptoException;
@@ -138,17 +139,17 @@ public class AccountAgeWitnessService {
     private final User user;
     private final SignedWitnessService signedWitnessService;
     private final ChargeBackRisk chargeBackRisk;
-    private final AccountAgeWitnessStorageService accountAgeWitnessStorageService;
     private final Clock clock;
     private final FilterManager filterManager;
     @Getter
     private final AccountAgeWitnessUtils accountAgeWitnessUtils;
 
-    private final Map<P2PDataStorage.ByteArray, AccountAgeWitness> accountAgeWitnessMap = new HashMap<>();
+    // View on the account age witnesses in the store. We do not keep a copy of the data.
+    private final PersistableNetworkPayloadView<AccountAgeWitness> accountAgeWitnessView;
 
-    // The accountAgeWitnessMap is very large (70k items) and access is a bit expensive. We usually only access less
+    // The accountAgeWitnessView is very large (70k items) and access is a bit expensive. We usually only access less
     // than 100 items, those who have offers online. So we use a cache for a fast lookup and only if
-    // not found there we use the accountAgeWitnessMap and put then the new item into our cache.
+    // not found there we use the accountAgeWitnessView and put then the new item into our cache.
     private final Map<P2PDataStorage.ByteArray, AccountAgeWitness> accountAgeWitnessCache = new ConcurrentHashMap<>();
 
 
@@ -172,7 +173,6 @@ public class AccountAgeWitnessService {
         this.user = user;
         this.signedWitnessService = signedWitnessService;
         this.chargeBackRisk = chargeBackRisk;
-        this.accountAgeWitnessStorageService = accountAgeWitnessStorageService;
         this.clock = clock;
         this.filterManager = filterManager;
 
@@ -183,6 +183,7 @@ public class AccountAgeWitnessService {
 
         // We need to add that early (before onAllServicesInitialized) as it will be used at startup.
         appendOnlyDataStoreService.addService(accountAgeWitnessStorageService);
+        accountAgeWitnessView = new PersistableNetworkPayloadView<>(appendOnlyDataStoreService, AccountAgeWitness.class);
     }
 
 
@@ -191,17 +192,6 @@ public class AccountAgeWitnessService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void onAllServicesInitialized() {
-        p2PService.getP2PDataStorage().addAppendOnlyDataStoreListener(payload -> {
-            if (payload instanceof AccountAgeWitness)
-                addToMap((AccountAgeWitness) payload);
-        });
-
-        // At startup the P2PDataStorage initializes earlier, otherwise we get the listener called.
-        accountAgeWitnessStorageService.getMapOfAllData().values().stream()
-                .filter(e -> e instanceof AccountAgeWitness)
-                .map(e -> (AccountAgeWitness) e)
-                .forEach(this::addToMap);
-
         if (p2PService.isBootstrapped()) {
             onBootStrapped();
         } else {
@@ -239,9 +229,10 @@ public class AccountAgeWitnessService {
                     });
     }
 
+    // In production code the witnesses are looked up from the store. Tests use that to add witnesses to our cache.
     @VisibleForTesting
     public void addToMap(AccountAgeWitness accountAgeWitness) {
-        accountAgeWitnessMap.putIfAbsent(accountAgeWitness.getHashAsByteArray(), accountAgeWitness);
+        accountAgeWitnessCache.putIfAbsent(accountAgeWitness.getHashAsByteArray(), accountAgeWitness);
     }
 
 
@@ -253,13 +244,13 @@ public class AccountAgeWitnessService {
         AccountAgeWitness accountAgeWitness = getMyWitness(paymentAccountPayload);
         P2PDataStorage.ByteArray hash = accountAgeWitness.getHashAsByteArray();
 
-        // We use first our fast lookup cache. If its in accountAgeWitnessCache it is also in accountAgeWitnessMap
+        // We use first our fast lookup cache. If its in accountAgeWitnessCache it is also in the store
         // and we do not publish.
         if (accountAgeWitnessCache.containsKey(hash)) {
             return;
         }
 
-        if (!accountAgeWitnessMap.containsKey(hash)) {
+        if (!accountAgeWitnessView.containsKey(hash)) {
             p2PService.addPersistableNetworkPayload(accountAgeWitness, false);
         }
     }
@@ -320,16 +311,12 @@ public class AccountAgeWitnessService {
             return Optional.of(accountAgeWitnessCache.get(hashAsByteArray));
         }
 
-        if (accountAgeWitnessMap.containsKey(hashAsByteArray)) {
-            AccountAgeWitness accountAgeWitness = accountAgeWitnessMap.get(hashAsByteArray);
+        Optional<AccountAgeWitness> accountAgeWitness = accountAgeWitnessView.find(hashAsByteArray);
 
-            // We add it to our fast lookup cache
-            accountAgeWitnessCache.put(hashAsByteArray, accountAgeWitness);
+        // We add it to our fast lookup cache
+        accountAgeWitness.ifPresent(witness -> accountAgeWitnessCache.put(hashAsByteArray, witness));
 
-            return Optional.of(accountAgeWitness);
-        }
-
-        return Optional.empty();
+        return accountAgeWitness;
     }
 
     private Optional<AccountAgeWitness> getWitnessByHashAsHex(String hashAsHex) {
@@ -0,0 +1,85 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.api.model;
+
+import bisq.common.Payload;
+import bisq.common.taskrunner.TaskTiming;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@EqualsAndHashCode
+@Getter
+public class TaskTimingInfo implements Payload {
+
+    private final String taskName;
+    private final long startDate;
+    private final long queueWaitMs;
+    private final long durationMs;
+    private final String outcome;
+
+    public TaskTimingInfo(String taskName, long startDate, long queueWaitMs, long durationMs, String outcome) {
+        this.taskName = taskName;
+        this.startDate = startDate;
+        this.queueWaitMs = queueWaitMs;
+        this.durationMs = durationMs;
+        this.outcome = outcome;
+    }
+
+    public static TaskTimingInfo toTaskTimingInfo(TaskTiming taskTiming) {
+        return new TaskTimingInfo(taskTiming.getTaskName(),
+                taskTiming.getStartDate(),
+                taskTiming.getQueueWaitMs(),
+                taskTiming.getDurationMs(),
+                taskTiming.getOutcome().name());
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public static TaskTimingInfo fromProto(bisq.proto.grpc.TaskTimingInfo proto) {
+        return new TaskTimingInfo(proto.getTaskName(),
+                proto.getStartDate(),
+                proto.getQueueWaitMs(),
+                proto.getDurationMs(),
+                proto.getOutcome());
+    }
+
+    @Override
+    public bisq.proto.grpc.TaskTimingInfo toProtoMessage() {
+        return bisq.proto.grpc.TaskTimingInfo.newBuilder()
+                .setTaskName(taskName)
+                .setStartDate(startDate)
+                .setQueueWaitMs(queueWaitMs)
+                .setDurationMs(durationMs)
+                .setOutcome(outcome)
+                .build();
+    }
+
+    @Override
+    public String toString() {
+        return "TaskTimingInfo{" +
+                "taskName='" + taskName + '\'' +
+                ", startDate=" + startDate +
+                ", queueWaitMs=" + queueWaitMs +
+                ", durationMs=" + durationMs +
+                ", outcome='" + outcome + '\'' +
+                '}';
+    }
+}
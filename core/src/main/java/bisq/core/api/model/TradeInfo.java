@@ -22,7 +22,10 @@ import bisq.core.trade.Trade;
 
 import bisq.common.Payload;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -63,6 +66,7 @@ public class TradeInfo implements Payload {
     private final boolean isWithdrawn;
     private final String contractAsJson;
     private final ContractInfo contract;
+    private final List<TaskTimingInfo> taskTimeline;
 
     public TradeInfo(TradeInfoBuilder builder) {
         this.offer = builder.offer;
@@ -90,6 +94,7 @@ public class TradeInfo implements Payload {
         this.isWithdrawn = builder.isWithdrawn;
         this.contractAsJson = builder.contractAsJson;
         this.contract = builder.contract;
+        this.taskTimeline = builder.taskTimeline;
     }
 
     public static TradeInfo toTradeInfo(Trade trade) {
@@ -144,6 +149,9 @@ public class TradeInfo implements Payload {
                 .withIsWithdrawn(trade.isWithdrawn())
                 .withContractAsJson(trade.getContractAsJson())
                 .withContract(contractInfo)
+                .withTaskTimeline(trade.getProcessModel().getTaskTimeline().stream()
+                        .map(TaskTimingInfo::toTaskTimingInfo)
+                        .collect(Collectors.toList()))
                 .build();
     }
 
@@ -179,6 +187,9 @@ public class TradeInfo implements Payload {
                 .setIsWithdrawn(isWithdrawn)
                 .setContractAsJson(contractAsJson == null ? "" : contractAsJson)
                 .setContract(contract.toProtoMessage())
+                .addAllTaskTimeline(taskTimeline.stream()
+                        .map(TaskTimingInfo::toProtoMessage)
+                        .collect(Collectors.toList()))
                 .build();
     }
 
@@ -209,6 +220,9 @@ public class TradeInfo implements Payload {
                 .withIsWithdrawn(proto.getIsWithdrawn())
                 .withContractAsJson(proto.getContractAsJson())
                 .withContract((ContractInfo.fromProto(proto.getContract())))
+                .withTaskTimeline(proto.getTaskTimelineList().stream()
+                        .map(TaskTimingInfo::fromProto)
+                        .collect(Collectors.toList()))
                 .build();
     }
 
@@ -244,6 +258,7 @@ public class TradeInfo implements Payload {
         private boolean isWithdrawn;
         private String contractAsJson;
         private ContractInfo contract;
+        private List<TaskTimingInfo> taskTimeline = Collections.emptyList();
 
         public TradeInfoBuilder withOffer(OfferInfo offer) {
             this.offer = offer;
@@ -370,6 +385,11 @@ public class TradeInfo implements Payload {
             return this;
         }
 
+        public TradeInfoBuilder withTaskTimeline(List<TaskTimingInfo> taskTimeline) {
+            this.taskTimeline = taskTimeline;
+            return this;
+        }
+
         public TradeInfo build() {
             return new TradeInfo(this);
         }
@@ -403,6 +423,7 @@ public class TradeInfo implements Payload {
                 ", offer=" + offer + "\n" +
                 ", contractAsJson=" + contractAsJson + "\n" +
                 ", contract=" + contract + "\n" +
+                ", taskTimeline=" + taskTimeline + "\n" +
                 '}';
     }
 }
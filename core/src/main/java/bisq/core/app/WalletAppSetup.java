@@ -261,7 +261,7 @@ public class WalletAppSetup {
                                         String finalDetails = details;
                                         UserThread.runAfter(() -> {
                                             trade.setErrorMessage(newValue.getMessage());
-                                            tradeManager.requestPersistence();
+                                            tradeManager.requestPersistence(trade.getId());
                                             if (rejectedTxErrorMessageHandler != null) {
                                                 rejectedTxErrorMessageHandler.accept(Res.get("popup.warning.trade.txRejected",
                                                         finalDetails, trade.getShortId(), txId));
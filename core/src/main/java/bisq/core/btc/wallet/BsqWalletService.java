@@ -53,10 +53,12 @@ import org.bitcoinj.script.Script;
 import org.bitcoinj.script.ScriptException;
 import org.bitcoinj.wallet.CoinSelection;
 import org.bitcoinj.wallet.SendRequest;
+import org.bitcoinj.wallet.WalletTransaction;
 
 import javax.inject.Inject;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -91,11 +93,23 @@ public class BsqWalletService extends WalletService implements DaoStateListener
     private final NonBsqCoinSelector nonBsqCoinSelector;
     private final DaoStateService daoStateService;
     private final UnconfirmedBsqChangeOutputListService unconfirmedBsqChangeOutputListService;
-    private final List<Transaction> walletTransactions = new ArrayList<>();
     private final CopyOnWriteArraySet<BsqBalanceListener> bsqBalanceListeners = new CopyOnWriteArraySet<>();
     private final List<WalletTransactionsChangeListener> walletTransactionsChangeListeners = new ArrayList<>();
     private boolean updateBsqWalletTransactionsPending;
 
+    // Ledger of our wallet txs, our confirmed txs and our spendable outputs. It gets updated per tx from the
+    // wallet events, so we don't need to iterate all wallet txs at each new block. It gets rebuilt from the
+    // wallet only at startup, at reorgs, if a tx got dead and if keys or scripts have changed.
+    private final Map<Sha256Hash, Transaction> walletTransactions = new HashMap<>();
+    private final Set<String> confirmedTxIdSet = new HashSet<>();
+    private final Map<TransactionOutPoint, TransactionOutput> spendCandidates = new HashMap<>();
+    // Txs which got confirmed since the last parsed BSQ block
+    private final Set<Transaction> txsConfirmedSinceLastParsedBlock = new HashSet<>();
+    private boolean ledgerRebuildRequired = true;
+    // Used to only recalculate the voting and bonds balances if our confirmed txs or the DAO state have changed
+    private boolean confirmedTxsChanged = true;
+    private boolean daoStateChangedSinceBalanceUpdate = true;
+
     // balance of non BSQ satoshis
     @Getter
     private Coin availableNonBsqBalance = Coin.ZERO;
@@ -159,14 +173,17 @@ public class BsqWalletService extends WalletService implements DaoStateListener
     protected void addListenersToWallet() {
         super.addListenersToWallet();
 
-        wallet.addCoinsReceivedEventListener((wallet, tx, prevBalance, newBalance) ->
-                updateBsqWalletTransactions()
-        );
-        wallet.addCoinsSentEventListener((wallet, tx, prevBalance, newBalance) ->
-                updateBsqWalletTransactions()
-        );
+        wallet.addCoinsReceivedEventListener((wallet, tx, prevBalance, newBalance) -> {
+            applyToLedger(tx);
+            updateBsqWalletTransactions();
+        });
+        wallet.addCoinsSentEventListener((wallet, tx, prevBalance, newBalance) -> {
+            applyToLedger(tx);
+            updateBsqWalletTransactions();
+        });
         wallet.addReorganizeEventListener(wallet -> {
             log.warn("onReorganize ");
+            ledgerRebuildRequired = true;
             updateBsqWalletTransactions();
             unconfirmedBsqChangeOutputListService.onReorganize();
         });
@@ -174,21 +191,30 @@ public class BsqWalletService extends WalletService implements DaoStateListener
             // We are only interested in updates from unconfirmed txs and confirmed txs at the
             // time when it gets into a block. Otherwise we would get called
             // updateBsqWalletTransactions for each tx as the block depth changes for all.
-            if (tx != null && tx.getConfidence() != null && tx.getConfidence().getDepthInBlocks() <= 1 &&
-                    daoStateService.isParseBlockChainComplete()) {
-                updateBsqWalletTransactions();
+            if (tx != null && tx.getConfidence() != null && tx.getConfidence().getDepthInBlocks() <= 1) {
+                applyToLedger(tx);
+                if (daoStateService.isParseBlockChainComplete()) {
+                    updateBsqWalletTransactions();
+                }
             }
             unconfirmedBsqChangeOutputListService.onTransactionConfidenceChanged(tx);
         });
-        wallet.addKeyChainEventListener(keys ->
-                updateBsqWalletTransactions()
-        );
-        wallet.addScriptsChangeEventListener((wallet, scripts, isAddingScripts) ->
-                updateBsqWalletTransactions()
-        );
-        wallet.addChangeEventListener(wallet ->
-                updateBsqWalletTransactions()
-        );
+        wallet.addKeyChainEventListener(keys -> {
+            ledgerRebuildRequired = true;
+            updateBsqWalletTransactions();
+        });
+        wallet.addScriptsChangeEventListener((wallet, scripts, isAddingScripts) -> {
+            ledgerRebuildRequired = true;
+            updateBsqWalletTransactions();
+        });
+        wallet.addChangeEventListener(wallet -> {
+            // We get called at each new block as the depth of all txs has changed, which does not affect
+            // the ledger. If we have missed a tx event we rebuild the ledger.
+            if (getNumWalletTransactions() != walletTransactions.size()) {
+                ledgerRebuildRequired = true;
+            }
+            updateBsqWalletTransactions();
+        });
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -197,8 +223,15 @@ public class BsqWalletService extends WalletService implements DaoStateListener
 
     @Override
     public void onParseBlockCompleteAfterBatchProcessing(Block block) {
+        daoStateChangedSinceBalanceUpdate = true;
         if (isWalletReady()) {
-            wallet.getTransactions(false).forEach(unconfirmedBsqChangeOutputListService::onTransactionConfidenceChanged);
+            // Only the txs which got confirmed since the last block can have unconfirmed change outputs
+            if (ledgerRebuildRequired) {
+                wallet.getTransactions(false).forEach(unconfirmedBsqChangeOutputListService::onTransactionConfidenceChanged);
+            } else {
+                txsConfirmedSinceLastParsedBlock.forEach(unconfirmedBsqChangeOutputListService::onTransactionConfidenceChanged);
+            }
+            txsConfirmedSinceLastParsedBlock.clear();
             updateBsqWalletTransactions();
         }
     }
@@ -222,8 +255,9 @@ public class BsqWalletService extends WalletService implements DaoStateListener
 
     private void updateBsqBalance() {
         long ts = System.currentTimeMillis();
+        // Only the txs in the pending pool can have a PENDING confidence, so we don't need to iterate all txs
         unverifiedBalance = Coin.valueOf(
-                getTransactions(false).stream()
+                wallet.getPendingTransactions().stream()
                         .filter(tx -> tx.getConfidence().getConfidenceType() == PENDING)
                         .mapToLong(tx -> {
                             // Sum up outputs into BSQ wallet and subtract the inputs using lockup or unlocking
@@ -260,12 +294,33 @@ public class BsqWalletService extends WalletService implements DaoStateListener
                         .sum()
         );
 
-        Set<String> confirmedTxIdSet = getTransactions(false).stream()
-                .filter(tx -> tx.getConfidence().getConfidenceType() == BUILDING)
-                .map(Transaction::getTxId)
-                .map(Sha256Hash::toString)
-                .collect(Collectors.toSet());
+        // The voting and bond balances only change if the DAO state or the set of our confirmed txs has changed.
+        if (confirmedTxsChanged || daoStateChangedSinceBalanceUpdate) {
+            confirmedTxsChanged = false;
+            daoStateChangedSinceBalanceUpdate = false;
+            updateVotingAndBondsBalances();
+        }
+
+        // The coin selectors check the BSQ state of each output, which can change with each block, but they only
+        // need to look at our spendable outputs from the ledger.
+        List<TransactionOutput> spendCandidates = new ArrayList<>(this.spendCandidates.values());
+        availableConfirmedBalance = bsqCoinSelector.select(NetworkParameters.MAX_MONEY,
+                spendCandidates).valueGathered;
+
+        if (availableConfirmedBalance.isNegative())
+            availableConfirmedBalance = Coin.ZERO;
+
+        unconfirmedChangeBalance = unconfirmedBsqChangeOutputListService.getBalance();
+
+        availableNonBsqBalance = nonBsqCoinSelector.select(NetworkParameters.MAX_MONEY,
+                spendCandidates).valueGathered;
+
+        bsqBalanceListeners.forEach(e -> e.onUpdateBalances(availableConfirmedBalance, availableNonBsqBalance, unverifiedBalance,
+                unconfirmedChangeBalance, lockedForVotingBalance, lockupBondsBalance, unlockingBondsBalance));
+        log.info("updateBsqBalance took {} ms", System.currentTimeMillis() - ts);
+    }
 
+    private void updateVotingAndBondsBalances() {
         lockedForVotingBalance = Coin.valueOf(daoStateService.getUnspentBlindVoteStakeTxOutputs().stream()
                 .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
                 .mapToLong(TxOutput::getValue)
@@ -283,21 +338,6 @@ public class BsqWalletService extends WalletService implements DaoStateListener
                 .filter(txOutput -> !daoStateService.isConfiscatedUnlockTxOutput(txOutput.getTxId()))
                 .mapToLong(TxOutput::getValue)
                 .sum());
-
-        availableConfirmedBalance = bsqCoinSelector.select(NetworkParameters.MAX_MONEY,
-                wallet.calculateAllSpendCandidates()).valueGathered;
-
-        if (availableConfirmedBalance.isNegative())
-            availableConfirmedBalance = Coin.ZERO;
-
-        unconfirmedChangeBalance = unconfirmedBsqChangeOutputListService.getBalance();
-
-        availableNonBsqBalance = nonBsqCoinSelector.select(NetworkParameters.MAX_MONEY,
-                wallet.calculateAllSpendCandidates()).valueGathered;
-
-        bsqBalanceListeners.forEach(e -> e.onUpdateBalances(availableConfirmedBalance, availableNonBsqBalance, unverifiedBalance,
-                unconfirmedChangeBalance, lockedForVotingBalance, lockupBondsBalance, unlockingBondsBalance));
-        log.info("updateBsqBalance took {} ms", System.currentTimeMillis() - ts);
     }
 
     public void addBsqBalanceListener(BsqBalanceListener listener) {
@@ -332,11 +372,11 @@ public class BsqWalletService extends WalletService implements DaoStateListener
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public List<Transaction> getClonedWalletTransactions() {
-        return new ArrayList<>(walletTransactions);
+        return new ArrayList<>(walletTransactions.values());
     }
 
     public Stream<Transaction> getPendingWalletTransactionsStream() {
-        return walletTransactions.stream()
+        return walletTransactions.values().stream()
                 .filter(transaction -> transaction.getConfidence().getConfidenceType() == TransactionConfidence.ConfidenceType.PENDING);
     }
 
@@ -349,8 +389,9 @@ public class BsqWalletService extends WalletService implements DaoStateListener
             if (!updateBsqWalletTransactionsPending) {
                 updateBsqWalletTransactionsPending = true;
                 UserThread.runAfter(() -> {
-                    walletTransactions.clear();
-                    walletTransactions.addAll(getTransactions(false));
+                    if (ledgerRebuildRequired) {
+                        rebuildLedger();
+                    }
                     walletTransactionsChangeListeners.forEach(WalletTransactionsChangeListener::onWalletTransactionsChange);
                     updateBsqBalance();
                     updateBsqWalletTransactionsPending = false;
@@ -359,6 +400,70 @@ public class BsqWalletService extends WalletService implements DaoStateListener
         }
     }
 
+    private void rebuildLedger() {
+        long ts = System.currentTimeMillis();
+        walletTransactions.clear();
+        confirmedTxIdSet.clear();
+        getTransactions(false).forEach(tx -> {
+            walletTransactions.put(tx.getTxId(), tx);
+            if (tx.getConfidence().getConfidenceType() == BUILDING) {
+                confirmedTxIdSet.add(tx.getTxId().toString());
+            }
+        });
+        confirmedTxsChanged = true;
+
+        spendCandidates.clear();
+        wallet.calculateAllSpendCandidates().forEach(output -> spendCandidates.put(output.getOutPointFor(), output));
+        ledgerRebuildRequired = false;
+        log.info("rebuildLedger with {} txs took {} ms", walletTransactions.size(), System.currentTimeMillis() - ts);
+    }
+
+    // Applies the changes of a single tx to the ledger. Outputs spent by the tx are removed from the spend
+    // candidates, its own outputs are added if they are spendable.
+    private void applyToLedger(Transaction tx) {
+        if (ledgerRebuildRequired) {
+            // The tx will be included at the rebuild
+            return;
+        }
+
+        TransactionConfidence.ConfidenceType confidenceType = tx.getConfidence().getConfidenceType();
+        if (confidenceType == TransactionConfidence.ConfidenceType.DEAD) {
+            // The outputs spent by a dead tx become spendable again, as well as outputs spent by its dependent
+            // txs, which got dead as well. That's rare so we rebuild the ledger from the wallet.
+            ledgerRebuildRequired = true;
+            return;
+        }
+
+        walletTransactions.put(tx.getTxId(), tx);
+        String txId = tx.getTxId().toString();
+        if (confidenceType == BUILDING) {
+            if (confirmedTxIdSet.add(txId)) {
+                confirmedTxsChanged = true;
+                txsConfirmedSinceLastParsedBlock.add(tx);
+            }
+        } else if (confirmedTxIdSet.remove(txId)) {
+            confirmedTxsChanged = true;
+        }
+
+        tx.getInputs().forEach(input -> spendCandidates.remove(input.getOutpoint()));
+        // Same criteria as at wallet.calculateAllSpendCandidates(). The BSQ wallet has no coinbase outputs and
+        // no watched scripts.
+        tx.getOutputs().forEach(output -> {
+            if (output.isAvailableForSpending() && output.isMine(wallet)) {
+                spendCandidates.put(output.getOutPointFor(), output);
+            } else {
+                spendCandidates.remove(output.getOutPointFor());
+            }
+        });
+    }
+
+    // Number of txs which are not dead, as in getTransactions(false)
+    private int getNumWalletTransactions() {
+        return wallet.getPoolSize(WalletTransaction.Pool.UNSPENT) +
+                wallet.getPoolSize(WalletTransaction.Pool.SPENT) +
+                wallet.getPoolSize(WalletTransaction.Pool.PENDING);
+    }
+
     private Set<Transaction> getBsqWalletTransactions() {
         return getTransactions(false).stream()
                 .filter(transaction -> transaction.getConfidence().getConfidenceType() == PENDING ||
@@ -473,7 +578,7 @@ public class BsqWalletService extends WalletService implements DaoStateListener
     }
 
     public Optional<Transaction> isWalletTransaction(String txId) {
-        return walletTransactions.stream().filter(e -> e.getTxId().toString().equals(txId)).findAny();
+        return walletTransactions.values().stream().filter(e -> e.getTxId().toString().equals(txId)).findAny();
     }
 
 
@@ -59,6 +59,7 @@ import com.google.common.util.concurrent.MoreExecutors;
 
 import org.bouncycastle.crypto.params.KeyParameter;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -621,23 +622,17 @@ public class BtcWalletService extends WalletService {
 
     public Optional<AddressEntry> getAddressEntry(String offerId,
                                                   @SuppressWarnings("SameParameterValue") AddressEntry.Context context) {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(e -> offerId.equals(e.getOfferId()))
-                .filter(e -> context == e.getContext())
-                .findAny();
+        return addressEntryList.findAddressEntry(offerId, context);
     }
 
     public AddressEntry getOrCreateAddressEntry(String offerId, AddressEntry.Context context) {
-        Optional<AddressEntry> addressEntry = getAddressEntryListAsImmutableList().stream()
-                .filter(e -> offerId.equals(e.getOfferId()))
-                .filter(e -> context == e.getContext())
-                .findAny();
+        Optional<AddressEntry> addressEntry = addressEntryList.findAddressEntry(offerId, context);
         if (addressEntry.isPresent()) {
             return addressEntry.get();
         } else {
             // We try to use available and not yet used entries
-            Optional<AddressEntry> emptyAvailableAddressEntry = getAddressEntryListAsImmutableList().stream()
-                    .filter(e -> AddressEntry.Context.AVAILABLE == e.getContext())
+            Optional<AddressEntry> emptyAvailableAddressEntry = addressEntryList
+                    .getAddressEntries(AddressEntry.Context.AVAILABLE).stream()
                     .filter(e -> isAddressUnused(e.getAddress()))
                     .filter(e -> Script.ScriptType.P2WPKH.equals(e.getAddress().getOutputScriptType()))
                     .findAny();
@@ -655,8 +650,7 @@ public class BtcWalletService extends WalletService {
 
     public AddressEntry getArbitratorAddressEntry() {
         AddressEntry.Context context = AddressEntry.Context.ARBITRATOR;
-        Optional<AddressEntry> addressEntry = getAddressEntryListAsImmutableList().stream()
-                .filter(e -> context == e.getContext())
+        Optional<AddressEntry> addressEntry = addressEntryList.getAddressEntries(context).stream()
                 .findAny();
         return getOrCreateAddressEntry(context, addressEntry, false);
     }
@@ -667,8 +661,7 @@ public class BtcWalletService extends WalletService {
 
     public AddressEntry getFreshAddressEntry(boolean segwit) {
         AddressEntry.Context context = AddressEntry.Context.AVAILABLE;
-        Optional<AddressEntry> addressEntry = getAddressEntryListAsImmutableList().stream()
-                .filter(e -> context == e.getContext())
+        Optional<AddressEntry> addressEntry = addressEntryList.getAddressEntries(context).stream()
                 .filter(e -> isAddressUnused(e.getAddress()))
                 .filter(e -> {
                     boolean isSegwitOutputScriptType = Script.ScriptType.P2WPKH.equals(e.getAddress().getOutputScriptType());
@@ -704,36 +697,33 @@ public class BtcWalletService extends WalletService {
     }
 
     private Optional<AddressEntry> findAddressEntry(String address, AddressEntry.Context context) {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(e -> address.equals(e.getAddressString()))
+        return getAddressEntriesByAddress(address).stream()
                 .filter(e -> context == e.getContext())
                 .findAny();
     }
 
+    public Set<AddressEntry> getAddressEntriesByAddress(String address) {
+        return addressEntryList.getAddressEntriesByAddress(address);
+    }
+
     public List<AddressEntry> getAvailableAddressEntries() {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(addressEntry -> AddressEntry.Context.AVAILABLE == addressEntry.getContext())
-                .collect(Collectors.toList());
+        return getAddressEntries(AddressEntry.Context.AVAILABLE);
     }
 
     public List<AddressEntry> getAddressEntriesForOpenOffer() {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(addressEntry -> AddressEntry.Context.OFFER_FUNDING == addressEntry.getContext() ||
-                        AddressEntry.Context.RESERVED_FOR_TRADE == addressEntry.getContext())
+        return Stream.concat(addressEntryList.getAddressEntries(AddressEntry.Context.OFFER_FUNDING).stream(),
+                addressEntryList.getAddressEntries(AddressEntry.Context.RESERVED_FOR_TRADE).stream())
                 .collect(Collectors.toList());
     }
 
     public List<AddressEntry> getAddressEntriesForTrade() {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(addressEntry -> AddressEntry.Context.MULTI_SIG == addressEntry.getContext() ||
-                        AddressEntry.Context.TRADE_PAYOUT == addressEntry.getContext())
+        return Stream.concat(addressEntryList.getAddressEntries(AddressEntry.Context.MULTI_SIG).stream(),
+                addressEntryList.getAddressEntries(AddressEntry.Context.TRADE_PAYOUT).stream())
                 .collect(Collectors.toList());
     }
 
     public List<AddressEntry> getAddressEntries(AddressEntry.Context context) {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(addressEntry -> context == addressEntry.getContext())
-                .collect(Collectors.toList());
+        return new ArrayList<>(addressEntryList.getAddressEntries(context));
     }
 
     public List<AddressEntry> getFundedAvailableAddressEntries() {
@@ -755,9 +745,10 @@ public class BtcWalletService extends WalletService {
             return;
         }
 
-        getAddressEntryListAsImmutableList().stream()
-                .filter(e -> offerId.equals(e.getOfferId()))
+        // We collect the entries first as swapping modifies the index we read from
+        addressEntryList.getAddressEntriesByOfferId(offerId).stream()
                 .filter(e -> context == e.getContext())
+                .collect(Collectors.toList())
                 .forEach(e -> {
                     log.info("swap addressEntry with address {} and offerId {} from context {} to available",
                             e.getAddressString(), e.getOfferId(), context);
@@ -771,9 +762,9 @@ public class BtcWalletService extends WalletService {
     }
 
     public void setCoinLockedInMultiSigAddressEntry(String offerId, long value) {
-        getAddressEntryListAsImmutableList().stream()
+        addressEntryList.getAddressEntriesByOfferId(offerId).stream()
                 .filter(e -> AddressEntry.Context.MULTI_SIG == e.getContext())
-                .filter(e -> offerId.equals(e.getOfferId()))
+                .collect(Collectors.toList())
                 .forEach(addressEntry -> setCoinLockedInMultiSigAddressEntry(addressEntry, value));
     }
 
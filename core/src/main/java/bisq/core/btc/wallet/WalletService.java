@@ -72,8 +72,10 @@ import org.bitcoinj.wallet.listeners.WalletReorganizeEventListener;
 
 import javax.inject.Inject;
 
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMultiset;
 import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.SetMultimap;
 import com.google.common.util.concurrent.FutureCallback;
@@ -121,6 +123,7 @@ public abstract class WalletService {
     private final WalletChangeEventListener cacheInvalidationListener;
     private final AtomicReference<Multiset<Address>> txOutputAddressCache = new AtomicReference<>();
     private final AtomicReference<SetMultimap<Address, Transaction>> addressToMatchingTxSetCache = new AtomicReference<>();
+    private final AtomicReference<ListMultimap<Address, TransactionOutput>> addressToSpendCandidatesCache = new AtomicReference<>();
     @Getter
     protected Wallet wallet;
     @Getter
@@ -146,6 +149,7 @@ public abstract class WalletService {
         cacheInvalidationListener = wallet -> {
             txOutputAddressCache.set(null);
             addressToMatchingTxSetCache.set(null);
+            addressToSpendCandidatesCache.set(null);
         };
     }
 
@@ -491,7 +495,25 @@ public abstract class WalletService {
     }
 
     public Coin getBalanceForAddress(Address address) {
-        return wallet != null ? getBalance(wallet.calculateAllSpendCandidates(), address) : Coin.ZERO;
+        return wallet != null ? getBalance(getAddressToSpendCandidatesMultimap().get(address), address) : Coin.ZERO;
+    }
+
+    // The spend candidates only change with wallet change events (coins received or sent, reorgs and
+    // confidence changes), so we group them by address once instead of scanning all wallet outputs for
+    // each address. The dust filter depends on the preferences and is applied when reading the balance.
+    private ListMultimap<Address, TransactionOutput> getAddressToSpendCandidatesMultimap() {
+        return addressToSpendCandidatesCache.updateAndGet(map -> map != null ? map : computeAddressToSpendCandidatesMultimap());
+    }
+
+    private ListMultimap<Address, TransactionOutput> computeAddressToSpendCandidatesMultimap() {
+        ImmutableListMultimap.Builder<Address, TransactionOutput> builder = ImmutableListMultimap.builder();
+        for (TransactionOutput output : wallet.calculateAllSpendCandidates()) {
+            Address address = getAddressFromOutput(output);
+            if (address != null) {
+                builder.put(address, output);
+            }
+        }
+        return builder.build();
     }
 
     protected Coin getBalance(List<TransactionOutput> transactionOutputs, Address address) {
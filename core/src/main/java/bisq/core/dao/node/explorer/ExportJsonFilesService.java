@@ -19,12 +19,14 @@ package bisq.core.dao.node.explorer;
 
 import bisq.core.dao.DaoSetupService;
 import bisq.core.dao.state.DaoStateService;
-import bisq.core.dao.state.model.DaoState;
 import bisq.core.dao.state.model.blockchain.Block;
 import bisq.core.dao.state.model.blockchain.PubKeyScript;
 import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxInput;
 import bisq.core.dao.state.model.blockchain.TxOutput;
 import bisq.core.dao.state.model.blockchain.TxType;
+import bisq.core.dao.state.model.governance.Issuance;
+import bisq.core.dao.state.model.governance.IssuanceType;
 
 import bisq.common.config.Config;
 import bisq.common.file.FileUtil;
@@ -49,15 +51,49 @@ import java.io.File;
 import java.io.IOException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Exports the BSQ blocks, txs and tx outputs as json files for the block explorer if the
+ * --dumpBlockchainData option is set.
+ * <p>
+ * The export is incremental: for each new block we only write the files of the txs and tx outputs it has added or
+ * changed. The blocks are written to segments of {@link #BLOCKS_SEGMENT_SIZE} blocks (all/blocks_[start height].json),
+ * so usually only the last segment gets rewritten.
+ */
 @Slf4j
 public class ExportJsonFilesService implements DaoSetupService {
+    private static final int BLOCKS_SEGMENT_SIZE = 100;
+
+    // Holds the files we have written for an exported block, so we can roll them back if it gets removed by a reorg
+    @Value
+    private static class ExportedBlock {
+        String hash;
+        List<String> txIds;
+        List<String> txOutputIds;
+        // Txs of earlier blocks whose state got changed by that block (spent outputs, issuance)
+        Set<String> touchedTxIds;
+    }
+
     private final DaoStateService daoStateService;
     private final File storageDir;
     private final boolean dumpBlockchainData;
@@ -65,6 +101,8 @@ public class ExportJsonFilesService implements DaoSetupService {
     private final ListeningExecutorService executor = Utilities.getListeningExecutorService("JsonExporter",
             1, 1, 1200);
     private JsonFileManager txFileManager, txOutputFileManager, bsqStateFileManager;
+    // Exported blocks by height. Only accessed from the user thread.
+    private final TreeMap<Integer, ExportedBlock> exportedBlocks = new TreeMap<>();
 
     @Inject
     public ExportJsonFilesService(DaoStateService daoStateService,
@@ -131,48 +169,160 @@ public class ExportJsonFilesService implements DaoSetupService {
         }
     }
 
+    /**
+     * Exports the blocks which got added since the last call. Only the files of the txs of the new blocks, the
+     * files of the txs whose outputs got spent or issued by the new blocks and the affected segments of the blocks
+     * files are written. If exported blocks got removed by a reorg we delete the files of their txs and rewrite the
+     * files they had changed before we export the new blocks.
+     */
     public void maybeExportToJson() {
-        if (dumpBlockchainData &&
-                daoStateService.isParseBlockChainComplete()) {
-            // We store the data we need once we write the data to disk (in the thread) locally.
-            // Access to daoStateService is single threaded, we must not access daoStateService from the thread.
-            List<JsonTxOutput> allJsonTxOutputs = new ArrayList<>();
-
-            List<JsonTx> jsonTxs = daoStateService.getUnorderedTxStream()
-                    .map(tx -> {
-                        JsonTx jsonTx = getJsonTx(tx);
-                        allJsonTxOutputs.addAll(jsonTx.getOutputs());
-                        return jsonTx;
-                    }).collect(Collectors.toList());
+        if (!dumpBlockchainData || !daoStateService.isParseBlockChainComplete()) {
+            return;
+        }
 
-            GcUtil.maybeReleaseMemory();
+        // We store the data we need once we write the data to disk (in the thread) locally.
+        // Access to daoStateService is single threaded, we must not access daoStateService from the thread.
+        Set<String> txIdsToWrite = new LinkedHashSet<>();
+        Set<Integer> segmentsToWrite = new TreeSet<>();
+        List<String> txIdsToDelete = new ArrayList<>();
+        List<String> txOutputIdsToDelete = new ArrayList<>();
+
+        while (!exportedBlocks.isEmpty() && !isInDaoState(exportedBlocks.lastEntry())) {
+            Map.Entry<Integer, ExportedBlock> entry = exportedBlocks.pollLastEntry();
+            ExportedBlock exportedBlock = entry.getValue();
+            txIdsToDelete.addAll(exportedBlock.getTxIds());
+            txOutputIdsToDelete.addAll(exportedBlock.getTxOutputIds());
+            txIdsToWrite.addAll(exportedBlock.getTouchedTxIds());
+            segmentsToWrite.add(getSegment(entry.getKey()));
+        }
+        if (!segmentsToWrite.isEmpty()) {
+            log.info("Blocks above height {} got removed by a reorg. We roll back the json files of {} txs.",
+                    exportedBlocks.isEmpty() ? "genesis" : exportedBlocks.lastKey(), txIdsToDelete.size());
+        }
 
-            DaoState daoState = daoStateService.getClone();
-            List<JsonBlock> jsonBlockList = daoState.getBlocks().stream()
-                    .map(this::getJsonBlock)
+        List<Block> newBlocks = getBlocksAbove(exportedBlocks.isEmpty() ? -1 : exportedBlocks.lastKey());
+        if (!newBlocks.isEmpty()) {
+            Map<Integer, List<String>> issuanceTxIdsByHeight = getIssuanceTxIdsByHeight();
+            newBlocks.forEach(block -> {
+                List<String> txIds = new ArrayList<>();
+                List<String> txOutputIds = new ArrayList<>();
+                Set<String> touchedTxIds = new HashSet<>();
+                block.getTxs().forEach(tx -> {
+                    txIds.add(tx.getId());
+                    tx.getTxOutputs().forEach(txOutput -> txOutputIds.add(getTxOutputId(txOutput)));
+                    // The spent info of the connected outputs has changed
+                    tx.getTxInputs().stream()
+                            .map(TxInput::getConnectedTxOutputTxId)
+                            .filter(daoStateService::containsTx)
+                            .forEach(touchedTxIds::add);
+                });
+                // An issuance changes the BSQ state of the outputs of a compensation or reimbursement request
+                touchedTxIds.addAll(issuanceTxIdsByHeight.getOrDefault(block.getHeight(), Collections.emptyList()));
+                txIds.forEach(touchedTxIds::remove);
+
+                exportedBlocks.put(block.getHeight(), new ExportedBlock(block.getHash(),
+                        txIds.isEmpty() ? Collections.emptyList() : txIds,
+                        txOutputIds.isEmpty() ? Collections.emptyList() : txOutputIds,
+                        touchedTxIds.isEmpty() ? Collections.emptySet() : touchedTxIds));
+                txIdsToWrite.addAll(txIds);
+                txIdsToWrite.addAll(touchedTxIds);
+                segmentsToWrite.add(getSegment(block.getHeight()));
+            });
+        }
+
+        if (segmentsToWrite.isEmpty()) {
+            return;
+        }
+
+        Map<String, JsonTx> jsonTxById = new HashMap<>();
+        txIdsToWrite.forEach(txId -> daoStateService.getTx(txId).ifPresent(tx -> {
+            jsonTxById.put(txId, getJsonTx(tx));
+            // The blocks files contain the txs as well
+            segmentsToWrite.add(getSegment(tx.getBlockHeight()));
+        }));
+        List<JsonTx> jsonTxs = new ArrayList<>(jsonTxById.values());
+
+        int chainHeight = daoStateService.getChainHeight();
+        Map<String, JsonBlocks> jsonBlocksByFileName = new LinkedHashMap<>();
+        segmentsToWrite.forEach(segment -> {
+            int fromHeight = getSegmentStartHeight(segment);
+            List<JsonBlock> jsonBlockList = IntStream.range(fromHeight, fromHeight + BLOCKS_SEGMENT_SIZE)
+                    .mapToObj(daoStateService::getBlockAtHeight)
+                    .filter(Optional::isPresent)
+                    .map(block -> getJsonBlock(block.get(), jsonTxById))
                     .collect(Collectors.toList());
-            JsonBlocks jsonBlocks = new JsonBlocks(daoState.getChainHeight(), jsonBlockList);
+            jsonBlocksByFileName.put("blocks_" + fromHeight, new JsonBlocks(chainHeight, jsonBlockList));
+        });
+
+        ListenableFuture<Void> future = executor.submit(() -> {
+            txIdsToDelete.forEach(txFileManager::deleteFromDisc);
+            txOutputIdsToDelete.forEach(txOutputFileManager::deleteFromDisc);
+            jsonTxs.forEach(jsonTx -> {
+                txFileManager.writeToDisc(Utilities.objectToJson(jsonTx), jsonTx.getId());
+                jsonTx.getOutputs().forEach(jsonTxOutput -> txOutputFileManager.writeToDisc(Utilities.objectToJson(jsonTxOutput), jsonTxOutput.getId()));
+            });
+            jsonBlocksByFileName.forEach((fileName, jsonBlocks) -> {
+                if (jsonBlocks.getBlocks().isEmpty()) {
+                    bsqStateFileManager.deleteFromDisc(fileName);
+                } else {
+                    bsqStateFileManager.writeToDisc(Utilities.objectToJson(jsonBlocks), fileName);
+                }
+            });
 
-            ListenableFuture<Void> future = executor.submit(() -> {
-                bsqStateFileManager.writeToDisc(Utilities.objectToJson(jsonBlocks), "blocks");
-                allJsonTxOutputs.forEach(jsonTxOutput -> txOutputFileManager.writeToDisc(Utilities.objectToJson(jsonTxOutput), jsonTxOutput.getId()));
-                jsonTxs.forEach(jsonTx -> txFileManager.writeToDisc(Utilities.objectToJson(jsonTx), jsonTx.getId()));
+            GcUtil.maybeReleaseMemory();
 
-                GcUtil.maybeReleaseMemory();
+            return null;
+        });
 
-                return null;
-            });
+        Futures.addCallback(future, Utilities.failureCallback(throwable -> {
+            log.error(throwable.toString());
+            throwable.printStackTrace();
+        }), MoreExecutors.directExecutor());
+    }
 
-            Futures.addCallback(future, Utilities.failureCallback(throwable -> {
-                log.error(throwable.toString());
-                throwable.printStackTrace();
-            }), MoreExecutors.directExecutor());
+    private boolean isInDaoState(Map.Entry<Integer, ExportedBlock> exportedBlock) {
+        return daoStateService.getBlockAtHeight(exportedBlock.getKey())
+                .filter(block -> block.getHash().equals(exportedBlock.getValue().getHash()))
+                .isPresent();
+    }
+
+    // The blocks are ordered by height, so we only iterate the tail of the list
+    private List<Block> getBlocksAbove(int height) {
+        List<Block> blocks = daoStateService.getBlocks();
+        LinkedList<Block> result = new LinkedList<>();
+        ListIterator<Block> iterator = blocks.listIterator(blocks.size());
+        while (iterator.hasPrevious()) {
+            Block block = iterator.previous();
+            if (block.getHeight() <= height) {
+                break;
+            }
+            result.addFirst(block);
         }
+        return result;
+    }
+
+    private Map<Integer, List<String>> getIssuanceTxIdsByHeight() {
+        return Arrays.stream(IssuanceType.values())
+                .flatMap(issuanceType -> daoStateService.getIssuanceSetForType(issuanceType).stream())
+                .collect(Collectors.groupingBy(Issuance::getChainHeight,
+                        Collectors.mapping(Issuance::getTxId, Collectors.toList())));
+    }
+
+    private int getSegment(int height) {
+        return Math.max(0, height - daoStateService.getGenesisBlockHeight()) / BLOCKS_SEGMENT_SIZE;
+    }
+
+    private int getSegmentStartHeight(int segment) {
+        return daoStateService.getGenesisBlockHeight() + segment * BLOCKS_SEGMENT_SIZE;
+    }
+
+    private String getTxOutputId(TxOutput txOutput) {
+        return txOutput.getTxId() + ":" + txOutput.getIndex();
     }
 
-    private JsonBlock getJsonBlock(Block block) {
+    private JsonBlock getJsonBlock(Block block, Map<String, JsonTx> jsonTxById) {
         List<JsonTx> jsonTxs = block.getTxs().stream()
-                .map(this::getJsonTx)
+                .map(tx -> jsonTxById.computeIfAbsent(tx.getId(), txId -> getJsonTx(tx)))
                 .collect(Collectors.toList());
         return new JsonBlock(block.getHeight(),
                 block.getTime(),
@@ -36,8 +36,13 @@ import bisq.network.p2p.network.MessageListener;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.network.Statistic;
 import bisq.network.p2p.peers.PeerManager;
+import bisq.network.p2p.storage.HashMapChangedListener;
 import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.P2PDataStorage.ByteArray;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
 import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
+import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreListener;
 
 import bisq.common.app.Version;
 import bisq.common.config.Config;
@@ -52,14 +57,20 @@ import com.google.common.base.Enums;
 import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
 
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.Map;
+import java.util.Set;
 
 import java.lang.management.ManagementFactory;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 public class GetInventoryRequestHandler implements MessageListener {
     private final NetworkNode networkNode;
@@ -72,6 +83,24 @@ public class GetInventoryRequestHandler implements MessageListener {
     private final FilterManager filterManager;
     private final int maxConnections;
 
+    // The number of data objects per InventoryItem are maintained from the
+    // P2PDataStorage listeners after we have counted them once, so we do not need to
+    // copy and iterate all stores at each request.
+    // Counters for the append-only data, by the historical store version the requester's
+    // version maps to, as the historical data included in the data response depends on the
+    // requester's version. The null key holds the counters including all historical data.
+    // Keying by the store version keeps the map bounded whatever version the peer sends.
+    private final Map<String, Map<InventoryItem, Integer>> numPersistableNetworkPayloadsByVersion = new HashMap<>();
+    // Counters for the protected storage entries
+    private final Map<InventoryItem, Integer> numProtectedStoragePayloads = new EnumMap<>(InventoryItem.class);
+    // Hashes of the counted protected storage payloads. Added entries might be updates of
+    // known entries and removed entries might not have been in the map, so we need to
+    // know which ones we have counted.
+    @Nullable
+    private Set<ByteArray> countedProtectedStoragePayloadHashes;
+    private final HashMapChangedListener hashMapChangedListener;
+    private final AppendOnlyDataStoreListener appendOnlyDataStoreListener;
+
     @Inject
     public GetInventoryRequestHandler(NetworkNode networkNode,
                                       PeerManager peerManager,
@@ -93,6 +122,21 @@ public class GetInventoryRequestHandler implements MessageListener {
         this.maxConnections = maxConnections;
 
         this.networkNode.addMessageListener(this);
+
+        hashMapChangedListener = new HashMapChangedListener() {
+            @Override
+            public void onAdded(Collection<ProtectedStorageEntry> protectedStorageEntries) {
+                onProtectedStorageEntriesChanged(protectedStorageEntries, true);
+            }
+
+            @Override
+            public void onRemoved(Collection<ProtectedStorageEntry> protectedStorageEntries) {
+                onProtectedStorageEntriesChanged(protectedStorageEntries, false);
+            }
+        };
+        p2PDataStorage.addHashMapChangedListener(hashMapChangedListener);
+        appendOnlyDataStoreListener = this::onPersistableNetworkPayloadAdded;
+        p2PDataStorage.addAppendOnlyDataStoreListener(appendOnlyDataStoreListener);
     }
 
     @Override
@@ -100,14 +144,8 @@ public class GetInventoryRequestHandler implements MessageListener {
         if (networkEnvelope instanceof GetInventoryRequest) {
             // Data
             GetInventoryRequest getInventoryRequest = (GetInventoryRequest) networkEnvelope;
-            Map<InventoryItem, Integer> dataObjects = new HashMap<>();
-            p2PDataStorage.getMapForDataResponse(getInventoryRequest.getVersion()).values().stream()
-                    .map(e -> e.getClass().getSimpleName())
-                    .forEach(className -> addClassNameToMap(dataObjects, className));
-            p2PDataStorage.getMap().values().stream()
-                    .map(ProtectedStorageEntry::getProtectedStoragePayload)
-                    .map(e -> e.getClass().getSimpleName())
-                    .forEach(className -> addClassNameToMap(dataObjects, className));
+            Map<InventoryItem, Integer> dataObjects = new HashMap<>(getNumPersistableNetworkPayloads(getInventoryRequest.getVersion()));
+            getNumProtectedStoragePayloads().forEach((key, value) -> dataObjects.merge(key, value, Integer::sum));
             Map<InventoryItem, String> inventory = new HashMap<>();
             dataObjects.forEach((key, value) -> inventory.put(key, String.valueOf(value)));
 
@@ -142,12 +180,12 @@ public class GetInventoryRequestHandler implements MessageListener {
             inventory.put(InventoryItem.peakNumConnections, String.valueOf(peerManager.getPeakNumConnections()));
             inventory.put(InventoryItem.numAllConnectionsLostEvents, String.valueOf(peerManager.getNumAllConnectionsLostEvents()));
             peerManager.maybeResetNumAllConnectionsLostEvents();
-            inventory.put(InventoryItem.sentBytes, String.valueOf(Statistic.totalSentBytesProperty().get()));
-            inventory.put(InventoryItem.sentBytesPerSec, String.valueOf(Statistic.totalSentBytesPerSecProperty().get()));
-            inventory.put(InventoryItem.receivedBytes, String.valueOf(Statistic.totalReceivedBytesProperty().get()));
-            inventory.put(InventoryItem.receivedBytesPerSec, String.valueOf(Statistic.totalReceivedBytesPerSecProperty().get()));
-            inventory.put(InventoryItem.receivedMessagesPerSec, String.valueOf(Statistic.numTotalReceivedMessagesPerSecProperty().get()));
-            inventory.put(InventoryItem.sentMessagesPerSec, String.valueOf(Statistic.numTotalSentMessagesPerSecProperty().get()));
+            inventory.put(InventoryItem.sentBytes, String.valueOf(Statistic.getTotalSentBytes()));
+            inventory.put(InventoryItem.sentBytesPerSec, String.valueOf(Statistic.getTotalSentBytesPerSec()));
+            inventory.put(InventoryItem.receivedBytes, String.valueOf(Statistic.getTotalReceivedBytes()));
+            inventory.put(InventoryItem.receivedBytesPerSec, String.valueOf(Statistic.getTotalReceivedBytesPerSec()));
+            inventory.put(InventoryItem.receivedMessagesPerSec, String.valueOf(Statistic.getNumTotalReceivedMessagesPerSec()));
+            inventory.put(InventoryItem.sentMessagesPerSec, String.valueOf(Statistic.getNumTotalSentMessagesPerSec()));
 
             // node
             inventory.put(InventoryItem.version, Version.VERSION);
@@ -168,15 +206,103 @@ public class GetInventoryRequestHandler implements MessageListener {
 
     public void shutDown() {
         networkNode.removeMessageListener(this);
+        p2PDataStorage.removeHashMapChangedListener(hashMapChangedListener);
+        p2PDataStorage.removeAppendOnlyDataStoreListener(appendOnlyDataStoreListener);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Data object counters
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private Map<InventoryItem, Integer> getNumPersistableNetworkPayloads(String requestersVersion) {
+        String storeVersion = getHistoricalStoreVersion(requestersVersion);
+        Map<InventoryItem, Integer> counters = numPersistableNetworkPayloadsByVersion.get(storeVersion);
+        if (counters != null) {
+            return counters;
+        }
+
+        counters = new EnumMap<>(InventoryItem.class);
+        for (PersistableNetworkPayload payload : p2PDataStorage.getMapForDataResponse(storeVersion).values()) {
+            addToCounters(counters, payload.getClass().getSimpleName(), 1);
+        }
+        numPersistableNetworkPayloadsByVersion.put(storeVersion, counters);
+        return counters;
+    }
+
+    // Returns the newest historical store version which is not newer than the requester's version.
+    // The data response for that version contains the same historical stores as for the requester's
+    // version. Returns null if the requester is older than all historical stores or sent an invalid
+    // version, in which case we count all historical data.
+    @Nullable
+    static String getHistoricalStoreVersion(@Nullable String requestersVersion) {
+        if (requestersVersion == null) {
+            return null;
+        }
+
+        String result = null;
+        try {
+            for (String storeVersion : Version.HISTORICAL_RESOURCE_FILE_VERSION_TAGS) {
+                if (!Version.isNewVersion(storeVersion, requestersVersion) &&
+                        (result == null || Version.isNewVersion(storeVersion, result))) {
+                    result = storeVersion;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Requester sent an invalid version {}", requestersVersion);
+            return null;
+        }
+        return result;
+    }
+
+    private Map<InventoryItem, Integer> getNumProtectedStoragePayloads() {
+        if (countedProtectedStoragePayloadHashes == null) {
+            countedProtectedStoragePayloadHashes = new HashSet<>();
+            p2PDataStorage.getMap().values().forEach(entry -> maybeCount(entry.getProtectedStoragePayload()));
+        }
+        return numProtectedStoragePayloads;
+    }
+
+    private void onPersistableNetworkPayloadAdded(PersistableNetworkPayload payload) {
+        // New data is added to the live store, which is part of the data response for any version
+        String className = payload.getClass().getSimpleName();
+        numPersistableNetworkPayloadsByVersion.values().forEach(counters -> addToCounters(counters, className, 1));
+    }
+
+    private void onProtectedStorageEntriesChanged(Collection<ProtectedStorageEntry> protectedStorageEntries,
+                                                  boolean wasAdded) {
+        if (countedProtectedStoragePayloadHashes == null) {
+            // We have not counted yet
+            return;
+        }
+
+        protectedStorageEntries.forEach(entry -> {
+            ProtectedStoragePayload payload = entry.getProtectedStoragePayload();
+            if (wasAdded) {
+                maybeCount(payload);
+            } else {
+                String className = payload.getClass().getSimpleName();
+                if (Enums.getIfPresent(InventoryItem.class, className).isPresent() &&
+                        countedProtectedStoragePayloadHashes.remove(P2PDataStorage.get32ByteHashAsByteArray(payload))) {
+                    addToCounters(numProtectedStoragePayloads, className, -1);
+                }
+            }
+        });
+    }
+
+    private void maybeCount(ProtectedStoragePayload payload) {
+        String className = payload.getClass().getSimpleName();
+        // We only need to remember the hashes of the data objects we count
+        if (Enums.getIfPresent(InventoryItem.class, className).isPresent() &&
+                countedProtectedStoragePayloadHashes.add(P2PDataStorage.get32ByteHashAsByteArray(payload))) {
+            addToCounters(numProtectedStoragePayloads, className, 1);
+        }
     }
 
-    private void addClassNameToMap(Map<InventoryItem, Integer> dataObjects, String className) {
+    private void addToCounters(Map<InventoryItem, Integer> counters, String className, int delta) {
         Optional<InventoryItem> optionalEnum = Enums.getIfPresent(InventoryItem.class, className);
         if (optionalEnum.isPresent()) {
-            InventoryItem key = optionalEnum.get();
-            dataObjects.putIfAbsent(key, 0);
-            int prev = dataObjects.get(key);
-            dataObjects.put(key, prev + 1);
+            counters.merge(optionalEnum.get(), delta, Integer::sum);
         }
     }
 }
@@ -17,6 +17,8 @@
 
 package bisq.core.offer;
 
+import bisq.core.account.sign.SignedWitness;
+import bisq.core.account.witness.AccountAgeWitness;
 import bisq.core.account.witness.AccountAgeWitnessService;
 import bisq.core.filter.FilterManager;
 import bisq.core.locale.CurrencyUtil;
@@ -25,6 +27,10 @@ import bisq.core.payment.PaymentAccountUtil;
 import bisq.core.user.Preferences;
 import bisq.core.user.User;
 
+import bisq.network.p2p.P2PService;
+
+import bisq.common.Timer;
+import bisq.common.UserThread;
 import bisq.common.app.Version;
 
 import org.bitcoinj.core.Coin;
@@ -32,40 +38,122 @@ import org.bitcoinj.core.Coin;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import javafx.collections.ListChangeListener;
 import javafx.collections.SetChangeListener;
 
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import lombok.Getter;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 @Singleton
 public class OfferFilter {
+    // Upper bound for each cache. Offers removed from the offer book get evicted explicitly, the limit only protects
+    // against growth if we miss a remove event on long-running nodes.
+    private static final int MAX_CACHE_SIZE = 10_000;
+    // Max. time we use the user thread for one batch of pre-warming the results
+    private static final long PREWARM_BATCH_DURATION_MS = 20;
+    // Delay for re-evaluating all offers after invalidation. At startup we get many witnesses in a short time.
+    private static final long PREWARM_ALL_DELAY_MS = 2000;
+
     private final User user;
     private final Preferences preferences;
     private final FilterManager filterManager;
     private final AccountAgeWitnessService accountAgeWitnessService;
-    private final Map<String, Boolean> insufficientCounterpartyTradeLimitCache = new HashMap<>();
-    private final Map<String, Boolean> myInsufficientTradeLimitCache = new HashMap<>();
+    private final OfferBookService offerBookService;
+    private final Cache<String, Boolean> insufficientCounterpartyTradeLimitCache = newCache();
+    private final Cache<String, Boolean> myInsufficientTradeLimitCache = newCache();
+    private final Cache<String, CachedResult> canTakeOfferResultCache = newCache();
+
+    // Versions get incremented at changes of the data the results depend on. A cached canTakeOffer result is only
+    // used if it was created with the current versions.
+    private volatile int filterVersion;
+    private volatile int accountsVersion;
+    private volatile int witnessVersion;
+    private volatile int ignoreListVersion;
+
+    // Offers which get evaluated in the background, so the results are cached once the offer book is displayed.
+    // Only accessed from the user thread.
+    private final Map<String, Offer> offersToPrewarm = new LinkedHashMap<>();
+    private boolean prewarmBatchScheduled;
+    @Nullable
+    private Timer prewarmAllTimer;
 
     @Inject
     public OfferFilter(User user,
                        Preferences preferences,
                        FilterManager filterManager,
-                       AccountAgeWitnessService accountAgeWitnessService) {
+                       AccountAgeWitnessService accountAgeWitnessService,
+                       OfferBookService offerBookService,
+                       P2PService p2PService) {
         this.user = user;
         this.preferences = preferences;
         this.filterManager = filterManager;
         this.accountAgeWitnessService = accountAgeWitnessService;
+        this.offerBookService = offerBookService;
 
         if (user != null) {
             // If our accounts have changed we reset our myInsufficientTradeLimitCache as it depends on account data
-            user.getPaymentAccountsAsObservable().addListener((SetChangeListener<PaymentAccount>) c ->
-                    myInsufficientTradeLimitCache.clear());
+            user.getPaymentAccountsAsObservable().addListener((SetChangeListener<PaymentAccount>) c -> {
+                accountsVersion++;
+                myInsufficientTradeLimitCache.invalidateAll();
+                schedulePrewarmAll();
+            });
         }
+
+        preferences.getIgnoreTradersListAsObservable().addListener((ListChangeListener<String>) c -> {
+            ignoreListVersion++;
+            schedulePrewarmAll();
+        });
+
+        // The filter can ban offers, nodes, payment methods or witness signers, so all our results might be affected
+        filterManager.filterProperty().addListener((observable, oldValue, newValue) -> {
+            filterVersion++;
+            insufficientCounterpartyTradeLimitCache.invalidateAll();
+            myInsufficientTradeLimitCache.invalidateAll();
+            schedulePrewarmAll();
+        });
+
+        // New account age witnesses or signed witnesses change the trade limits of the peers and of ourselves
+        p2PService.getP2PDataStorage().addAppendOnlyDataStoreListener(payload -> {
+            if (payload instanceof AccountAgeWitness || payload instanceof SignedWitness) {
+                witnessVersion++;
+                insufficientCounterpartyTradeLimitCache.invalidateAll();
+                myInsufficientTradeLimitCache.invalidateAll();
+                schedulePrewarmAll();
+            }
+        });
+
+        offerBookService.addOfferBookChangedListener(new OfferBookService.OfferBookChangedListener() {
+            @Override
+            public void onAdded(Offer offer) {
+                offersToPrewarm.put(offer.getId(), offer);
+                schedulePrewarmBatch();
+            }
+
+            @Override
+            public void onRemoved(Offer offer) {
+                String offerId = offer.getId();
+                offersToPrewarm.remove(offerId);
+                insufficientCounterpartyTradeLimitCache.invalidate(offerId);
+                myInsufficientTradeLimitCache.invalidate(offerId);
+                canTakeOfferResultCache.invalidate(offerId);
+            }
+        });
+
+        // In case we get created after the offers have arrived
+        schedulePrewarmAll();
     }
 
     public enum Result {
@@ -98,6 +186,25 @@ public class OfferFilter {
         if (isTakerApiUser && filterManager.getFilter() != null && filterManager.getFilter().isDisableApi()) {
             return Result.API_DISABLED;
         }
+
+        CachedResult cachedResult = canTakeOfferResultCache.getIfPresent(offer.getId());
+        if (cachedResult != null && cachedResult.isValidFor(filterVersion, accountsVersion, witnessVersion, ignoreListVersion)) {
+            return cachedResult.getResult();
+        }
+
+        // We read the versions before we evaluate the result, so if any data changes during evaluation the
+        // cached entry is considered stale at the next call.
+        int filterVersion = this.filterVersion;
+        int accountsVersion = this.accountsVersion;
+        int witnessVersion = this.witnessVersion;
+        int ignoreListVersion = this.ignoreListVersion;
+        Result result = evaluateCanTakeOffer(offer);
+        canTakeOfferResultCache.put(offer.getId(),
+                new CachedResult(result, filterVersion, accountsVersion, witnessVersion, ignoreListVersion));
+        return result;
+    }
+
+    private Result evaluateCanTakeOffer(Offer offer) {
         if (!isAnyPaymentAccountValidForOffer(offer)) {
             return Result.HAS_NO_PAYMENT_ACCOUNT_VALID_FOR_OFFER;
         }
@@ -169,8 +276,9 @@ public class OfferFilter {
     // This call is a bit expensive so we cache results
     public boolean isInsufficientCounterpartyTradeLimit(Offer offer) {
         String offerId = offer.getId();
-        if (insufficientCounterpartyTradeLimitCache.containsKey(offerId)) {
-            return insufficientCounterpartyTradeLimitCache.get(offerId);
+        Boolean cachedResult = insufficientCounterpartyTradeLimitCache.getIfPresent(offerId);
+        if (cachedResult != null) {
+            return cachedResult;
         }
 
         boolean result = CurrencyUtil.isFiatCurrency(offer.getCurrencyCode()) &&
@@ -184,8 +292,9 @@ public class OfferFilter {
     // This call is a bit expensive so we cache results
     public boolean isMyInsufficientTradeLimit(Offer offer) {
         String offerId = offer.getId();
-        if (myInsufficientTradeLimitCache.containsKey(offerId)) {
-            return myInsufficientTradeLimitCache.get(offerId);
+        Boolean cachedResult = myInsufficientTradeLimitCache.getIfPresent(offerId);
+        if (cachedResult != null) {
+            return cachedResult;
         }
 
         Optional<PaymentAccount> accountOptional = PaymentAccountUtil.getMostMaturePaymentAccountForOffer(offer,
@@ -206,4 +315,75 @@ public class OfferFilter {
         myInsufficientTradeLimitCache.put(offerId, result);
         return result;
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Pre-warming
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The trade limit checks use the account age witness and signed witness services which are not thread safe, so
+    // we cannot evaluate on a worker thread. Instead we evaluate in small batches on the user thread, each limited
+    // to PREWARM_BATCH_DURATION_MS, so the UI stays responsive while the results get cached.
+    private void schedulePrewarmBatch() {
+        if (!prewarmBatchScheduled) {
+            prewarmBatchScheduled = true;
+            UserThread.execute(this::prewarmBatch);
+        }
+    }
+
+    private void prewarmBatch() {
+        prewarmBatchScheduled = false;
+        long deadline = System.currentTimeMillis() + PREWARM_BATCH_DURATION_MS;
+        Iterator<Offer> iterator = offersToPrewarm.values().iterator();
+        while (iterator.hasNext() && System.currentTimeMillis() < deadline) {
+            Offer offer = iterator.next();
+            iterator.remove();
+            try {
+                canTakeOffer(offer, false);
+            } catch (Throwable t) {
+                log.warn("Evaluating offer {} failed", offer.getId(), t);
+            }
+        }
+        if (!offersToPrewarm.isEmpty()) {
+            schedulePrewarmBatch();
+        }
+    }
+
+    private void schedulePrewarmAll() {
+        if (prewarmAllTimer != null) {
+            return;
+        }
+        prewarmAllTimer = UserThread.runAfter(() -> {
+            prewarmAllTimer = null;
+            offerBookService.getOffers().forEach(offer -> offersToPrewarm.put(offer.getId(), offer));
+            if (!offersToPrewarm.isEmpty()) {
+                schedulePrewarmBatch();
+            }
+        }, PREWARM_ALL_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static <V> Cache<String, V> newCache() {
+        return CacheBuilder.newBuilder().maximumSize(MAX_CACHE_SIZE).build();
+    }
+
+    @Value
+    private static class CachedResult {
+        Result result;
+        int filterVersion;
+        int accountsVersion;
+        int witnessVersion;
+        int ignoreListVersion;
+
+        boolean isValidFor(int filterVersion, int accountsVersion, int witnessVersion, int ignoreListVersion) {
+            return this.filterVersion == filterVersion &&
+                    this.accountsVersion == accountsVersion &&
+                    this.witnessVersion == witnessVersion &&
+                    this.ignoreListVersion == ignoreListVersion;
+        }
+    }
 }
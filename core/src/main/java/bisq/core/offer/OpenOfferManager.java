@@ -102,6 +102,14 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     private static final long REPUBLISH_AGAIN_AT_STARTUP_DELAY_SEC = 30;
     private static final long REPUBLISH_INTERVAL_MS = TimeUnit.MINUTES.toMillis(40);
     private static final long REFRESH_INTERVAL_MS = TimeUnit.MINUTES.toMillis(6);
+    // Time we use to spread the refresh batches. Only exceeded if we have so many offers that BATCH_DELAY_MS
+    // between the batches requires more time. REFRESH_INTERVAL_MS plus the spread must stay below the offer
+    // TTL of 9 minutes.
+    private static final long MAX_REFRESH_SPREAD_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final int REPUBLISH_BATCH_SIZE = 10;
+    private static final int REFRESH_BATCH_SIZE = 20;
+    // Need to be larger than the Broadcaster's BROADCAST_INTERVAL_MS so each batch gets its own bundle
+    private static final long BATCH_DELAY_MS = 3000;
 
     private final CoreContext coreContext;
     private final CreateOfferService createOfferService;
@@ -912,27 +920,36 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     }
 
     private void processListForRepublishOffers(List<OpenOffer> list) {
-        if (list.isEmpty()) {
+        if (stopped || list.isEmpty()) {
             return;
         }
 
-        OpenOffer openOffer = list.remove(0);
-        if (openOffers.contains(openOffer) && !openOffer.isDeactivated()) {
-            // TODO It is not clear yet if it is better for the node and the network to send out all add offer
-            //  messages in one go or to spread it over a delay. With power users who have 100-200 offers that can have
-            //  some significant impact to user experience and the network
-            republishOffer(openOffer, () -> processListForRepublishOffers(list));
+        // We republish the offers in batches. All offers of one batch get added in one go and we flush the
+        // broadcaster afterwards, so peers receive a batch as one BundleOfEnvelopes which counts as one message
+        // for the throttle limits. Between the batches we wait a bit to not cause a burst of broadcasts.
+        List<OpenOffer> batch = pollBatch(list, REPUBLISH_BATCH_SIZE);
+        batch.forEach(this::republishOffer);
+        broadcaster.flush();
 
-           /* republishOffer(openOffer,
-                    () -> UserThread.runAfter(() -> processListForRepublishOffers(list),
-                            30, TimeUnit.MILLISECONDS));*/
-        } else {
-            // If the offer was removed in the meantime or if its deactivated we skip and call
-            // processListForRepublishOffers again with the list where we removed the offer already.
-            processListForRepublishOffers(list);
+        if (!list.isEmpty()) {
+            UserThread.runAfter(() -> processListForRepublishOffers(list),
+                    BATCH_DELAY_MS, TimeUnit.MILLISECONDS);
         }
     }
 
+    // Removes up to maxSize items from the list and returns those which are still open and not deactivated.
+    private List<OpenOffer> pollBatch(List<OpenOffer> list, int maxSize) {
+        List<OpenOffer> batch = new ArrayList<>();
+        while (!list.isEmpty() && batch.size() < maxSize) {
+            OpenOffer openOffer = list.remove(0);
+            // If the offer was removed in the meantime or if its deactivated we skip it.
+            if (openOffers.contains(openOffer) && !openOffer.isDeactivated()) {
+                batch.add(openOffer);
+            }
+        }
+        return batch;
+    }
+
     private void republishOffer(OpenOffer openOffer) {
         republishOffer(openOffer, null);
     }
@@ -983,23 +1000,13 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         if (periodicRefreshOffersTimer == null)
             periodicRefreshOffersTimer = UserThread.runPeriodically(() -> {
                         if (!stopped) {
-                            int size = openOffers.size();
-                            //we clone our list as openOffers might change during our delayed call
-                            final ArrayList<OpenOffer> openOffersList = new ArrayList<>(openOffers.getList());
-                            for (int i = 0; i < size; i++) {
-                                // we delay to avoid reaching throttle limits
-                                // roughly 4 offers per second
-
-                                long delay = 300;
-                                final long minDelay = (i + 1) * delay;
-                                final long maxDelay = (i + 2) * delay;
-                                final OpenOffer openOffer = openOffersList.get(i);
-                                UserThread.runAfterRandomDelay(() -> {
-                                    // we need to check if in the meantime the offer has been removed
-                                    if (openOffers.contains(openOffer) && !openOffer.isDeactivated())
-                                        refreshOffer(openOffer);
-                                }, minDelay, maxDelay, TimeUnit.MILLISECONDS);
-                            }
+                            // We clone our list as openOffers might change during our delayed calls
+                            List<OpenOffer> list = new ArrayList<>(openOffers.getList());
+                            long numBatches = (list.size() + REFRESH_BATCH_SIZE - 1) / REFRESH_BATCH_SIZE;
+                            long delay = numBatches > 0 ?
+                                    Math.max(BATCH_DELAY_MS, MAX_REFRESH_SPREAD_MS / numBatches) :
+                                    BATCH_DELAY_MS;
+                            processListForRefreshOffers(list, delay);
                         } else {
                             log.debug("We have stopped already. We ignore that periodicRefreshOffersTimer.run call.");
                         }
@@ -1010,6 +1017,24 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
             log.trace("periodicRefreshOffersTimer already stated");
     }
 
+    private void processListForRefreshOffers(List<OpenOffer> list, long delay) {
+        if (stopped || list.isEmpty()) {
+            return;
+        }
+
+        // Same as with republishing we refresh in batches which get sent as one bundle. Batches are spread over
+        // a part of the refresh interval. We must not spread it too much as the position of an offer in the list
+        // can change between two refresh cycles and the interval between two refreshes of one offer must stay
+        // well below the offer's TTL.
+        List<OpenOffer> batch = pollBatch(list, REFRESH_BATCH_SIZE);
+        batch.forEach(this::refreshOffer);
+        broadcaster.flush();
+
+        if (!list.isEmpty()) {
+            UserThread.runAfter(() -> processListForRefreshOffers(list, delay), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
     private void refreshOffer(OpenOffer openOffer) {
         offerBookService.refreshTTL(openOffer.getOffer().getOfferPayload(),
                 () -> log.debug("Successful refreshed TTL for offer"),
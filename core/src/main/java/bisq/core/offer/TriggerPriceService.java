@@ -36,12 +36,15 @@ import javax.inject.Singleton;
 
 import javafx.collections.ListChangeListener;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -55,7 +58,7 @@ public class TriggerPriceService {
     private final OpenOfferManager openOfferManager;
     private final MempoolService mempoolService;
     private final PriceFeedService priceFeedService;
-    private final Map<String, Set<OpenOffer>> openOffersByCurrency = new HashMap<>();
+    private final Map<String, TriggerPriceIndex> openOffersByCurrency = new HashMap<>();
 
     @Inject
     public TriggerPriceService(P2PService p2PService,
@@ -98,15 +101,20 @@ public class TriggerPriceService {
     }
 
     private void onPriceFeedChanged() {
+        // We copy the offers to check as deactivating an offer might change our index
+        List<Map.Entry<MarketPrice, OpenOffer>> offersToCheck = new ArrayList<>();
         openOffersByCurrency.keySet().stream()
                 .map(priceFeedService::getMarketPrice)
                 .filter(Objects::nonNull)
                 .filter(marketPrice -> openOffersByCurrency.containsKey(marketPrice.getCurrencyCode()))
                 .forEach(marketPrice -> {
-                    openOffersByCurrency.get(marketPrice.getCurrencyCode()).stream()
-                            .filter(openOffer -> !openOffer.isDeactivated())
-                            .forEach(openOffer -> checkPriceThreshold(marketPrice, openOffer));
+                    long marketPriceAsLong = getMarketPriceAsLong(marketPrice, marketPrice.getCurrencyCode());
+                    openOffersByCurrency.get(marketPrice.getCurrencyCode()).getOffersToCheck(marketPriceAsLong)
+                            .forEach(openOffer -> offersToCheck.add(Map.entry(marketPrice, openOffer)));
                 });
+        offersToCheck.stream()
+                .filter(entry -> !entry.getValue().isDeactivated())
+                .forEach(entry -> checkPriceThreshold(entry.getKey(), entry.getValue()));
     }
 
     public static boolean wasTriggered(MarketPrice marketPrice, OpenOffer openOffer) {
@@ -115,26 +123,32 @@ public class TriggerPriceService {
             return false;
         }
 
-        String currencyCode = openOffer.getOffer().getCurrencyCode();
-        boolean cryptoCurrency = CurrencyUtil.isCryptoCurrency(currencyCode);
-        int smallestUnitExponent = cryptoCurrency ?
-                Altcoin.SMALLEST_UNIT_EXPONENT :
-                Fiat.SMALLEST_UNIT_EXPONENT;
-        long marketPriceAsLong = roundDoubleToLong(
-                scaleUpByPowerOf10(marketPrice.getPrice(), smallestUnitExponent));
         long triggerPrice = openOffer.getTriggerPrice();
         if (triggerPrice <= 0) {
             return false;
         }
 
-        OfferPayload.Direction direction = openOffer.getOffer().getDirection();
-        boolean isSellOffer = direction == OfferPayload.Direction.SELL;
-        boolean condition = isSellOffer && !cryptoCurrency || !isSellOffer && cryptoCurrency;
-        return condition ?
+        long marketPriceAsLong = getMarketPriceAsLong(marketPrice, openOffer.getOffer().getCurrencyCode());
+        return isTriggeredBelowTriggerPrice(openOffer) ?
                 marketPriceAsLong < triggerPrice :
                 marketPriceAsLong > triggerPrice;
     }
 
+    private static long getMarketPriceAsLong(MarketPrice marketPrice, String currencyCode) {
+        int smallestUnitExponent = CurrencyUtil.isCryptoCurrency(currencyCode) ?
+                Altcoin.SMALLEST_UNIT_EXPONENT :
+                Fiat.SMALLEST_UNIT_EXPONENT;
+        return roundDoubleToLong(scaleUpByPowerOf10(marketPrice.getPrice(), smallestUnitExponent));
+    }
+
+    // Sell offers of fiat and buy offers of altcoins get triggered if the market price falls below the trigger price,
+    // the others if it rises above.
+    private static boolean isTriggeredBelowTriggerPrice(OpenOffer openOffer) {
+        boolean cryptoCurrency = CurrencyUtil.isCryptoCurrency(openOffer.getOffer().getCurrencyCode());
+        boolean isSellOffer = openOffer.getOffer().getDirection() == OfferPayload.Direction.SELL;
+        return isSellOffer && !cryptoCurrency || !isSellOffer && cryptoCurrency;
+    }
+
     private void checkPriceThreshold(MarketPrice marketPrice, OpenOffer openOffer) {
         if (wasTriggered(marketPrice, openOffer)) {
             String currencyCode = openOffer.getOffer().getCurrencyCode();
@@ -176,7 +190,7 @@ public class TriggerPriceService {
     private void onAddedOpenOffers(List<? extends OpenOffer> openOffers) {
         openOffers.forEach(openOffer -> {
             String currencyCode = openOffer.getOffer().getCurrencyCode();
-            openOffersByCurrency.putIfAbsent(currencyCode, new HashSet<>());
+            openOffersByCurrency.putIfAbsent(currencyCode, new TriggerPriceIndex());
             openOffersByCurrency.get(currencyCode).add(openOffer);
 
             MarketPrice marketPrice = priceFeedService.getMarketPrice(openOffer.getOffer().getCurrencyCode());
@@ -190,12 +204,71 @@ public class TriggerPriceService {
         openOffers.forEach(openOffer -> {
             String currencyCode = openOffer.getOffer().getCurrencyCode();
             if (openOffersByCurrency.containsKey(currencyCode)) {
-                Set<OpenOffer> set = openOffersByCurrency.get(currencyCode);
-                set.remove(openOffer);
-                if (set.isEmpty()) {
+                TriggerPriceIndex index = openOffersByCurrency.get(currencyCode);
+                index.remove(openOffer);
+                if (index.isEmpty()) {
                     openOffersByCurrency.remove(currencyCode);
                 }
             }
         });
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // TriggerPriceIndex
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Open offers of one currency sorted by their trigger price, so at a price update we only need to visit the offers
+    // for which the market price is beyond the trigger price. Offers which got deactivated stay in the index as they
+    // might get activated again while the market price is still beyond the trigger price.
+    // Offers without a confirmed mempool status are kept separately, so they get checked at each price update as
+    // before until the mempool request succeeded.
+    private static class TriggerPriceIndex {
+        private final NavigableMap<Long, Set<OpenOffer>> triggeredBelowTriggerPrice = new TreeMap<>();
+        private final NavigableMap<Long, Set<OpenOffer>> triggeredAboveTriggerPrice = new TreeMap<>();
+        private final Set<OpenOffer> pendingMempoolCheck = new HashSet<>();
+
+        void add(OpenOffer openOffer) {
+            long triggerPrice = openOffer.getTriggerPrice();
+            if (triggerPrice > 0) {
+                getMap(openOffer).computeIfAbsent(triggerPrice, k -> new HashSet<>()).add(openOffer);
+            }
+            if (openOffer.getMempoolStatus() != 1) {
+                pendingMempoolCheck.add(openOffer);
+            }
+        }
+
+        void remove(OpenOffer openOffer) {
+            long triggerPrice = openOffer.getTriggerPrice();
+            NavigableMap<Long, Set<OpenOffer>> map = getMap(openOffer);
+            Set<OpenOffer> set = map.get(triggerPrice);
+            if (set != null) {
+                set.remove(openOffer);
+                if (set.isEmpty()) {
+                    map.remove(triggerPrice);
+                }
+            }
+            pendingMempoolCheck.remove(openOffer);
+        }
+
+        boolean isEmpty() {
+            return triggeredBelowTriggerPrice.isEmpty() &&
+                    triggeredAboveTriggerPrice.isEmpty() &&
+                    pendingMempoolCheck.isEmpty();
+        }
+
+        Set<OpenOffer> getOffersToCheck(long marketPriceAsLong) {
+            // Once the mempool check succeeded we don't need to visit the offer anymore
+            pendingMempoolCheck.removeIf(openOffer -> openOffer.getMempoolStatus() == 1);
+
+            Set<OpenOffer> result = new HashSet<>(pendingMempoolCheck);
+            triggeredBelowTriggerPrice.tailMap(marketPriceAsLong, false).values().forEach(result::addAll);
+            triggeredAboveTriggerPrice.headMap(marketPriceAsLong, false).values().forEach(result::addAll);
+            return result;
+        }
+
+        private NavigableMap<Long, Set<OpenOffer>> getMap(OpenOffer openOffer) {
+            return isTriggeredBelowTriggerPrice(openOffer) ? triggeredBelowTriggerPrice : triggeredAboveTriggerPrice;
+        }
+    }
 }
@@ -0,0 +1,38 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.provider;
+
+import bisq.network.Socks5ProxyProvider;
+import bisq.network.http.HttpClientImpl;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import javax.annotation.Nullable;
+
+/**
+ * Used for long-polling price requests, which are held back by the pricenode until new prices are available. A
+ * separate client is required so that other price requests are not blocked by a pending long-polling request.
+ */
+@Singleton
+public class PriceLongPollHttpClient extends HttpClientImpl {
+    @Inject
+    public PriceLongPollHttpClient(@Nullable Socks5ProxyProvider socks5ProxyProvider) {
+        super(socks5ProxyProvider);
+    }
+}
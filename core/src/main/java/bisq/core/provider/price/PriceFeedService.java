@@ -22,6 +22,7 @@ import bisq.core.locale.TradeCurrency;
 import bisq.core.monetary.Altcoin;
 import bisq.core.monetary.Price;
 import bisq.core.provider.PriceHttpClient;
+import bisq.core.provider.PriceLongPollHttpClient;
 import bisq.core.provider.ProvidersRepository;
 import bisq.core.trade.statistics.TradeStatistics3;
 import bisq.core.user.Preferences;
@@ -71,13 +72,21 @@ import static com.google.common.base.Preconditions.checkNotNull;
 @Slf4j
 public class PriceFeedService {
     private final HttpClient httpClient;
+    private final HttpClient longPollHttpClient;
     private final ProvidersRepository providersRepository;
     private final Preferences preferences;
 
     private static final long PERIOD_SEC = 60;
+    // If the pricenode has held back the response of a long-polling delta request until new
+    // prices were available, we send the next request shortly after we got the response, so
+    // we get price updates within seconds. Otherwise we request again after PERIOD_SEC.
+    private static final long LONG_POLL_REQUEST_DELAY_SEC = 10;
 
     private final Map<String, MarketPrice> cache = new HashMap<>();
+    // Used for requests which need a response right away, e.g. when the user requests a price
     private PriceProvider priceProvider;
+    // Used for the repeated requests. Those are held back by the pricenode until new prices are available.
+    private PriceProvider longPollPriceProvider;
     @Nullable
     private Consumer<Double> priceConsumer;
     @Nullable
@@ -102,14 +111,17 @@ public class PriceFeedService {
 
     @Inject
     public PriceFeedService(PriceHttpClient httpClient,
+                            PriceLongPollHttpClient longPollHttpClient,
                             @SuppressWarnings("SameParameterValue") ProvidersRepository providersRepository,
                             @SuppressWarnings("SameParameterValue") Preferences preferences) {
         this.httpClient = httpClient;
+        this.longPollHttpClient = longPollHttpClient;
         this.providersRepository = providersRepository;
         this.preferences = preferences;
 
         // Do not use Guice for PriceProvider as we might create multiple instances
         this.priceProvider = new PriceProvider(httpClient, providersRepository.getBaseUrl());
+        this.longPollPriceProvider = new PriceProvider(longPollHttpClient, providersRepository.getBaseUrl(), true);
     }
 
 
@@ -125,6 +137,8 @@ public class PriceFeedService {
         if (priceRequest != null) {
             priceRequest.shutDown();
         }
+        // A long-polling request might still be pending
+        longPollPriceProvider.shutDown();
     }
 
     public void setCurrencyCodeOnInit() {
@@ -136,7 +150,7 @@ public class PriceFeedService {
     }
 
     public void initialRequestPriceFeed() {
-        request(false);
+        request(false, false);
     }
 
     public boolean hasPrices() {
@@ -147,14 +161,19 @@ public class PriceFeedService {
         this.priceConsumer = resultHandler;
         this.faultHandler = faultHandler;
 
-        request(true);
+        request(true, false);
     }
 
     public String getProviderNodeAddress() {
         return httpClient.getBaseUrl();
     }
 
-    private void request(boolean repeatRequests) {
+    /**
+     * @param repeatRequests if set, we request again after PERIOD_SEC or shortly after a held back response
+     * @param allowLongPoll  if set, the request may be held back by the pricenode until new prices are available.
+     *                       Not set if the caller needs a response right away.
+     */
+    private void request(boolean repeatRequests, boolean allowLongPoll) {
         if (requestTs == 0)
             log.debug("request from provider {}",
                     providersRepository.getBaseUrl());
@@ -167,12 +186,24 @@ public class PriceFeedService {
 
         baseUrlOfRespondingProvider = null;
 
-        requestAllPrices(priceProvider, () -> {
-            baseUrlOfRespondingProvider = priceProvider.getBaseUrl();
+        // A long-polling request from before a provider switch might still be pending, then we use a normal request
+        PriceProvider provider = allowLongPoll && !longPollPriceProvider.hasPendingRequest() ?
+                longPollPriceProvider : priceProvider;
+        boolean longPoll = provider.isLongPollRequest();
+        requestAllPrices(provider, () -> {
+            baseUrlOfRespondingProvider = provider.getBaseUrl();
 
             // At applyPriceToConsumer we also check if price is not exceeding max. age for price data.
             boolean success = applyPriceToConsumer();
             if (success) {
+                if (requestTimer != null) {
+                    // The timer was scheduled with the max. wait time of a long-polling request
+                    // added, now that we got the response we schedule the next request.
+                    long delay = provider.isLastResponseHeld() ? LONG_POLL_REQUEST_DELAY_SEC : PERIOD_SEC;
+                    requestTimer.stop();
+                    requestTimer = UserThread.runAfter(() -> request(true, true), delay + new Random().nextInt(5));
+                }
+
                 MarketPrice marketPrice = cache.get(currencyCode);
                 if (marketPrice != null)
                     log.debug("Received new {} from provider {} after {} sec.",
@@ -217,6 +248,10 @@ public class PriceFeedService {
                 requestTimer.stop();
 
             long delay = PERIOD_SEC + new Random().nextInt(5);
+            if (longPoll) {
+                // The response might be delayed by the pricenode
+                delay += PriceProvider.LONG_POLL_WAIT_SEC;
+            }
             requestTimer = UserThread.runAfter(() -> {
                 // If we have not received a result from the last request. We try a new provider.
                 if (baseUrlOfRespondingProvider == null) {
@@ -224,8 +259,10 @@ public class PriceFeedService {
                     setNewPriceProvider();
                     log.warn("We did not received a response from provider {}. " +
                             "We select the new provider {} and use that for a new request.", oldBaseUrl, priceProvider.getBaseUrl());
+                    request(true, false);
+                } else {
+                    request(true, true);
                 }
-                request(true);
             }, delay);
         }
     }
@@ -240,15 +277,18 @@ public class PriceFeedService {
             log.warn("We received an error at the request from provider {}. " +
                     "We select the new provider {} and use that for a new request. retryDelay was {} sec.", oldBaseUrl, priceProvider.getBaseUrl(), retryDelay);
 
-            request(true);
+            request(true, false);
         }, retryDelay);
     }
 
     private void setNewPriceProvider() {
         providersRepository.selectNextProviderBaseUrl();
-        if (!providersRepository.getBaseUrl().isEmpty())
+        if (!providersRepository.getBaseUrl().isEmpty()) {
             priceProvider = new PriceProvider(httpClient, providersRepository.getBaseUrl());
-        else
+            // We cancel a pending long-polling request at the old provider
+            longPollPriceProvider.shutDown();
+            longPollPriceProvider = new PriceProvider(longPollHttpClient, providersRepository.getBaseUrl(), true);
+        } else
             log.warn("We cannot create a new priceProvider because new base url is empty.");
     }
 
@@ -393,8 +433,9 @@ public class PriceFeedService {
     }
 
     private void requestAllPrices(PriceProvider provider, Runnable resultHandler, FaultHandler faultHandler) {
-        if (httpClient.hasPendingRequest()) {
-            log.warn("We have a pending request open. We ignore that request. httpClient {}", httpClient);
+        if (provider.hasPendingRequest()) {
+            // The pending request applies the price for the current currency code at its response
+            log.warn("We have a pending request open. We ignore that request. provider {}", provider.getBaseUrl());
             return;
         }
 
@@ -412,6 +453,12 @@ public class PriceFeedService {
 
                     Map<String, MarketPrice> priceMap = result.second;
 
+                    // A full response contains all prices of the provider, so we remove the
+                    // prices it does not provide anymore. Bisq market prices are set locally.
+                    if (provider.isLastResponseFull()) {
+                        cache.entrySet().removeIf(entry -> entry.getValue().isExternallyProvidedPrice() &&
+                                !priceMap.containsKey(entry.getKey()));
+                    }
                     cache.putAll(priceMap);
 
                     resultHandler.run();
@@ -20,6 +20,7 @@ package bisq.core.provider.price;
 import bisq.core.provider.HttpClientProvider;
 
 import bisq.network.http.HttpClient;
+import bisq.network.http.HttpException;
 import bisq.network.p2p.P2PService;
 
 import bisq.common.app.Version;
@@ -38,14 +39,40 @@ import java.util.Map;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 public class PriceProvider extends HttpClientProvider {
+    // Max. time the pricenode holds back a delta request until a new price snapshot is
+    // available. Must be below the read timeout of the http client.
+    static final int LONG_POLL_WAIT_SEC = 50;
 
+    // If set, delta requests are held back by the pricenode until new prices are available
+    private final boolean longPoll;
     private boolean shutDownRequested;
+    // Null as long as we don't know if the pricenode supports delta requests
+    @Nullable
+    private volatile Boolean deltaRequestSupported;
+    // Epoch and version of the last price snapshot we received from the pricenode
+    private volatile String lastEpoch = "";
+    private volatile long lastVersion;
+    // True if the last response contained all market prices, not only the changed ones
+    private volatile boolean lastResponseFull;
+    // True if the pricenode has held back the last response until new prices were available
+    private volatile boolean lastResponseHeld;
 
     // Do not use Guice here as we might create multiple instances
     public PriceProvider(HttpClient httpClient, String baseUrl) {
+        this(httpClient, baseUrl, false);
+    }
+
+    /**
+     * @param longPoll if set, requests after the first response are held back by the pricenode until new prices
+     *                 are available. As the http client is blocked meanwhile, it must not be used for other requests.
+     */
+    public PriceProvider(HttpClient httpClient, String baseUrl, boolean longPoll) {
         super(httpClient, baseUrl, false);
+        this.longPoll = longPoll;
     }
 
     public Tuple2<Map<String, Long>, Map<String, MarketPrice>> getAll() throws IOException {
@@ -58,11 +85,38 @@ public class PriceProvider extends HttpClientProvider {
         if (P2PService.getMyNodeAddress() != null)
             hsVersion = P2PService.getMyNodeAddress().getHostName().length() > 22 ? ", HSv3" : ", HSv2";
 
-        String json = httpClient.get("getAllMarketPrices", "User-Agent", "bisq/"
-                + Version.VERSION + hsVersion);
-
+        String userAgent = "bisq/" + Version.VERSION + hsVersion;
+        String json = null;
+        if (!Boolean.FALSE.equals(deltaRequestSupported)) {
+            try {
+                // If we have received a snapshot already we only request the changed prices.
+                // With long-polling the pricenode responds as soon as a new snapshot is available.
+                int waitSec = isLongPollRequest() ? LONG_POLL_WAIT_SEC : 0;
+                json = httpClient.get("getMarketPricesDelta?epoch=" + lastEpoch +
+                                "&sinceVersion=" + lastVersion + "&waitSec=" + waitSec,
+                        "User-Agent", userAgent);
+                deltaRequestSupported = true;
+            } catch (IOException e) {
+                if (deltaRequestSupported != null || !isNotFoundError(e))
+                    throw e;
+
+                log.info("Pricenode {} does not support delta requests. We request all market prices instead.",
+                        getBaseUrl());
+                deltaRequestSupported = false;
+            }
+        }
+        if (json == null) {
+            json = httpClient.get("getAllMarketPrices", "User-Agent", userAgent);
+        }
 
         LinkedTreeMap<?, ?> map = new Gson().fromJson(json, LinkedTreeMap.class);
+        if (map.containsKey("version")) {
+            lastEpoch = map.containsKey("epoch") ? (String) map.get("epoch") : "";
+            lastVersion = ((Double) map.get("version")).longValue();
+        }
+        // Responses of getAllMarketPrices have no full flag but always contain all prices
+        lastResponseFull = !Boolean.FALSE.equals(map.get("full"));
+        lastResponseHeld = Boolean.TRUE.equals(map.get("held"));
         Map<String, Long> tsMap = new HashMap<>();
         tsMap.put("btcAverageTs", ((Double) map.get("btcAverageTs")).longValue());
         tsMap.put("poloniexTs", ((Double) map.get("poloniexTs")).longValue());
@@ -86,6 +140,38 @@ public class PriceProvider extends HttpClientProvider {
         return new Tuple2<>(tsMap, marketPriceMap);
     }
 
+    /**
+     * @return true if the next request will be a long-polling delta request, so the
+     * response is delayed by the pricenode until new prices are available
+     */
+    public boolean isLongPollRequest() {
+        return longPoll && Boolean.TRUE.equals(deltaRequestSupported) && lastVersion > 0;
+    }
+
+    /**
+     * @return true if the last response contained all market prices of the pricenode, so
+     * prices not contained in it are not provided anymore
+     */
+    public boolean isLastResponseFull() {
+        return lastResponseFull;
+    }
+
+    /**
+     * @return true if the pricenode has held back the last response until new prices were
+     * available or the wait time has passed
+     */
+    public boolean isLastResponseHeld() {
+        return lastResponseHeld;
+    }
+
+    private static boolean isNotFoundError(IOException e) {
+        return e.getCause() instanceof HttpException && ((HttpException) e.getCause()).getResponseCode() == 404;
+    }
+
+    public boolean hasPendingRequest() {
+        return httpClient.hasPendingRequest();
+    }
+
     public String getBaseUrl() {
         return httpClient.getBaseUrl();
     }
@@ -101,6 +101,14 @@ public abstract class SupportManager {
 
     public abstract void requestPersistence();
 
+    /**
+     * Requests persistence of the data of the trade with the given ID. Managers which do not persist per trade
+     * persist all data.
+     */
+    public void requestPersistence(String tradeId) {
+        requestPersistence();
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Delegates p2pService
@@ -178,7 +186,7 @@ public abstract class SupportManager {
                         else
                             msg.setAckError(ackMessage.getErrorMessage());
                     });
-            requestPersistence();
+            requestPersistence(ackMessage.getSourceId());
         }
     }
 
@@ -208,7 +216,7 @@ public abstract class SupportManager {
                             log.info("{} arrived at peer {}. tradeId={}, uid={}",
                                     message.getClass().getSimpleName(), peersNodeAddress, message.getTradeId(), message.getUid());
                             message.setArrived(true);
-                            requestPersistence();
+                            requestPersistence(message.getTradeId());
                         }
 
                         @Override
@@ -216,7 +224,7 @@ public abstract class SupportManager {
                             log.info("{} stored in mailbox for peer {}. tradeId={}, uid={}",
                                     message.getClass().getSimpleName(), peersNodeAddress, message.getTradeId(), message.getUid());
                             message.setStoredInMailbox(true);
-                            requestPersistence();
+                            requestPersistence(message.getTradeId());
                         }
 
                         @Override
@@ -224,7 +232,7 @@ public abstract class SupportManager {
                             log.error("{} failed: Peer {}. tradeId={}, uid={}, errorMessage={}",
                                     message.getClass().getSimpleName(), peersNodeAddress, message.getTradeId(), message.getUid(), errorMessage);
                             message.setSendMessageError(errorMessage);
-                            requestPersistence();
+                            requestPersistence(message.getTradeId());
                         }
                     }
             );
@@ -17,31 +17,189 @@
 
 package bisq.core.support.dispute;
 
+import bisq.common.crypto.Hash;
 import bisq.common.proto.network.NetworkPayload;
+import bisq.common.util.Utilities;
 
 import com.google.protobuf.ByteString;
 
-import lombok.Value;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 
-@Value
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Attachment of a chat message. The attachment is identified by the SHA-256 hash of its content.
+ * <p>
+ * Once the dispute list containing the attachment got persisted the content is written to the
+ * {@link AttachmentStore} and the bytes are released from the heap. The persisted dispute only
+ * references the attachment by its hash and the content is read from the store on demand.
+ */
+@Slf4j
+@EqualsAndHashCode
 public final class Attachment implements NetworkPayload {
+    @Getter
     private final String fileName;
-    private final byte[] bytes;
+    @Getter
+    private final byte[] sha256;
+
+    // Only held until the attachment got written to the attachment store
+    @EqualsAndHashCode.Exclude
+    @Nullable
+    private volatile byte[] bytes;
+    @EqualsAndHashCode.Exclude
+    @Nullable
+    private volatile AttachmentStore attachmentStore;
 
     public Attachment(String fileName, byte[] bytes) {
+        this(fileName, Hash.getSha256Hash(bytes), bytes);
+    }
+
+    private Attachment(String fileName, byte[] sha256, @Nullable byte[] bytes) {
         this.fileName = fileName;
+        this.sha256 = sha256;
         this.bytes = bytes;
     }
 
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Used for network messages, so the content is included. If the content is missing in the attachment store
+    // we send only the reference, so the other data of the dispute can still be sent.
     @Override
     public protobuf.Attachment toProtoMessage() {
-        return protobuf.Attachment.newBuilder()
+        protobuf.Attachment.Builder builder = protobuf.Attachment.newBuilder()
                 .setFileName(fileName)
-                .setBytes(ByteString.copyFrom(bytes))
-                .build();
+                .setSha256(ByteString.copyFrom(sha256));
+        try {
+            builder.setBytes(ByteString.copyFrom(getBytes()));
+        } catch (UncheckedIOException e) {
+            log.warn("Content of attachment {} with hash {} is not available. We send it without content.",
+                    fileName, getSha256AsHex(), e);
+        }
+        return builder.build();
+    }
+
+    // Used for persistence. If the content is already in the attachment store we only reference it by its hash.
+    public protobuf.Attachment toPersistableProtoMessage() {
+        protobuf.Attachment.Builder builder = protobuf.Attachment.newBuilder()
+                .setFileName(fileName)
+                .setSha256(ByteString.copyFrom(sha256));
+        byte[] bytes = this.bytes;
+        if (bytes != null) {
+            builder.setBytes(ByteString.copyFrom(bytes));
+        }
+        return builder.build();
     }
 
     public static Attachment fromProto(protobuf.Attachment proto) {
-        return new Attachment(proto.getFileName(), proto.getBytes().toByteArray());
+        // If we get the content we calculate the hash ourselves and do not trust the hash from the peer.
+        // Old clients and old persisted data do not have the hash field set.
+        if (!proto.getBytes().isEmpty() || proto.getSha256().isEmpty()) {
+            return new Attachment(proto.getFileName(), proto.getBytes().toByteArray());
+        }
+        return new Attachment(proto.getFileName(), proto.getSha256().toByteArray(), null);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public String getSha256AsHex() {
+        return Utilities.bytesAsHexString(sha256);
+    }
+
+    public boolean isContentInMemory() {
+        return bytes != null;
+    }
+
+    public boolean isConnectedToStore() {
+        return attachmentStore != null;
+    }
+
+    /**
+     * @return an input stream of the content. Prefer it over {@link #getBytes()} so that the content of a
+     * stored attachment does not need to be loaded into the heap.
+     */
+    public InputStream openInputStream() throws IOException {
+        byte[] bytes = this.bytes;
+        if (bytes != null) {
+            return new ByteArrayInputStream(bytes);
+        }
+        return getAttachmentStoreOrThrow().openInputStream(sha256);
+    }
+
+    /**
+     * @return the content. If it is not in memory anymore it is read from the attachment store.
+     * @throws UncheckedIOException if the content is neither in memory nor in the attachment store
+     */
+    public byte[] getBytes() {
+        byte[] bytes = this.bytes;
+        if (bytes != null) {
+            return bytes;
+        }
+        try {
+            return getAttachmentStoreOrThrow().read(sha256);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long getSize() {
+        byte[] bytes = this.bytes;
+        if (bytes != null) {
+            return bytes.length;
+        }
+        AttachmentStore attachmentStore = this.attachmentStore;
+        return attachmentStore != null ? attachmentStore.getSize(sha256) : 0;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Package scope
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Nullable
+    byte[] getBytesIfInMemory() {
+        return bytes;
+    }
+
+    // Called by the attachment store once the content is available in the store
+    void onStored(AttachmentStore attachmentStore, boolean releaseBytes) {
+        this.attachmentStore = attachmentStore;
+        if (releaseBytes) {
+            bytes = null;
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private AttachmentStore getAttachmentStoreOrThrow() throws IOException {
+        AttachmentStore attachmentStore = this.attachmentStore;
+        if (attachmentStore == null) {
+            throw new IOException("Content of attachment " + fileName + " is neither in memory nor in the attachment store");
+        }
+        return attachmentStore;
+    }
+
+    @Override
+    public String toString() {
+        return "Attachment{" +
+                "\n     fileName='" + fileName + '\'' +
+                ",\n     sha256=" + getSha256AsHex() +
+                ",\n     isContentInMemory=" + isContentInMemory() +
+                "\n}";
     }
 }
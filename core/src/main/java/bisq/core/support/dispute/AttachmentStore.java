@@ -0,0 +1,144 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.support.dispute;
+
+import bisq.common.UserThread;
+import bisq.common.config.Config;
+import bisq.common.file.FileUtil;
+import bisq.common.util.Utilities;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import java.nio.file.Files;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.concurrent.ExecutorService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Content addressed store for the attachments of the dispute chat messages. Each attachment is stored once
+ * in a file named by the hex encoded SHA-256 hash of its content, so the same attachment used in several
+ * messages or disputes is only stored once.
+ * <p>
+ * Files are written on a separate thread to a temp file first and renamed once the content is synced to disk.
+ * As the file name is the hash of the content an existing file is never rewritten.
+ */
+@Slf4j
+@Singleton
+public class AttachmentStore {
+    private static final String DIR_NAME = "attachments";
+
+    private final File storeDir;
+    private final ExecutorService executor = Utilities.getSingleThreadExecutor("AttachmentStore");
+
+    @Inject
+    public AttachmentStore(@Named(Config.STORAGE_DIR) File storageDir) {
+        storeDir = new File(storageDir, DIR_NAME);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Writes the content of the attachment to the store if it is not stored yet and releases the bytes held
+     * by the attachment. The file is written on the IO thread of the store. If the attachment does not hold the
+     * content it only gets connected to the store so it can read its content on demand.
+     * Attachments which got handled already are ignored, so it is cheap to call it repeatedly.
+     *
+     * @param contentMovedHandler called on the user thread once the content got written to the store and the
+     *                            bytes got released, so the owner can persist its data without the content
+     */
+    public void store(Attachment attachment, Runnable contentMovedHandler) {
+        if (attachment.isConnectedToStore()) {
+            return;
+        }
+
+        byte[] bytes = attachment.getBytesIfInMemory();
+        if (bytes == null) {
+            attachment.onStored(this, false);
+            return;
+        }
+
+        executor.execute(() -> {
+            File file = getFile(attachment.getSha256());
+            try {
+                if (!file.exists()) {
+                    write(file, bytes);
+                }
+            } catch (IOException e) {
+                // We keep the bytes in memory, they get persisted with the dispute in that case.
+                log.error("Could not write attachment {} to the attachment store", attachment.getFileName(), e);
+                return;
+            }
+            attachment.onStored(this, true);
+            UserThread.execute(contentMovedHandler);
+        });
+    }
+
+    public InputStream openInputStream(byte[] sha256) throws IOException {
+        return new BufferedInputStream(new FileInputStream(getFile(sha256)));
+    }
+
+    public byte[] read(byte[] sha256) throws IOException {
+        return Files.readAllBytes(getFile(sha256).toPath());
+    }
+
+    public long getSize(byte[] sha256) {
+        return getFile(sha256).length();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private File getFile(byte[] sha256) {
+        return new File(storeDir, Utilities.bytesAsHexString(sha256));
+    }
+
+    private void write(File file, byte[] bytes) throws IOException {
+        if (!storeDir.exists() && !storeDir.mkdirs()) {
+            throw new IOException("Could not create directory " + storeDir);
+        }
+
+        File tempFile = File.createTempFile("temp_" + file.getName(), null, storeDir);
+        try {
+            try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile)) {
+                fileOutputStream.write(bytes);
+                fileOutputStream.flush();
+                fileOutputStream.getFD().sync();
+            }
+            FileUtil.renameFile(tempFile, file);
+        } finally {
+            if (tempFile.exists() && !tempFile.delete()) {
+                log.error("Cannot delete temp file {}", tempFile);
+            }
+        }
+    }
+}
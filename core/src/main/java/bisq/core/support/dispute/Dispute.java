@@ -53,6 +53,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import lombok.EqualsAndHashCode;
@@ -210,6 +211,16 @@ public final class Dispute implements NetworkPayload, PersistablePayload {
 
     @Override
     public protobuf.Dispute toProtoMessage() {
+        return toProtoMessage(msg -> msg.toProtoNetworkEnvelope().getChatMessage());
+    }
+
+    // Used by the dispute lists for persistence. Attachments which are in the attachment store are only
+    // referenced by their hash.
+    public protobuf.Dispute toPersistableProtoMessage() {
+        return toProtoMessage(ChatMessage::toPersistableProtoMessage);
+    }
+
+    private protobuf.Dispute toProtoMessage(Function<ChatMessage, protobuf.ChatMessage> chatMessageToProto) {
         // Needed to avoid ConcurrentModificationException
         List<ChatMessage> clonedChatMessages = new ArrayList<>(chatMessages);
         protobuf.Dispute.Builder builder = protobuf.Dispute.newBuilder()
@@ -225,7 +236,7 @@ public final class Dispute implements NetworkPayload, PersistablePayload {
                 .setAgentPubKeyRing(agentPubKeyRing.toProtoMessage())
                 .setIsSupportTicket(isSupportTicket)
                 .addAllChatMessage(clonedChatMessages.stream()
-                        .map(msg -> msg.toProtoNetworkEnvelope().getChatMessage())
+                        .map(chatMessageToProto)
                         .collect(Collectors.toList()))
                 .setIsClosed(this.isClosed())
                 .setOpeningDate(openingDate)
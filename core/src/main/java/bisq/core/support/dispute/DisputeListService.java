@@ -17,6 +17,7 @@
 
 package bisq.core.support.dispute;
 
+import bisq.core.support.messages.ChatMessage;
 import bisq.core.trade.Contract;
 
 import bisq.network.p2p.NodeAddress;
@@ -30,13 +31,17 @@ import org.fxmisc.easybind.EasyBind;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -47,21 +52,30 @@ import javax.annotation.Nullable;
 public abstract class DisputeListService<T extends DisputeList<Dispute>> implements PersistedDataHost {
     @Getter
     protected final PersistenceManager<T> persistenceManager;
+    private final AttachmentStore attachmentStore;
     @Getter
     private final T disputeList;
     @Getter
     private final IntegerProperty numOpenDisputes = new SimpleIntegerProperty();
-    @Getter
-    private final Set<String> disputedTradeIds = new HashSet<>();
+
+    // Indexes of the dispute list, so we do not need to iterate the whole list at each received message. Agents
+    // have many thousands of historic disputes. There are max. 2 disputes for a trade (one for each trader).
+    // Only accessed from the user thread.
+    private final Map<String, List<Dispute>> disputesByTradeId = new HashMap<>();
+    private final Map<NodeAddress, Integer> numDisputesByBuyerNodeAddress = new HashMap<>();
+    private final Map<NodeAddress, Integer> numDisputesBySellerNodeAddress = new HashMap<>();
+    private final ListChangeListener<ChatMessage> chatMessagesListener = this::onChatMessagesChanged;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public DisputeListService(PersistenceManager<T> persistenceManager) {
+    public DisputeListService(PersistenceManager<T> persistenceManager, AttachmentStore attachmentStore) {
         this.persistenceManager = persistenceManager;
+        this.attachmentStore = attachmentStore;
         disputeList = getConcreteDisputeList();
+        disputeList.addListener(this::updateIndexes);
 
         this.persistenceManager.initialize(disputeList, getFileName(), PersistenceManager.Source.PRIVATE);
     }
@@ -81,6 +95,8 @@ public abstract class DisputeListService<T extends DisputeList<Dispute>> impleme
     @Override
     public void readPersisted(Runnable completeHandler) {
         persistenceManager.readPersisted(getFileName(), persisted -> {
+                    // The attachments get connected to the store by the listener on the dispute list. Attachments
+                    // persisted by old versions still hold their content, they get moved to the store.
                     disputeList.setAll(persisted.getList());
                     completeHandler.run();
                 },
@@ -96,6 +112,20 @@ public abstract class DisputeListService<T extends DisputeList<Dispute>> impleme
     // Public
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    public Set<String> getDisputedTradeIds() {
+        return Collections.unmodifiableSet(disputesByTradeId.keySet());
+    }
+
+    public List<Dispute> findDisputes(String tradeId) {
+        return disputesByTradeId.getOrDefault(tradeId, Collections.emptyList());
+    }
+
+    public Optional<Dispute> findDispute(String tradeId, int traderId) {
+        return findDisputes(tradeId).stream()
+                .filter(e -> e.getTraderId() == traderId)
+                .findAny();
+    }
+
     public void cleanupDisputes(@Nullable Consumer<String> closedDisputeHandler) {
         disputeList.stream().forEach(dispute -> {
             String tradeId = dispute.getTradeId();
@@ -113,27 +143,17 @@ public abstract class DisputeListService<T extends DisputeList<Dispute>> impleme
     void onAllServicesInitialized() {
         disputeList.addListener(change -> {
             change.next();
-            onDisputesChangeListener(change.getAddedSubList(), change.getRemoved());
+            onDisputesChangeListener(change.getAddedSubList());
         });
-        onDisputesChangeListener(disputeList.getList(), null);
+        onDisputesChangeListener(disputeList.getList());
     }
 
     String getNrOfDisputes(boolean isBuyer, Contract contract) {
-        return String.valueOf(getObservableList().stream()
-                .filter(e -> {
-                    Contract contract1 = e.getContract();
-                    if (contract1 == null)
-                        return false;
-
-                    if (isBuyer) {
-                        NodeAddress buyerNodeAddress = contract1.getBuyerNodeAddress();
-                        return buyerNodeAddress != null && buyerNodeAddress.equals(contract.getBuyerNodeAddress());
-                    } else {
-                        NodeAddress sellerNodeAddress = contract1.getSellerNodeAddress();
-                        return sellerNodeAddress != null && sellerNodeAddress.equals(contract.getSellerNodeAddress());
-                    }
-                })
-                .collect(Collectors.toSet()).size());
+        NodeAddress nodeAddress = isBuyer ? contract.getBuyerNodeAddress() : contract.getSellerNodeAddress();
+        Map<NodeAddress, Integer> numDisputesByNodeAddress = isBuyer ?
+                numDisputesByBuyerNodeAddress :
+                numDisputesBySellerNodeAddress;
+        return String.valueOf(nodeAddress != null ? numDisputesByNodeAddress.getOrDefault(nodeAddress, 0) : 0);
     }
 
     ObservableList<Dispute> getObservableList() {
@@ -145,13 +165,7 @@ public abstract class DisputeListService<T extends DisputeList<Dispute>> impleme
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private void onDisputesChangeListener(List<? extends Dispute> addedList,
-                                          @Nullable List<? extends Dispute> removedList) {
-        if (removedList != null) {
-            removedList.forEach(dispute -> {
-                disputedTradeIds.remove(dispute.getTradeId());
-            });
-        }
+    private void onDisputesChangeListener(List<? extends Dispute> addedList) {
         addedList.forEach(dispute -> {
             // for each dispute added, keep track of its "BadgeCountProperty"
             EasyBind.subscribe(dispute.getBadgeCountProperty(),
@@ -164,10 +178,74 @@ public abstract class DisputeListService<T extends DisputeList<Dispute>> impleme
                             numOpenDisputes.set(numAlerts);
                         });
                     });
-            disputedTradeIds.add(dispute.getTradeId());
         });
     }
 
+    private void updateIndexes(ListChangeListener.Change<? extends Dispute> change) {
+        while (change.next()) {
+            change.getRemoved().forEach(dispute -> {
+                removeFromIndexes(dispute);
+                dispute.getChatMessages().removeListener(chatMessagesListener);
+            });
+            change.getAddedSubList().forEach(dispute -> {
+                addToIndexes(dispute);
+                dispute.getChatMessages().forEach(this::storeAttachments);
+                dispute.getChatMessages().addListener(chatMessagesListener);
+            });
+        }
+    }
+
+    private void addToIndexes(Dispute dispute) {
+        disputesByTradeId.computeIfAbsent(dispute.getTradeId(), k -> new ArrayList<>(2)).add(dispute);
+        Contract contract = dispute.getContract();
+        if (contract != null) {
+            incrementNumDisputes(numDisputesByBuyerNodeAddress, contract.getBuyerNodeAddress());
+            incrementNumDisputes(numDisputesBySellerNodeAddress, contract.getSellerNodeAddress());
+        }
+    }
+
+    private void removeFromIndexes(Dispute dispute) {
+        List<Dispute> disputes = disputesByTradeId.get(dispute.getTradeId());
+        if (disputes != null) {
+            disputes.remove(dispute);
+            if (disputes.isEmpty()) {
+                disputesByTradeId.remove(dispute.getTradeId());
+            }
+        }
+        Contract contract = dispute.getContract();
+        if (contract != null) {
+            decrementNumDisputes(numDisputesByBuyerNodeAddress, contract.getBuyerNodeAddress());
+            decrementNumDisputes(numDisputesBySellerNodeAddress, contract.getSellerNodeAddress());
+        }
+    }
+
+    private static void incrementNumDisputes(Map<NodeAddress, Integer> numDisputesByNodeAddress,
+                                             @Nullable NodeAddress nodeAddress) {
+        if (nodeAddress != null) {
+            numDisputesByNodeAddress.merge(nodeAddress, 1, Integer::sum);
+        }
+    }
+
+    private static void decrementNumDisputes(Map<NodeAddress, Integer> numDisputesByNodeAddress,
+                                             @Nullable NodeAddress nodeAddress) {
+        if (nodeAddress != null) {
+            numDisputesByNodeAddress.computeIfPresent(nodeAddress, (key, value) -> value > 1 ? value - 1 : null);
+        }
+    }
+
+    // New attachments are written to the attachment store once their chat message got added. After that we persist
+    // again, so the persisted dispute list only references them by their hash.
+    private void onChatMessagesChanged(ListChangeListener.Change<? extends ChatMessage> change) {
+        while (change.next()) {
+            change.getAddedSubList().forEach(this::storeAttachments);
+        }
+    }
+
+    private void storeAttachments(ChatMessage chatMessage) {
+        chatMessage.getAttachments().forEach(attachment ->
+                attachmentStore.store(attachment, persistenceManager::requestPersistence));
+    }
+
     public void requestPersistence() {
         persistenceManager.requestPersistence();
     }
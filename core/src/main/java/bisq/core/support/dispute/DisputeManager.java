@@ -289,12 +289,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
 
 
     public Optional<Dispute> findOwnDispute(String tradeId) {
-        T disputeList = getDisputeList();
-        if (disputeList == null) {
-            log.warn("disputes is null");
-            return Optional.empty();
-        }
-        return disputeList.stream().filter(e -> e.getTradeId().equals(tradeId)).findAny();
+        return findDispute(tradeId);
     }
 
 
@@ -401,7 +396,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                 if (!storedDisputeOptional.isPresent()) {
                     disputeList.add(dispute);
                     trade.setDisputeState(getDisputeStateStartedByPeer());
-                    tradeManager.requestPersistence();
+                    tradeManager.requestPersistence(trade.getId());
                     errorMessage = null;
                 } else {
                     // valid case if both have opened a dispute and agent was not online.
@@ -812,25 +807,11 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
     }
 
     private Optional<Dispute> findDispute(String tradeId, int traderId) {
-        T disputeList = getDisputeList();
-        if (disputeList == null) {
-            log.warn("disputes is null");
-            return Optional.empty();
-        }
-        return disputeList.stream()
-                .filter(e -> e.getTradeId().equals(tradeId) && e.getTraderId() == traderId)
-                .findAny();
+        return disputeListService.findDispute(tradeId, traderId);
     }
 
     public Optional<Dispute> findDispute(String tradeId) {
-        T disputeList = getDisputeList();
-        if (disputeList == null) {
-            log.warn("disputes is null");
-            return Optional.empty();
-        }
-        return disputeList.stream()
-                .filter(e -> e.getTradeId().equals(tradeId))
-                .findAny();
+        return disputeListService.findDisputes(tradeId).stream().findAny();
     }
 
     public Optional<Trade> findTrade(Dispute dispute) {
@@ -42,6 +42,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import java.lang.ref.WeakReference;
@@ -210,13 +211,25 @@ public final class ChatMessage extends SupportMessage {
     // We cannot rename protobuf definition because it would break backward compatibility
     @Override
     public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
+        return getNetworkEnvelopeBuilder()
+                .setChatMessage(getChatMessageBuilder(Attachment::toProtoMessage))
+                .build();
+    }
+
+    // Used when the chat message is persisted as part of a dispute. Attachments which are in the attachment store
+    // are only referenced by their hash.
+    public protobuf.ChatMessage toPersistableProtoMessage() {
+        return getChatMessageBuilder(Attachment::toPersistableProtoMessage).build();
+    }
+
+    private protobuf.ChatMessage.Builder getChatMessageBuilder(Function<Attachment, protobuf.Attachment> attachmentToProto) {
         protobuf.ChatMessage.Builder builder = protobuf.ChatMessage.newBuilder()
                 .setType(SupportType.toProtoMessage(supportType))
                 .setTradeId(tradeId)
                 .setTraderId(traderId)
                 .setSenderIsTrader(senderIsTrader)
                 .setMessage(message)
-                .addAllAttachments(attachments.stream().map(Attachment::toProtoMessage).collect(Collectors.toList()))
+                .addAllAttachments(attachments.stream().map(attachmentToProto).collect(Collectors.toList()))
                 .setSenderNodeAddress(senderNodeAddress.toProtoMessage())
                 .setDate(date)
                 .setArrived(arrivedProperty.get())
@@ -227,9 +240,7 @@ public final class ChatMessage extends SupportMessage {
                 .setWasDisplayed(wasDisplayed);
         Optional.ofNullable(sendMessageErrorProperty.get()).ifPresent(builder::setSendMessageError);
         Optional.ofNullable(ackErrorProperty.get()).ifPresent(builder::setAckError);
-        return getNetworkEnvelopeBuilder()
-                .setChatMessage(builder)
-                .build();
+        return builder;
     }
 
     // The protobuf definition ChatMessage cannot be changed as it would break backward compatibility.
@@ -78,6 +78,11 @@ public class TraderChatManager extends SupportManager {
         tradeManager.requestPersistence();
     }
 
+    @Override
+    public void requestPersistence(String tradeId) {
+        tradeManager.requestPersistence(tradeId);
+    }
+
     @Override
     public NodeAddress getPeerNodeAddress(ChatMessage message) {
         return tradeManager.getTradeById(message.getTradeId()).map(trade -> {
@@ -121,7 +126,7 @@ public class TraderChatManager extends SupportManager {
                     addSystemMsg(trade);
                 }
                 trade.addAndPersistChatMessage(message);
-                tradeManager.requestPersistence();
+                tradeManager.requestPersistence(trade.getId());
             } else {
                 log.warn("Trade got a chatMessage that we have already stored. UId = {} TradeId = {}",
                         message.getUid(), message.getTradeId());
@@ -170,6 +175,6 @@ public class TraderChatManager extends SupportManager {
         chatMessage.setSystemMessage(true);
         trade.getChatMessages().add(chatMessage);
 
-        requestPersistence();
+        requestPersistence(trade.getId());
     }
 }
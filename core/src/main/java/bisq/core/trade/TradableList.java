@@ -24,17 +24,21 @@ import bisq.core.proto.CoreProtoResolver;
 import bisq.common.proto.ProtoUtil;
 import bisq.common.proto.ProtobufferRuntimeException;
 import bisq.common.proto.persistable.PersistableListAsObservable;
+import bisq.common.proto.persistable.ShardedPersistableEnvelope;
 
 import com.google.protobuf.Message;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-public final class TradableList<T extends Tradable> extends PersistableListAsObservable<T> {
+public final class TradableList<T extends Tradable> extends PersistableListAsObservable<T>
+        implements ShardedPersistableEnvelope<TradableList<T>> {
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -87,6 +91,34 @@ public final class TradableList<T extends Tradable> extends PersistableListAsObs
         return new TradableList<>(list);
     }
 
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // ShardedPersistableEnvelope
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // We use one shard per tradable ID. In the rare case that there are several tradables with the same ID
+    // (e.g. a closed offer and a trade) they are stored in the same shard.
+    @Override
+    public Set<String> getShardKeys() {
+        return stream().map(Tradable::getId).collect(Collectors.toSet());
+    }
+
+    @Override
+    public Map<String, Message> toShardMessages(Set<String> shardKeys) {
+        return stream()
+                .filter(tradable -> shardKeys.contains(tradable.getId()))
+                .collect(Collectors.groupingBy(Tradable::getId))
+                .entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> new TradableList<>(e.getValue()).toProtoMessage()));
+    }
+
+    @Override
+    public TradableList<T> fromShards(List<TradableList<T>> shards) {
+        return new TradableList<>(shards.stream()
+                .flatMap(TradableList::stream)
+                .collect(Collectors.toList()));
+    }
+
     @Override
     public String toString() {
         return "TradableList{" +
@@ -59,6 +59,7 @@ import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.FaultHandler;
 import bisq.common.handlers.ResultHandler;
 import bisq.common.persistence.PersistenceManager;
+import bisq.common.persistence.ShardedPersistenceManager;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.persistable.PersistedDataHost;
 
@@ -129,7 +130,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
     private final ClockWatcher clockWatcher;
 
     private final Map<String, TradeProtocol> tradeProtocolByTradeId = new HashMap<>();
-    private final PersistenceManager<TradableList<Trade>> persistenceManager;
+    private final ShardedPersistenceManager<TradableList<Trade>> persistenceManager;
     private final TradableList<Trade> tradableList = new TradableList<>();
     @Getter
     private final BooleanProperty persistedTradesInitialized = new SimpleBooleanProperty();
@@ -164,7 +165,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
                         MediatorManager mediatorManager,
                         ProcessModelServiceProvider processModelServiceProvider,
                         ClockWatcher clockWatcher,
-                        PersistenceManager<TradableList<Trade>> persistenceManager,
+                        ShardedPersistenceManager<TradableList<Trade>> persistenceManager,
                         ReferralIdService referralIdService,
                         DumpDelayedPayoutTx dumpDelayedPayoutTx,
                         @Named(Config.ALLOW_FAULTY_DELAYED_TXS) boolean allowFaultyDelayedTxs) {
@@ -288,7 +289,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
                 takeOfferRequestErrorMessageHandler.handleErrorMessage(errorMessage);
         });
 
-        requestPersistence();
+        requestPersistence(trade.getId());
     }
 
 
@@ -354,19 +355,24 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
     private void initPersistedTrade(Trade trade) {
         initTradeAndProtocol(trade, getTradeProtocol(trade));
         trade.updateDepositTxFromWallet();
-        requestPersistence();
+        requestPersistence(trade.getId());
     }
 
     private void initTradeAndProtocol(Trade trade, TradeProtocol tradeProtocol) {
         tradeProtocol.initialize(processModelServiceProvider, this, trade.getOffer());
         trade.initialize(processModelServiceProvider);
-        requestPersistence();
+        requestPersistence(trade.getId());
     }
 
     public void requestPersistence() {
         persistenceManager.requestPersistence();
     }
 
+    // Only the trade with that ID gets written to disk
+    public void requestPersistence(String tradeId) {
+        persistenceManager.requestPersistence(tradeId);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Take offer
@@ -452,12 +458,12 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
 
                         ((TakerProtocol) tradeProtocol).onTakeOffer();
                         tradeResultHandler.handleResult(trade);
-                        requestPersistence();
+                        requestPersistence(trade.getId());
                     }
                 },
                 errorMessageHandler);
 
-        requestPersistence();
+        requestPersistence(offer.getId());
     }
 
     private ProcessModel getNewProcessModel(Offer offer) {
@@ -500,7 +506,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
                     onTradeCompleted(trade);
                     trade.setState(Trade.State.WITHDRAW_COMPLETED);
                     getTradeProtocol(trade).onWithdrawCompleted();
-                    requestPersistence();
+                    requestPersistence(trade.getId());
                     resultHandler.handleResult();
                 }
             }
@@ -529,7 +535,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
 
         // TODO The address entry should have been removed already. Check and if its the case remove that.
         btcWalletService.resetAddressEntriesForPendingTrade(trade.getId());
-        requestPersistence();
+        requestPersistence(trade.getId());
     }
 
 
@@ -544,7 +550,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
             trade.setDisputeState(disputeState);
             onTradeCompleted(trade);
             btcWalletService.swapTradeEntryToAvailableEntry(trade.getId(), AddressEntry.Context.TRADE_PAYOUT);
-            requestPersistence();
+            requestPersistence(trade.getId());
         }
     }
 
@@ -576,10 +582,10 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
                     Date now = new Date();
                     if (now.after(maxTradePeriodDate)) {
                         trade.setTradePeriodState(Trade.TradePeriodState.TRADE_PERIOD_OVER);
-                        requestPersistence();
+                        requestPersistence(trade.getId());
                     } else if (now.after(halfTradePeriodDate)) {
                         trade.setTradePeriodState(Trade.TradePeriodState.SECOND_HALF);
-                        requestPersistence();
+                        requestPersistence(trade.getId());
                     }
                 }
             }
@@ -715,13 +721,13 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
 
     private void removeTrade(Trade trade) {
         if (tradableList.remove(trade)) {
-            requestPersistence();
+            requestPersistence(trade.getId());
         }
     }
 
     private void addTrade(Trade trade) {
         if (tradableList.add(trade)) {
-            requestPersistence();
+            requestPersistence(trade.getId());
         }
     }
 
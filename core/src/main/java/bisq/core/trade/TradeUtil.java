@@ -110,11 +110,7 @@ public class TradeUtil {
         var payoutAddress = isMyRoleBuyer
                 ? contract.getBuyerPayoutAddressString()
                 : contract.getSellerPayoutAddressString();
-        var payoutAddressEntry = btcWalletService.getAddressEntryListAsImmutableList().stream()
-                .filter(e -> Objects.equals(e.getAddressString(), payoutAddress))
-                .findAny()
-                .orElse(null);
-        if (payoutAddressEntry == null)
+        if (payoutAddress == null || btcWalletService.getAddressEntriesByAddress(payoutAddress).isEmpty())
             return null;
 
         return new Tuple2<>(multiSigAddress.getAddressString(), payoutAddress);
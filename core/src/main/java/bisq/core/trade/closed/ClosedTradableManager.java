@@ -26,6 +26,7 @@ import bisq.core.trade.Trade;
 
 import bisq.common.crypto.KeyRing;
 import bisq.common.persistence.PersistenceManager;
+import bisq.common.persistence.ShardedPersistenceManager;
 import bisq.common.proto.persistable.PersistedDataHost;
 
 import com.google.inject.Inject;
@@ -43,7 +44,7 @@ import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class ClosedTradableManager implements PersistedDataHost {
-    private final PersistenceManager<TradableList<Tradable>> persistenceManager;
+    private final ShardedPersistenceManager<TradableList<Tradable>> persistenceManager;
     private final TradableList<Tradable> closedTradables = new TradableList<>();
     private final KeyRing keyRing;
     private final PriceFeedService priceFeedService;
@@ -53,7 +54,7 @@ public class ClosedTradableManager implements PersistedDataHost {
     @Inject
     public ClosedTradableManager(KeyRing keyRing,
                                  PriceFeedService priceFeedService,
-                                 PersistenceManager<TradableList<Tradable>> persistenceManager,
+                                 ShardedPersistenceManager<TradableList<Tradable>> persistenceManager,
                                  CleanupMailboxMessages cleanupMailboxMessages,
                                  DumpDelayedPayoutTx dumpDelayedPayoutTx) {
         this.keyRing = keyRing;
@@ -84,13 +85,13 @@ public class ClosedTradableManager implements PersistedDataHost {
 
     public void add(Tradable tradable) {
         if (closedTradables.add(tradable)) {
-            requestPersistence();
+            persistenceManager.requestPersistence(tradable.getId());
         }
     }
 
     public void remove(Tradable tradable) {
         if (closedTradables.remove(tradable)) {
-            requestPersistence();
+            persistenceManager.requestPersistence(tradable.getId());
         }
     }
 
@@ -117,8 +118,4 @@ public class ClosedTradableManager implements PersistedDataHost {
         return getClosedTrades().stream()
                 .filter(Trade::isFundsLockedIn);
     }
-
-    private void requestPersistence() {
-        persistenceManager.requestPersistence();
-    }
 }
@@ -153,7 +153,7 @@ public abstract class BuyerProtocol extends DisputeProtocol {
                                 })))
                 .run(() -> {
                     trade.setState(Trade.State.BUYER_CONFIRMED_IN_UI_FIAT_PAYMENT_INITIATED);
-                    processModel.getTradeManager().requestPersistence();
+                    processModel.getTradeManager().requestPersistence(trade.getId());
                 })
                 .executeTasks();
     }
@@ -51,6 +51,7 @@ import bisq.common.crypto.PubKeyRing;
 import bisq.common.proto.ProtoUtil;
 import bisq.common.proto.persistable.PersistablePayload;
 import bisq.common.taskrunner.Model;
+import bisq.common.taskrunner.TaskTiming;
 
 import com.google.protobuf.ByteString;
 
@@ -60,8 +61,10 @@ import org.bitcoinj.core.Transaction;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 import lombok.Getter;
@@ -83,6 +86,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
 @Getter
 @Slf4j
 public class ProcessModel implements Model, PersistablePayload {
+    // A trade runs less than 100 tasks in total, so the limit only protects against repeated protocol runs.
+    // If it is exceeded we drop the oldest entries as the recent ones are the relevant ones for a stuck trade.
+    private static final int MAX_TASK_TIMELINE_SIZE = 200;
 
     public static byte[] hashOfPaymentAccountPayload(PaymentAccountPayload paymentAccountPayload) {
         return Hash.getRipemd160hash(checkNotNull(paymentAccountPayload).toProtoMessage().toByteArray());
@@ -169,6 +175,11 @@ public class ProcessModel implements Model, PersistablePayload {
     @Setter
     private ObjectProperty<MessageState> paymentStartedMessageStateProperty = new SimpleObjectProperty<>(MessageState.UNDEFINED);
 
+    // Added in v1.7.0
+    // Timings of the protocol tasks run for that trade, used to find out which tasks dominate the trade latency.
+    // Entries are added on the user thread but the list is read from the gRPC threads as well.
+    private final List<TaskTiming> taskTimeline = new CopyOnWriteArrayList<>();
+
     public ProcessModel(String offerId, String accountId, PubKeyRing pubKeyRing) {
         this(offerId, accountId, pubKeyRing, new TradingPeer());
     }
@@ -217,6 +228,7 @@ public class ProcessModel implements Model, PersistablePayload {
         Optional.ofNullable(myMultiSigPubKey).ifPresent(e -> builder.setMyMultiSigPubKey(ByteString.copyFrom(myMultiSigPubKey)));
         Optional.ofNullable(tempTradingPeerNodeAddress).ifPresent(e -> builder.setTempTradingPeerNodeAddress(tempTradingPeerNodeAddress.toProtoMessage()));
         Optional.ofNullable(mediatedPayoutTxSignature).ifPresent(e -> builder.setMediatedPayoutTxSignature(ByteString.copyFrom(e)));
+        builder.addAllTaskTimeline(ProtoUtil.collectionToProto(taskTimeline, protobuf.TaskTiming.class));
 
         return builder.build();
     }
@@ -248,6 +260,10 @@ public class ProcessModel implements Model, PersistablePayload {
         MessageState paymentStartedMessageState = ProtoUtil.enumFromProto(MessageState.class, paymentStartedMessageStateString);
         processModel.setPaymentStartedMessageState(paymentStartedMessageState);
 
+        proto.getTaskTimelineList().stream()
+                .map(TaskTiming::fromProto)
+                .forEach(processModel::addTaskTiming);
+
         return processModel;
     }
 
@@ -256,6 +272,17 @@ public class ProcessModel implements Model, PersistablePayload {
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    public void addTaskTiming(TaskTiming taskTiming) {
+        taskTimeline.add(taskTiming);
+        while (taskTimeline.size() > MAX_TASK_TIMELINE_SIZE) {
+            taskTimeline.remove(0);
+        }
+    }
+
+    public List<TaskTiming> getTaskTimeline() {
+        return Collections.unmodifiableList(taskTimeline);
+    }
+
     @Override
     public void onComplete() {
     }
@@ -303,7 +330,7 @@ public class ProcessModel implements Model, PersistablePayload {
     public void setPaymentStartedMessageState(MessageState paymentStartedMessageStateProperty) {
         this.paymentStartedMessageStateProperty.set(paymentStartedMessageStateProperty);
         if (tradeManager != null) {
-            tradeManager.requestPersistence();
+            tradeManager.requestPersistence(offerId);
         }
     }
 
@@ -317,7 +344,7 @@ public class ProcessModel implements Model, PersistablePayload {
     public void setDepositTxMessageState(MessageState messageState) {
         this.depositTxMessageStateProperty.set(messageState);
         if (tradeManager != null) {
-            tradeManager.requestPersistence();
+            tradeManager.requestPersistence(offerId);
         }
     }
 
@@ -305,7 +305,7 @@ public abstract class TradeProtocol implements DecryptedDirectMessageListener, D
                     trade.getId(), trade.stateProperty().get(), timeoutSec);
             trade.setErrorMessage("Timeout reached. Protocol did not complete in " + timeoutSec + " sec.");
 
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade.getId());
             cleanup();
         }, timeoutSec);
     }
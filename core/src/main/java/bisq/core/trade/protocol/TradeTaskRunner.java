@@ -22,11 +22,19 @@ import bisq.core.trade.Trade;
 import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.ResultHandler;
 import bisq.common.taskrunner.TaskRunner;
+import bisq.common.taskrunner.TaskTiming;
 
 public class TradeTaskRunner extends TaskRunner<Trade> {
+    private final Trade trade;
 
     public TradeTaskRunner(Trade sharedModel, ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
         //noinspection unchecked
         super(sharedModel, (Class<Trade>) sharedModel.getClass().getSuperclass().getSuperclass(), resultHandler, errorMessageHandler);
+        trade = sharedModel;
+    }
+
+    @Override
+    protected void onTaskFinished(TaskTiming taskTiming) {
+        trade.getProcessModel().addTaskTiming(taskTiming);
     }
 }
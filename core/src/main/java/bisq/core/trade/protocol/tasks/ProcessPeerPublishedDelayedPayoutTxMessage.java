@@ -52,7 +52,7 @@ public class ProcessPeerPublishedDelayedPayoutTxMessage extends TradeTask {
             Transaction delayedPayoutTx = checkNotNull(trade.getDelayedPayoutTx());
             WalletService.maybeAddSelfTxToWallet(delayedPayoutTx, processModel.getBtcWalletService().getWallet());
 
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade.getId());
 
             complete();
         } catch (Throwable t) {
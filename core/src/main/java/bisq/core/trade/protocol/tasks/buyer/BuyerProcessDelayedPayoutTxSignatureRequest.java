@@ -55,7 +55,7 @@ public class BuyerProcessDelayedPayoutTxSignatureRequest extends TradeTask {
 
             trade.setTradingPeerNodeAddress(processModel.getTempTradingPeerNodeAddress());
 
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade.getId());
 
             complete();
         } catch (Throwable t) {
@@ -72,7 +72,7 @@ public class BuyerProcessPayoutTxPublishedMessage extends TradeTask {
                 processModel.getAccountAgeWitnessService().publishOwnSignedWitness(signedWitness);
             }
 
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade.getId());
 
             complete();
         } catch (Throwable t) {
@@ -87,7 +87,7 @@ public class BuyerSendCounterCurrencyTransferStartedMessage extends SendMailboxM
             trade.setStateIfValidTransitionTo(Trade.State.BUYER_SENT_FIAT_PAYMENT_INITIATED_MSG);
         }
 
-        processModel.getTradeManager().requestPersistence();
+        processModel.getTradeManager().requestPersistence(trade.getId());
     }
 
     @Override
@@ -110,7 +110,7 @@ public class BuyerSendCounterCurrencyTransferStartedMessage extends SendMailboxM
         if (!trade.isPayoutPublished()) {
             tryToSendAgainLater();
         }
-        processModel.getTradeManager().requestPersistence();
+        processModel.getTradeManager().requestPersistence(trade.getId());
     }
 
     // We override the default behaviour for onFault and do not call appendToErrorMessage and failed
@@ -125,7 +125,7 @@ public class BuyerSendCounterCurrencyTransferStartedMessage extends SendMailboxM
         if (!trade.isPayoutPublished()) {
             tryToSendAgainLater();
         }
-        processModel.getTradeManager().requestPersistence();
+        processModel.getTradeManager().requestPersistence(trade.getId());
     }
 
     @Override
@@ -189,7 +189,7 @@ public class BuyerSendCounterCurrencyTransferStartedMessage extends SendMailboxM
             // We treat a ACK like BUYER_SAW_ARRIVED_FIAT_PAYMENT_INITIATED_MSG
             trade.setStateIfValidTransitionTo(Trade.State.BUYER_SAW_ARRIVED_FIAT_PAYMENT_INITIATED_MSG);
 
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade.getId());
 
             cleanup();
             super.complete();   // received AckMessage, complete this task
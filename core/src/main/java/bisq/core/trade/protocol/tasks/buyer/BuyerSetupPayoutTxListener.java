@@ -46,6 +46,6 @@ public class BuyerSetupPayoutTxListener extends SetupPayoutTxListener {
     protected void setState() {
         trade.setStateIfValidTransitionTo(Trade.State.BUYER_SAW_PAYOUT_TX_IN_NETWORK);
 
-        processModel.getTradeManager().requestPersistence();
+        processModel.getTradeManager().requestPersistence(trade.getId());
     }
 }
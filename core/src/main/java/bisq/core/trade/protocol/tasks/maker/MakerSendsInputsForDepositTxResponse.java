@@ -97,7 +97,7 @@ public abstract class MakerSendsInputsForDepositTxResponse extends TradeTask {
                     makersPaymentMethodId);
 
             trade.setState(Trade.State.MAKER_SENT_PUBLISH_DEPOSIT_TX_REQUEST);
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade.getId());
             NodeAddress peersNodeAddress = trade.getTradingPeerNodeAddress();
             log.info("Send {} to peer {}. tradeId={}, uid={}",
                     message.getClass().getSimpleName(), peersNodeAddress, message.getTradeId(), message.getUid());
@@ -111,7 +111,7 @@ public abstract class MakerSendsInputsForDepositTxResponse extends TradeTask {
                             log.info("{} arrived at peer {}. tradeId={}, uid={}",
                                     message.getClass().getSimpleName(), peersNodeAddress, message.getTradeId(), message.getUid());
                             trade.setState(Trade.State.MAKER_SAW_ARRIVED_PUBLISH_DEPOSIT_TX_REQUEST);
-                            processModel.getTradeManager().requestPersistence();
+                            processModel.getTradeManager().requestPersistence(trade.getId());
                             complete();
                         }
 
@@ -121,7 +121,7 @@ public abstract class MakerSendsInputsForDepositTxResponse extends TradeTask {
                                     message.getClass().getSimpleName(), peersNodeAddress, message.getTradeId(), message.getUid(), errorMessage);
                             trade.setState(Trade.State.MAKER_SEND_FAILED_PUBLISH_DEPOSIT_TX_REQUEST);
                             appendToErrorMessage("Sending message failed: message=" + message + "\nerrorMessage=" + errorMessage);
-                            processModel.getTradeManager().requestPersistence();
+                            processModel.getTradeManager().requestPersistence(trade.getId());
                             failed(errorMessage);
                         }
                     }
@@ -47,7 +47,7 @@ public class MakerSetsLockTime extends TradeTask {
             log.info("lockTime={}, delay={}", lockTime, delay);
             trade.setLockTime(lockTime);
 
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade.getId());
 
             complete();
         } catch (Throwable t) {
@@ -51,7 +51,7 @@ public class ProcessMediatedPayoutSignatureMessage extends TradeTask {
 
             trade.setMediationResultState(MediationResultState.RECEIVED_SIG_MSG);
 
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade.getId());
 
             complete();
         } catch (Throwable t) {
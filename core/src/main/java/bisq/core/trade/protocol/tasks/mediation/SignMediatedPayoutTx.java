@@ -99,7 +99,7 @@ public class SignMediatedPayoutTx extends TradeTask {
                     sellerMultiSigPubKey);
             processModel.setMediatedPayoutTxSignature(mediatedPayoutTxSignature);
 
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade.getId());
 
             complete();
         } catch (Throwable t) {
@@ -100,7 +100,7 @@ public class SellerSignAndFinalizePayoutTx extends TradeTask {
 
             trade.setPayoutTx(transaction);
 
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade.getId());
 
             walletService.resetCoinLockedInMultiSigAddressEntry(id);
 
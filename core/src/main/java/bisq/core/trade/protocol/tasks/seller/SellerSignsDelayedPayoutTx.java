@@ -70,7 +70,7 @@ public class SellerSignsDelayedPayoutTx extends TradeTask {
 
             processModel.setDelayedPayoutTxSignature(delayedPayoutTxSignature);
 
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade.getId());
 
             complete();
         } catch (Throwable t) {
@@ -48,7 +48,7 @@ public class SellerAsMakerFinalizesDepositTx extends TradeTask {
 
             processModel.setDepositTx(myDepositTx);
 
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade.getId());
 
             complete();
         } catch (Throwable t) {
@@ -27,6 +27,7 @@ import bisq.core.trade.Trade;
 import bisq.network.p2p.P2PService;
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreService;
+import bisq.network.p2p.storage.persistence.PersistableNetworkPayloadView;
 
 import bisq.common.config.Config;
 import bisq.common.file.JsonFileManager;
@@ -59,7 +60,7 @@ import javax.annotation.Nullable;
 public class TradeStatisticsManager {
     private final P2PService p2PService;
     private final PriceFeedService priceFeedService;
-    private final TradeStatistics3StorageService tradeStatistics3StorageService;
+    private final PersistableNetworkPayloadView<TradeStatistics3> tradeStatisticsView;
     private final TradeStatisticsConverter tradeStatisticsConverter;
     private final File storageDir;
     private final boolean dumpStatistics;
@@ -76,13 +77,13 @@ public class TradeStatisticsManager {
                                   @Named(Config.DUMP_STATISTICS) boolean dumpStatistics) {
         this.p2PService = p2PService;
         this.priceFeedService = priceFeedService;
-        this.tradeStatistics3StorageService = tradeStatistics3StorageService;
         this.tradeStatisticsConverter = tradeStatisticsConverter;
         this.storageDir = storageDir;
         this.dumpStatistics = dumpStatistics;
 
 
         appendOnlyDataStoreService.addService(tradeStatistics3StorageService);
+        tradeStatisticsView = new PersistableNetworkPayloadView<>(appendOnlyDataStoreService, TradeStatistics3.class);
     }
 
     public void shutDown() {
@@ -105,9 +106,7 @@ public class TradeStatisticsManager {
             }
         });
 
-        Set<TradeStatistics3> set = tradeStatistics3StorageService.getMapOfAllData().values().stream()
-                .filter(e -> e instanceof TradeStatistics3)
-                .map(e -> (TradeStatistics3) e)
+        Set<TradeStatistics3> set = tradeStatisticsView.stream()
                 .filter(TradeStatistics3::isValid)
                 .collect(Collectors.toSet());
         observableTradeStatisticsSet.addAll(set);
@@ -171,7 +170,6 @@ public class TradeStatisticsManager {
                                               @Nullable String referralId,
                                               boolean isTorNetworkNode) {
         long ts = System.currentTimeMillis();
-        Set<P2PDataStorage.ByteArray> hashes = tradeStatistics3StorageService.getMapOfAllData().keySet();
         trades.forEach(trade -> {
             if (trade instanceof BuyerTrade) {
                 log.debug("Trade: {} is a buyer trade, we only republish we have been seller.",
@@ -180,7 +178,7 @@ public class TradeStatisticsManager {
             }
 
             TradeStatistics3 tradeStatistics3 = TradeStatistics3.from(trade, referralId, isTorNetworkNode);
-            boolean hasTradeStatistics3 = hashes.contains(new P2PDataStorage.ByteArray(tradeStatistics3.getHash()));
+            boolean hasTradeStatistics3 = tradeStatisticsView.containsKey(new P2PDataStorage.ByteArray(tradeStatistics3.getHash()));
             if (hasTradeStatistics3) {
                 log.debug("Trade: {}. We have already a tradeStatistics matching the hash of tradeStatistics3.",
                         trade.getShortId());
@@ -191,7 +189,7 @@ public class TradeStatisticsManager {
             // TradeStatistics2 where we used the original hash, which is not the native hash of the
             // TradeStatistics3 but of TradeStatistics2.
             TradeStatistics2 tradeStatistics2 = TradeStatistics2.from(trade, referralId, isTorNetworkNode);
-            boolean hasTradeStatistics2 = hashes.contains(new P2PDataStorage.ByteArray(tradeStatistics2.getHash()));
+            boolean hasTradeStatistics2 = tradeStatisticsView.containsKey(new P2PDataStorage.ByteArray(tradeStatistics2.getHash()));
             if (hasTradeStatistics2) {
                 log.debug("Trade: {}. We have already a tradeStatistics matching the hash of tradeStatistics2. ",
                         trade.getShortId());
@@ -208,6 +206,6 @@ public class TradeStatisticsManager {
             p2PService.addPersistableNetworkPayload(tradeStatistics3, true);
         });
         log.info("maybeRepublishTradeStatistics took {} ms. Number of tradeStatistics: {}. Number of own trades: {}",
-                System.currentTimeMillis() - ts, hashes.size(), trades.size());
+                System.currentTimeMillis() - ts, observableTradeStatisticsSet.size(), trades.size());
     }
 }
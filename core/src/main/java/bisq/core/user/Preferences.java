@@ -162,6 +162,7 @@ public final class Preferences implements PersistedDataHost, BridgeAddressProvid
     private final ObservableList<CryptoCurrency> cryptoCurrenciesAsObservable = FXCollections.observableArrayList();
     private final ObservableList<TradeCurrency> tradeCurrenciesAsObservable = FXCollections.observableArrayList();
     private final ObservableMap<String, Boolean> dontShowAgainMapAsObservable = FXCollections.observableHashMap();
+    private final ObservableList<String> ignoreTradersListAsObservable = FXCollections.observableArrayList();
 
     private final PersistenceManager<PreferencesPayload> persistenceManager;
     private final Config config;
@@ -311,6 +312,7 @@ public final class Preferences implements PersistedDataHost, BridgeAddressProvid
         useAnimationsProperty.set(prefPayload.isUseAnimations());
         useStandbyModeProperty.set(prefPayload.isUseStandbyMode());
         cssThemeProperty.set(prefPayload.getCssTheme());
+        ignoreTradersListAsObservable.setAll(prefPayload.getIgnoreTradersList());
 
         // a list of previously-used federated explorers
         // if user preference references any deprecated explorers we need to select a new valid explorer
@@ -584,6 +586,7 @@ public final class Preferences implements PersistedDataHost, BridgeAddressProvid
 
     public void setIgnoreTradersList(List<String> ignoreTradersList) {
         prefPayload.setIgnoreTradersList(ignoreTradersList);
+        ignoreTradersListAsObservable.setAll(ignoreTradersList);
         requestPersistence();
     }
 
@@ -825,6 +828,10 @@ public final class Preferences implements PersistedDataHost, BridgeAddressProvid
         return dontShowAgainMapAsObservable;
     }
 
+    public ObservableList<String> getIgnoreTradersListAsObservable() {
+        return ignoreTradersListAsObservable;
+    }
+
     public BlockChainExplorer getBlockChainExplorer() {
         BaseCurrencyNetwork baseCurrencyNetwork = Config.baseCurrencyNetwork();
         switch (baseCurrencyNetwork) {
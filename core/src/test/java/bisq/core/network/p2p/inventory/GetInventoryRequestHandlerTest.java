@@ -0,0 +1,57 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.network.p2p.inventory;
+
+import bisq.common.app.Version;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class GetInventoryRequestHandlerTest {
+
+    @Test
+    public void testHistoricalStoreVersionOfStoreVersion() {
+        Version.HISTORICAL_RESOURCE_FILE_VERSION_TAGS.forEach(storeVersion ->
+                assertEquals(storeVersion, GetInventoryRequestHandler.getHistoricalStoreVersion(storeVersion)));
+    }
+
+    @Test
+    public void testHistoricalStoreVersionBetweenStoreVersions() {
+        List<String> tags = Version.HISTORICAL_RESOURCE_FILE_VERSION_TAGS;
+        String oldest = tags.get(0);
+        String patchAfterOldest = Version.getMajorVersion(oldest) + "." + Version.getMinorVersion(oldest) + "." +
+                (Version.getPatchVersion(oldest) + 1);
+        assertEquals(oldest, GetInventoryRequestHandler.getHistoricalStoreVersion(patchAfterOldest));
+
+        String newest = tags.get(tags.size() - 1);
+        assertEquals(newest, GetInventoryRequestHandler.getHistoricalStoreVersion("99.0.0"));
+    }
+
+    @Test
+    public void testHistoricalStoreVersionOfOldOrInvalidVersion() {
+        assertNull(GetInventoryRequestHandler.getHistoricalStoreVersion("1.0.0"));
+        assertNull(GetInventoryRequestHandler.getHistoricalStoreVersion(null));
+        assertNull(GetInventoryRequestHandler.getHistoricalStoreVersion(""));
+        assertNull(GetInventoryRequestHandler.getHistoricalStoreVersion("1.x.0"));
+        assertNull(GetInventoryRequestHandler.getHistoricalStoreVersion("1.6.5.1"));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.offer;
+
+import bisq.core.account.sign.SignedWitness;
+import bisq.core.account.witness.AccountAgeWitness;
+import bisq.core.account.witness.AccountAgeWitnessService;
+import bisq.core.filter.Filter;
+import bisq.core.filter.FilterManager;
+import bisq.core.payment.PaymentAccount;
+import bisq.core.trade.statistics.TradeStatistics3;
+import bisq.core.user.Preferences;
+import bisq.core.user.User;
+
+import bisq.network.p2p.P2PService;
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreListener;
+
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableSet;
+
+import java.util.HashSet;
+
+import org.mockito.ArgumentCaptor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OfferFilterTest {
+    private User user;
+    private ObjectProperty<Filter> filterProperty;
+    private ObservableSet<PaymentAccount> paymentAccounts;
+    private ObservableList<String> ignoreTradersList;
+    private AppendOnlyDataStoreListener appendOnlyDataStoreListener;
+    private OfferFilter offerFilter;
+    private Offer offer;
+
+    @Before
+    public void setUp() {
+        // Without payment accounts the result is evaluated with a single call to user.getPaymentAccounts(),
+        // so we can count the evaluations by the calls to it.
+        user = mock(User.class);
+        paymentAccounts = FXCollections.observableSet(new HashSet<>());
+        when(user.getPaymentAccountsAsObservable()).thenReturn(paymentAccounts);
+        when(user.getPaymentAccounts()).thenReturn(null);
+
+        Preferences preferences = mock(Preferences.class);
+        ignoreTradersList = FXCollections.observableArrayList();
+        when(preferences.getIgnoreTradersListAsObservable()).thenReturn(ignoreTradersList);
+
+        FilterManager filterManager = mock(FilterManager.class);
+        filterProperty = new SimpleObjectProperty<>();
+        when(filterManager.filterProperty()).thenReturn(filterProperty);
+
+        P2PService p2PService = mock(P2PService.class);
+        P2PDataStorage p2PDataStorage = mock(P2PDataStorage.class);
+        when(p2PService.getP2PDataStorage()).thenReturn(p2PDataStorage);
+
+        offerFilter = new OfferFilter(user,
+                preferences,
+                filterManager,
+                mock(AccountAgeWitnessService.class),
+                mock(OfferBookService.class),
+                p2PService);
+
+        ArgumentCaptor<AppendOnlyDataStoreListener> listenerCaptor = ArgumentCaptor.forClass(AppendOnlyDataStoreListener.class);
+        verify(p2PDataStorage).addAppendOnlyDataStoreListener(listenerCaptor.capture());
+        appendOnlyDataStoreListener = listenerCaptor.getValue();
+
+        offer = mock(Offer.class);
+        when(offer.getId()).thenReturn("offerId");
+    }
+
+    @Test
+    public void testCanTakeOfferUsesCachedResult() {
+        assertEquals(OfferFilter.Result.HAS_NO_PAYMENT_ACCOUNT_VALID_FOR_OFFER, offerFilter.canTakeOffer(offer, false));
+        assertEquals(OfferFilter.Result.HAS_NO_PAYMENT_ACCOUNT_VALID_FOR_OFFER, offerFilter.canTakeOffer(offer, false));
+
+        verify(user, times(1)).getPaymentAccounts();
+    }
+
+    @Test
+    public void testFilterChangeInvalidatesResult() {
+        offerFilter.canTakeOffer(offer, false);
+        filterProperty.set(mock(Filter.class));
+        offerFilter.canTakeOffer(offer, false);
+
+        verify(user, times(2)).getPaymentAccounts();
+    }
+
+    @Test
+    public void testAccountChangeInvalidatesResult() {
+        offerFilter.canTakeOffer(offer, false);
+        paymentAccounts.add(mock(PaymentAccount.class));
+        offerFilter.canTakeOffer(offer, false);
+
+        verify(user, times(2)).getPaymentAccounts();
+    }
+
+    @Test
+    public void testWitnessChangeInvalidatesResult() {
+        offerFilter.canTakeOffer(offer, false);
+        appendOnlyDataStoreListener.onAdded(mock(AccountAgeWitness.class));
+        offerFilter.canTakeOffer(offer, false);
+        appendOnlyDataStoreListener.onAdded(mock(SignedWitness.class));
+        offerFilter.canTakeOffer(offer, false);
+
+        verify(user, times(3)).getPaymentAccounts();
+    }
+
+    @Test
+    public void testOtherPayloadDoesNotInvalidateResult() {
+        offerFilter.canTakeOffer(offer, false);
+        appendOnlyDataStoreListener.onAdded(mock(TradeStatistics3.class));
+        offerFilter.canTakeOffer(offer, false);
+
+        verify(user, times(1)).getPaymentAccounts();
+    }
+
+    @Test
+    public void testIgnoreListChangeInvalidatesResult() {
+        offerFilter.canTakeOffer(offer, false);
+        ignoreTradersList.add("peer.onion:9999");
+        offerFilter.canTakeOffer(offer, false);
+        ignoreTradersList.clear();
+        offerFilter.canTakeOffer(offer, false);
+
+        verify(user, times(3)).getPaymentAccounts();
+    }
+}
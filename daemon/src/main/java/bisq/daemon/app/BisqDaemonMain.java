@@ -23,7 +23,10 @@ import bisq.core.app.CoreModule;
 
 import bisq.common.UserThread;
 import bisq.common.app.AppModule;
+import bisq.common.config.Config;
 import bisq.common.handlers.ResultHandler;
+import bisq.common.metrics.MetricsHttpServer;
+import bisq.common.metrics.MetricsRegistry;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
@@ -40,6 +43,7 @@ import bisq.daemon.grpc.GrpcServer;
 public class BisqDaemonMain extends BisqHeadlessAppMain implements BisqSetup.BisqSetupListener {
 
     private GrpcServer grpcServer;
+    private MetricsHttpServer metricsHttpServer;
 
     public static void main(String[] args) {
         new BisqDaemonMain().execute(args);
@@ -104,6 +108,11 @@ public class BisqDaemonMain extends BisqHeadlessAppMain implements BisqSetup.Bis
 
         grpcServer = injector.getInstance(GrpcServer.class);
         grpcServer.start();
+
+        if (config.metricsPort != Config.UNSPECIFIED_PORT) {
+            metricsHttpServer = new MetricsHttpServer(MetricsRegistry.getDefault(), config.metricsPort);
+            metricsHttpServer.start();
+        }
     }
 
     @Override
@@ -111,5 +120,8 @@ public class BisqDaemonMain extends BisqHeadlessAppMain implements BisqSetup.Bis
         super.gracefulShutDown(resultHandler);
 
         grpcServer.shutdown();
+        if (metricsHttpServer != null) {
+            metricsHttpServer.shutDown();
+        }
     }
 }
@@ -560,7 +560,7 @@ public class PendingTradesDataModel extends ActivatableDataModel {
 
             trade.setDisputeState(Trade.DisputeState.MEDIATION_REQUESTED);
             sendOpenDisputeMessage(disputeManager, resultHandler, dispute);
-            tradeManager.requestPersistence();
+            tradeManager.requestPersistence(trade.getId());
         } else if (useRefundAgent) {
             resultHandler = () -> navigation.navigateTo(MainView.class, SupportView.class, RefundClientView.class);
 
@@ -642,7 +642,7 @@ public class PendingTradesDataModel extends ActivatableDataModel {
         } else {
             log.warn("Invalid dispute state {}", disputeState.name());
         }
-        tradeManager.requestPersistence();
+        tradeManager.requestPersistence(trade.getId());
     }
 
     public boolean isReadyForTxBroadcast() {
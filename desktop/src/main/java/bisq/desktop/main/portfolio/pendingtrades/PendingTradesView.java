@@ -451,7 +451,7 @@ public class PendingTradesView extends ActivatableViewAndModel<VBox, PendingTrad
         }
 
         trade.getChatMessages().forEach(m -> m.setWasDisplayed(true));
-        model.dataModel.getTradeManager().requestPersistence();
+        model.dataModel.getTradeManager().requestPersistence(trade.getId());
         tradeIdOfOpenChat = trade.getId();
 
         ChatView chatView = new ChatView(traderChatManager, formatter, Res.get("offerbook.trader"));
@@ -510,7 +510,7 @@ public class PendingTradesView extends ActivatableViewAndModel<VBox, PendingTrad
             chatView.deactivate();
             // at close we set all as displayed. While open we ignore updates of the numNewMsg in the list icon.
             trade.getChatMessages().forEach(m -> m.setWasDisplayed(true));
-            model.dataModel.getTradeManager().requestPersistence();
+            model.dataModel.getTradeManager().requestPersistence(trade.getId());
             tradeIdOfOpenChat = null;
 
             if (xPositionListener != null) {
@@ -523,7 +523,7 @@ public class PendingTradesView extends ActivatableViewAndModel<VBox, PendingTrad
             trade.stateProperty().removeListener(tradeStateListener);
             trade.disputeStateProperty().addListener(disputeStateListener);
             trade.mediationResultStateProperty().addListener(mediationResultStateListener);
-            traderChatManager.requestPersistence();
+            traderChatManager.requestPersistence(trade.getId());
         });
 
         Scene scene = new Scene(pane);
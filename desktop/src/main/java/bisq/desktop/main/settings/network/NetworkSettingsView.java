@@ -78,8 +78,6 @@ import javafx.collections.transformation.SortedList;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
-import static javafx.beans.binding.Bindings.createStringBinding;
-
 @FxmlView
 public class NetworkSettingsView extends ActivatableView<GridPane, Void> {
 
@@ -133,6 +131,7 @@ public class NetworkSettingsView extends ActivatableView<GridPane, Void> {
     private Subscription bitcoinBlockHeightSubscription;
     private Subscription bitcoinBlocksDownloadedSubscription;
     private Subscription nodeAddressSubscription;
+    private ClockWatcher.Listener statisticClockWatcherListener;
     private ChangeListener<Boolean> btcNodesInputTextFieldFocusListener;
     private ToggleGroup bitcoinPeersToggleGroup;
     private BtcNodes.BitcoinNodesOption selectedBitcoinNodesOption;
@@ -310,17 +309,19 @@ public class NetworkSettingsView extends ActivatableView<GridPane, Void> {
                         nodeAddress.getFullAddress()));
         numP2PPeersSubscription = EasyBind.subscribe(p2PService.getNumConnectedPeers(), numPeers -> updateP2PTable());
 
-        sentDataTextField.textProperty().bind(createStringBinding(() -> Res.get("settings.net.sentData",
-                FormattingUtils.formatBytes(Statistic.totalSentBytesProperty().get()),
-                Statistic.numTotalSentMessagesProperty().get(),
-                Statistic.numTotalSentMessagesPerSecProperty().get()),
-                Statistic.numTotalSentMessagesPerSecProperty()));
+        // The network statistic is not observable, so we poll its values once per second
+        statisticClockWatcherListener = new ClockWatcher.Listener() {
+            @Override
+            public void onSecondTick() {
+                updateStatistic();
+            }
 
-        receivedDataTextField.textProperty().bind(createStringBinding(() -> Res.get("settings.net.receivedData",
-                FormattingUtils.formatBytes(Statistic.totalReceivedBytesProperty().get()),
-                Statistic.numTotalReceivedMessagesProperty().get(),
-                Statistic.numTotalReceivedMessagesPerSecProperty().get()),
-                Statistic.numTotalReceivedMessagesPerSecProperty()));
+            @Override
+            public void onMinuteTick() {
+            }
+        };
+        clockWatcher.addListener(statisticClockWatcherListener);
+        updateStatistic();
 
         bitcoinSortedList.comparatorProperty().bind(bitcoinPeersTableView.comparatorProperty());
         bitcoinPeersTableView.setItems(bitcoinSortedList);
@@ -357,8 +358,7 @@ public class NetworkSettingsView extends ActivatableView<GridPane, Void> {
         if (numP2PPeersSubscription != null)
             numP2PPeersSubscription.unsubscribe();
 
-        sentDataTextField.textProperty().unbind();
-        receivedDataTextField.textProperty().unbind();
+        clockWatcher.removeListener(statisticClockWatcherListener);
 
         bitcoinSortedList.comparatorProperty().unbind();
         p2pSortedList.comparatorProperty().unbind();
@@ -368,6 +368,17 @@ public class NetworkSettingsView extends ActivatableView<GridPane, Void> {
         openTorSettingsButton.setOnAction(null);
     }
 
+    private void updateStatistic() {
+        sentDataTextField.setText(Res.get("settings.net.sentData",
+                FormattingUtils.formatBytes(Statistic.getTotalSentBytes()),
+                Statistic.getNumTotalSentMessages(),
+                Statistic.getNumTotalSentMessagesPerSec()));
+        receivedDataTextField.setText(Res.get("settings.net.receivedData",
+                FormattingUtils.formatBytes(Statistic.getTotalReceivedBytes()),
+                Statistic.getNumTotalReceivedMessages(),
+                Statistic.getNumTotalReceivedMessagesPerSec()));
+    }
+
     private boolean isPreventPublicBtcNetwork() {
         return true;
         //TODO: re-enable it if we are able to check for core nodes that have the correct configuration
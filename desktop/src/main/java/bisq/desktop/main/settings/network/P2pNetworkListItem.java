@@ -46,7 +46,7 @@ public class P2pNetworkListItem {
 
     private final Statistic statistic;
     private final Connection connection;
-    private final Subscription sentBytesSubscription, receivedBytesSubscription, onionAddressSubscription, roundTripTimeSubscription;
+    private final Subscription onionAddressSubscription;
     private final ClockWatcher clockWatcher;
 
     private final StringProperty lastActivity = new SimpleStringProperty();
@@ -63,19 +63,15 @@ public class P2pNetworkListItem {
         this.clockWatcher = clockWatcher;
         this.statistic = connection.getStatistic();
 
-        sentBytesSubscription = EasyBind.subscribe(statistic.sentBytesProperty(),
-                e -> sentBytes.set(FormattingUtils.formatBytes((long) e)));
-        receivedBytesSubscription = EasyBind.subscribe(statistic.receivedBytesProperty(),
-                e -> receivedBytes.set(FormattingUtils.formatBytes((long) e)));
         onionAddressSubscription = EasyBind.subscribe(connection.getPeersNodeAddressProperty(),
                 nodeAddress -> onionAddress.set(nodeAddress != null ? nodeAddress.getFullAddress() : Res.get("settings.net.notKnownYet")));
-        roundTripTimeSubscription = EasyBind.subscribe(statistic.roundTripTimeProperty(),
-                roundTripTime -> this.roundTripTime.set((int) roundTripTime == 0 ? "-" : roundTripTime + " ms"));
 
+        // The statistic is not observable, so we poll its values once per second
         listener = new ClockWatcher.Listener() {
             @Override
             public void onSecondTick() {
                 onLastActivityChanged(statistic.getLastActivityTimestamp());
+                updateStatistic();
                 updatePeerType();
                 updateConnectionType();
             }
@@ -86,10 +82,18 @@ public class P2pNetworkListItem {
         };
         clockWatcher.addListener(listener);
         onLastActivityChanged(statistic.getLastActivityTimestamp());
+        updateStatistic();
         updatePeerType();
         updateConnectionType();
     }
 
+    private void updateStatistic() {
+        sentBytes.set(FormattingUtils.formatBytes(statistic.getSentBytes()));
+        receivedBytes.set(FormattingUtils.formatBytes(statistic.getReceivedBytes()));
+        int roundTripTime = statistic.getRoundTripTime();
+        this.roundTripTime.set(roundTripTime == 0 ? "-" : roundTripTime + " ms");
+    }
+
     private void onLastActivityChanged(long timeStamp) {
         // TODO
         // Got one case where System.currentTimeMillis() - timeStamp resulted in a negative value,
@@ -98,10 +102,7 @@ public class P2pNetworkListItem {
     }
 
     public void cleanup() {
-        sentBytesSubscription.unsubscribe();
-        receivedBytesSubscription.unsubscribe();
         onionAddressSubscription.unsubscribe();
-        roundTripTimeSubscription.unsubscribe();
         clockWatcher.removeListener(listener);
     }
 
@@ -539,7 +539,7 @@ public class ChatView extends AnchorPane {
     private void onRequestUpload() {
         if (!allowAttachments)
             return;
-        int totalSize = tempAttachments.stream().mapToInt(a -> a.getBytes().length).sum();
+        int totalSize = (int) tempAttachments.stream().mapToLong(Attachment::getSize).sum();
         if (tempAttachments.size() < 3) {
             FileChooser fileChooser = new FileChooser();
             int maxMsgSize = Connection.getPermittedMessageSize();
@@ -587,8 +587,10 @@ public class ChatView extends AnchorPane {
             fileChooser.setInitialDirectory(new File(System.getProperty("user.home")));*/
         File file = fileChooser.showSaveDialog(getScene().getWindow());
         if (file != null) {
-            try (FileOutputStream fileOutputStream = new FileOutputStream(file.getAbsolutePath())) {
-                fileOutputStream.write(attachment.getBytes());
+            // We stream the attachment from the attachment store to not load it into memory
+            try (InputStream inputStream = attachment.openInputStream();
+                 FileOutputStream fileOutputStream = new FileOutputStream(file.getAbsolutePath())) {
+                ByteStreams.copy(inputStream, fileOutputStream);
             } catch (IOException e) {
                 e.printStackTrace();
                 System.out.println(e.getMessage());
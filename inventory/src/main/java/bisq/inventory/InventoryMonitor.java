@@ -57,8 +57,15 @@ import org.jetbrains.annotations.Nullable;
 
 @Slf4j
 public class InventoryMonitor implements SetupListener {
+    // We keep only the recent request infos for deviation checks and the html page. With the default interval of 2
+    // minutes that covers 1 day. Older data is only available in downsampled form from the timeSeriesStore.
+    private static final int MAX_REQUEST_INFOS_PER_NODE = 720;
+
     private final Map<NodeAddress, JsonFileManager> jsonFileManagerByNodeAddress = new HashMap<>();
     private final Map<NodeAddress, List<RequestInfo>> requestInfoListByNode = new HashMap<>();
+    // Total number of requests per node, including the ones removed from requestInfoListByNode
+    private final Map<NodeAddress, Integer> numRequestsByNode = new HashMap<>();
+    private final InventoryTimeSeriesStore timeSeriesStore = new InventoryTimeSeriesStore();
     private final File appDir;
     private final boolean useLocalhostForP2P;
     private final int intervalSec;
@@ -101,7 +108,7 @@ public class InventoryMonitor implements SetupListener {
                     .ifPresent(bufferedReader -> {
                         seedNodes = new ArrayList<>(DefaultSeedNodeRepository.getSeedNodeAddressesFromPropertyFile(fileName));
                         addJsonFileManagers(seedNodes);
-                        inventoryWebServer = new InventoryWebServer(port, seedNodes, bufferedReader);
+                        inventoryWebServer = new InventoryWebServer(port, seedNodes, bufferedReader, timeSeriesStore);
                         networkNode.start(this);
                     });
         }, log::error);
@@ -238,8 +245,13 @@ public class InventoryMonitor implements SetupListener {
         });
 
         requestInfoList.add(requestInfo);
+        if (requestInfoList.size() > MAX_REQUEST_INFOS_PER_NODE) {
+            requestInfoList.remove(0);
+        }
+        numRequestsByNode.merge(nodeAddress, 1, Integer::sum);
+        timeSeriesStore.add(nodeAddress.getFullAddress(), requestInfo);
 
-        inventoryWebServer.onNewRequestInfo(requestInfoListByNode, requestCounter);
+        inventoryWebServer.onNewRequestInfo(requestInfoListByNode, numRequestsByNode, requestCounter);
 
         String json = Utilities.objectToJson(requestInfo);
         jsonFileManagerByNodeAddress.get(nodeAddress).writeToDisc(json, String.valueOf(requestInfo.getRequestStartTime()));
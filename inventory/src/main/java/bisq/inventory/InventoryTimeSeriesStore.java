@@ -0,0 +1,76 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.inventory;
+
+import bisq.core.network.p2p.inventory.model.InventoryItem;
+import bisq.core.network.p2p.inventory.model.RequestInfo;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps a {@link TimeSeries} for each seed node and numeric {@link InventoryItem}.
+ * Written from the user thread when a response arrives, read from the web server
+ * threads.
+ */
+@Slf4j
+class InventoryTimeSeriesStore {
+    // With the default request interval of 2 minutes we keep the raw data of 1 day
+    private static final int RAW_CAPACITY = 720;
+    private static final long BUCKET_DURATION_MS = TimeUnit.HOURS.toMillis(1);
+    // Downsampled data of 30 days
+    private static final int BUCKET_CAPACITY = 30 * 24;
+
+    private final Map<String, Map<InventoryItem, TimeSeries>> timeSeriesByNodeAddress = new ConcurrentHashMap<>();
+
+    void add(String nodeAddress, RequestInfo requestInfo) {
+        Map<InventoryItem, TimeSeries> timeSeriesByItem = timeSeriesByNodeAddress.computeIfAbsent(nodeAddress,
+                key -> new ConcurrentHashMap<>());
+        long timestamp = requestInfo.getRequestStartTime();
+        Arrays.stream(InventoryItem.values())
+                .filter(InventoryItem::isNumberValue)
+                .forEach(inventoryItem -> {
+                    String value = requestInfo.getValue(inventoryItem);
+                    if (value == null) {
+                        return;
+                    }
+                    try {
+                        double numericValue = Double.parseDouble(value);
+                        timeSeriesByItem.computeIfAbsent(inventoryItem,
+                                key -> new TimeSeries(RAW_CAPACITY, BUCKET_DURATION_MS, BUCKET_CAPACITY))
+                                .add(timestamp, numericValue);
+                    } catch (NumberFormatException e) {
+                        log.warn("Value {} of {} is not a number", value, inventoryItem);
+                    }
+                });
+    }
+
+    List<TimeSeries.Point> query(String nodeAddress, InventoryItem inventoryItem, long from, long to) {
+        Map<InventoryItem, TimeSeries> timeSeriesByItem = timeSeriesByNodeAddress.get(nodeAddress);
+        if (timeSeriesByItem == null || !timeSeriesByItem.containsKey(inventoryItem)) {
+            return Collections.emptyList();
+        }
+        return timeSeriesByItem.get(inventoryItem).query(from, to);
+    }
+}
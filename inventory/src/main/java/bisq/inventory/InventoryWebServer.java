@@ -26,15 +26,20 @@ import bisq.core.util.FormattingUtils;
 
 import bisq.network.p2p.NodeAddress;
 
+import bisq.common.Timer;
+import bisq.common.UserThread;
 import bisq.common.app.Version;
 import bisq.common.util.MathUtils;
 import bisq.common.util.Utilities;
 
+import com.google.common.base.Enums;
 import com.google.common.base.Joiner;
+import com.google.common.base.Optional;
 
 import java.io.BufferedReader;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -55,12 +60,19 @@ public class InventoryWebServer {
     private final static String CLOSE_TAG = "</font><br/>";
     private final static String WARNING_ICON = "&#9888; ";
     private final static String ALERT_ICON = "&#9760; "; // &#9889;  &#9889;
+    // Max. delay for rendering the html after the first response of a request cycle, if not all seeds have responded.
+    private final static long MAX_RENDER_DELAY_SEC = 30;
 
     private final List<NodeAddress> seedNodes;
     private final Map<String, String> operatorByNodeAddress = new HashMap<>();
+    private final InventoryTimeSeriesStore timeSeriesStore;
 
-    private String html;
+    private volatile String html;
     private int requestCounter;
+    private Map<NodeAddress, Integer> numRequestsByNode = Collections.emptyMap();
+    private int numResponsesInRequestCycle;
+    @Nullable
+    private Timer renderTimer;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -69,8 +81,10 @@ public class InventoryWebServer {
 
     public InventoryWebServer(int port,
                               List<NodeAddress> seedNodes,
-                              BufferedReader seedNodeFile) {
+                              BufferedReader seedNodeFile,
+                              InventoryTimeSeriesStore timeSeriesStore) {
         this.seedNodes = seedNodes;
+        this.timeSeriesStore = timeSeriesStore;
         setupOperatorMap(seedNodeFile);
 
         Spark.port(port);
@@ -78,6 +92,30 @@ public class InventoryWebServer {
             log.info("Incoming request from: {}", req.userAgent());
             return html == null ? "Starting up..." : html;
         });
+
+        // Returns the time series of a numeric inventory item of a seed node as json. Older data is downsampled.
+        // E.g.: /api/v1/timeseries?node=abc.onion:8000&item=OfferPayload&from=1617000000000&to=1617100000000
+        // 'from' and 'to' are optional and in ms since epoch.
+        Spark.get("/api/v1/timeseries", (req, res) -> {
+            String node = req.queryParams("node");
+            Optional<InventoryItem> inventoryItem = Enums.getIfPresent(InventoryItem.class,
+                    String.valueOf(req.queryParams("item")));
+            if (node == null || !inventoryItem.isPresent() || !inventoryItem.get().isNumberValue()) {
+                res.status(400);
+                return "Parameter 'node' and a numeric inventory item as parameter 'item' are required";
+            }
+            long from;
+            long to;
+            try {
+                from = req.queryParams("from") != null ? Long.parseLong(req.queryParams("from")) : 0;
+                to = req.queryParams("to") != null ? Long.parseLong(req.queryParams("to")) : Long.MAX_VALUE;
+            } catch (NumberFormatException e) {
+                res.status(400);
+                return "Parameters 'from' and 'to' must be timestamps in ms";
+            }
+            res.type("application/json");
+            return Utilities.objectToJson(timeSeriesStore.query(node, inventoryItem.get(), from, to));
+        });
     }
 
 
@@ -85,15 +123,40 @@ public class InventoryWebServer {
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public void onNewRequestInfo(Map<NodeAddress, List<RequestInfo>> requestInfoListByNode, int requestCounter) {
-        this.requestCounter = requestCounter;
-        html = generateHtml(requestInfoListByNode);
+    // We render the html only once per request cycle, when all seeds have responded or after MAX_RENDER_DELAY_SEC.
+    public void onNewRequestInfo(Map<NodeAddress, List<RequestInfo>> requestInfoListByNode,
+                                 Map<NodeAddress, Integer> numRequestsByNode,
+                                 int requestCounter) {
+        this.numRequestsByNode = numRequestsByNode;
+        if (requestCounter != this.requestCounter) {
+            this.requestCounter = requestCounter;
+            numResponsesInRequestCycle = 0;
+            if (renderTimer == null) {
+                renderTimer = UserThread.runAfter(() -> render(requestInfoListByNode), MAX_RENDER_DELAY_SEC);
+            }
+        }
+        numResponsesInRequestCycle++;
+
+        if (html == null || numResponsesInRequestCycle >= seedNodes.size()) {
+            render(requestInfoListByNode);
+        }
     }
 
     public void shutDown() {
+        if (renderTimer != null) {
+            renderTimer.stop();
+        }
         Spark.stop();
     }
 
+    private void render(Map<NodeAddress, List<RequestInfo>> requestInfoListByNode) {
+        if (renderTimer != null) {
+            renderTimer.stop();
+            renderTimer = null;
+        }
+        html = generateHtml(requestInfoListByNode);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // HTML
@@ -127,8 +190,8 @@ public class InventoryWebServer {
             html.append("<tr valign=\"top\">");
             if (map.containsKey(seedNode) && !map.get(seedNode).isEmpty()) {
                 List<RequestInfo> list = map.get(seedNode);
-                int numRequests = list.size();
-                RequestInfo requestInfo = list.get(numRequests - 1);
+                int numRequests = getNumRequests(seedNode, list);
+                RequestInfo requestInfo = list.get(list.size() - 1);
                 html.append("<td>").append(getSeedNodeInfo(seedNode, requestInfo)).append("</td>")
                         .append("<td>").append(getRequestInfo(seedNode, requestInfo, numRequests, map)).append("</td>")
                         .append("<td>").append(getDataInfo(seedNode, requestInfo, map)).append("</td>")
@@ -372,6 +435,7 @@ public class InventoryWebServer {
         List<String> warningsAtRequestNumber = new ArrayList<>();
         List<String> alertsAtRequestNumber = new ArrayList<>();
         if (requestInfoList != null) {
+            int firstRequestNumber = getNumRequests(seedNode, requestInfoList) - requestInfoList.size() + 1;
             for (int i = 0; i < requestInfoList.size(); i++) {
                 RequestInfo reqInfo = requestInfoList.get(i);
                 Map<InventoryItem, RequestInfo.Data> deviationInfoMap = reqInfo.getDataMap();
@@ -379,9 +443,9 @@ public class InventoryWebServer {
                     RequestInfo.Data data = deviationInfoMap.get(inventoryItem);
                     String deviationAsPercent = getDeviationAsPercentString(inventoryItem, data);
                     if (data.isPersistentWarning()) {
-                        warningsAtRequestNumber.add((i + 1) + deviationAsPercent);
+                        warningsAtRequestNumber.add((firstRequestNumber + i) + deviationAsPercent);
                     } else if (data.isPersistentAlert()) {
-                        alertsAtRequestNumber.add((i + 1) + deviationAsPercent);
+                        alertsAtRequestNumber.add((firstRequestNumber + i) + deviationAsPercent);
                     }
                 }
             }
@@ -452,6 +516,11 @@ public class InventoryWebServer {
         }
     }
 
+    // The list of request infos contains only the recent ones, so we use the total number of requests for numbering
+    private int getNumRequests(NodeAddress seedNode, List<RequestInfo> requestInfoList) {
+        return numRequestsByNode.getOrDefault(seedNode, requestInfoList.size());
+    }
+
     private String getTitle(InventoryItem inventoryItem) {
         return "Number of " + inventoryItem.getKey() + ": ";
     }
@@ -487,6 +556,7 @@ public class InventoryWebServer {
         List<String> errorsAtRequestNumber = new ArrayList<>();
         String historicalErrorsHtml = "";
         if (requestInfoList != null) {
+            int firstRequestNumber = getNumRequests(seedNode, requestInfoList) - requestInfoList.size() + 1;
             for (int i = 0; i < requestInfoList.size(); i++) {
                 RequestInfo requestInfo1 = requestInfoList.get(i);
 
@@ -497,7 +567,7 @@ public class InventoryWebServer {
                 }
 
                 if (requestInfo1.hasError()) {
-                    errorsAtRequestNumber.add((i + 1) + " (" + requestInfo1.getErrorMessage() + ")");
+                    errorsAtRequestNumber.add((firstRequestNumber + i) + " (" + requestInfo1.getErrorMessage() + ")");
                 }
             }
 
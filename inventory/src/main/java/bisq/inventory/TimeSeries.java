@@ -0,0 +1,132 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Value;
+
+/**
+ * Bounded time series of numeric values. The most recent values are kept in full
+ * resolution in a ring buffer. Values dropping out of it are downsampled into buckets
+ * of a fixed duration (average, min and max), which are kept in a second ring buffer.
+ * So memory usage is fixed, independent of how long the monitor is running.
+ */
+class TimeSeries {
+    private final long bucketDurationMs;
+
+    // Ring buffer of the raw values
+    private final long[] timestamps;
+    private final double[] values;
+    private int head;
+    private int size;
+
+    // Ring buffer of the downsampled values
+    private final long[] bucketStartTimes;
+    private final double[] bucketSums;
+    private final double[] bucketMins;
+    private final double[] bucketMaxs;
+    private final int[] bucketCounts;
+    private int bucketHead;
+    private int numBuckets;
+
+    TimeSeries(int rawCapacity, long bucketDurationMs, int bucketCapacity) {
+        this.bucketDurationMs = bucketDurationMs;
+        timestamps = new long[rawCapacity];
+        values = new double[rawCapacity];
+        bucketStartTimes = new long[bucketCapacity];
+        bucketSums = new double[bucketCapacity];
+        bucketMins = new double[bucketCapacity];
+        bucketMaxs = new double[bucketCapacity];
+        bucketCounts = new int[bucketCapacity];
+    }
+
+    synchronized void add(long timestamp, double value) {
+        if (size == timestamps.length) {
+            // The oldest raw value gets downsampled
+            addToBucket(timestamps[head], values[head]);
+            head = (head + 1) % timestamps.length;
+            size--;
+        }
+        int index = (head + size) % timestamps.length;
+        timestamps[index] = timestamp;
+        values[index] = value;
+        size++;
+    }
+
+    /**
+     * @return the downsampled and raw values with a timestamp in the given range, in
+     * ascending order of time. For downsampled values the timestamp is the start of the
+     * bucket.
+     */
+    synchronized List<Point> query(long from, long to) {
+        List<Point> result = new ArrayList<>();
+        for (int i = 0; i < numBuckets; i++) {
+            int index = (bucketHead + i) % bucketStartTimes.length;
+            long timestamp = bucketStartTimes[index];
+            if (timestamp >= from && timestamp <= to) {
+                int count = bucketCounts[index];
+                result.add(new Point(timestamp, bucketSums[index] / count, bucketMins[index], bucketMaxs[index], count));
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            int index = (head + i) % timestamps.length;
+            long timestamp = timestamps[index];
+            if (timestamp >= from && timestamp <= to) {
+                double value = values[index];
+                result.add(new Point(timestamp, value, value, value, 1));
+            }
+        }
+        return result;
+    }
+
+    private void addToBucket(long timestamp, double value) {
+        long bucketStartTime = timestamp - timestamp % bucketDurationMs;
+        int lastIndex = (bucketHead + numBuckets - 1) % bucketStartTimes.length;
+        if (numBuckets > 0 && bucketStartTimes[lastIndex] == bucketStartTime) {
+            bucketSums[lastIndex] += value;
+            bucketMins[lastIndex] = Math.min(bucketMins[lastIndex], value);
+            bucketMaxs[lastIndex] = Math.max(bucketMaxs[lastIndex], value);
+            bucketCounts[lastIndex]++;
+            return;
+        }
+
+        if (numBuckets == bucketStartTimes.length) {
+            // We drop the oldest bucket
+            bucketHead = (bucketHead + 1) % bucketStartTimes.length;
+            numBuckets--;
+        }
+        int index = (bucketHead + numBuckets) % bucketStartTimes.length;
+        bucketStartTimes[index] = bucketStartTime;
+        bucketSums[index] = value;
+        bucketMins[index] = value;
+        bucketMaxs[index] = value;
+        bucketCounts[index] = 1;
+        numBuckets++;
+    }
+
+    @Value
+    static class Point {
+        long timestamp;
+        double average;
+        double min;
+        double max;
+        int count;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.inventory;
+
+import bisq.core.network.p2p.inventory.model.DeviationSeverity;
+import bisq.core.network.p2p.inventory.model.InventoryItem;
+import bisq.core.network.p2p.inventory.model.RequestInfo;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class InventoryTimeSeriesStoreTest {
+    private static final String NODE_ADDRESS = "seednode.onion:8000";
+
+    @Test
+    public void testRoundTrip() {
+        InventoryTimeSeriesStore store = new InventoryTimeSeriesStore();
+        store.add(NODE_ADDRESS, getRequestInfo(1000, "10"));
+        store.add(NODE_ADDRESS, getRequestInfo(2000, "12"));
+
+        List<TimeSeries.Point> points = store.query(NODE_ADDRESS, InventoryItem.numConnections, 0, Long.MAX_VALUE);
+        assertEquals(2, points.size());
+        assertEquals(1000, points.get(0).getTimestamp());
+        assertEquals(10, points.get(0).getAverage(), 0);
+        assertEquals(2000, points.get(1).getTimestamp());
+        assertEquals(12, points.get(1).getAverage(), 0);
+
+        assertEquals(1, store.query(NODE_ADDRESS, InventoryItem.numConnections, 1500, 2500).size());
+    }
+
+    @Test
+    public void testOnlyNumericValuesAreStored() {
+        InventoryTimeSeriesStore store = new InventoryTimeSeriesStore();
+        RequestInfo requestInfo = getRequestInfo(1000, "10");
+        putValue(requestInfo, InventoryItem.version, "1.6.5");
+        putValue(requestInfo, InventoryItem.usedMemory, "not a number");
+        store.add(NODE_ADDRESS, requestInfo);
+
+        assertTrue(store.query(NODE_ADDRESS, InventoryItem.version, 0, Long.MAX_VALUE).isEmpty());
+        assertTrue(store.query(NODE_ADDRESS, InventoryItem.usedMemory, 0, Long.MAX_VALUE).isEmpty());
+        assertEquals(1, store.query(NODE_ADDRESS, InventoryItem.numConnections, 0, Long.MAX_VALUE).size());
+    }
+
+    @Test
+    public void testUnknownNodeAddress() {
+        InventoryTimeSeriesStore store = new InventoryTimeSeriesStore();
+        store.add(NODE_ADDRESS, getRequestInfo(1000, "10"));
+
+        assertTrue(store.query("unknown.onion:8000", InventoryItem.numConnections, 0, Long.MAX_VALUE).isEmpty());
+    }
+
+    private static RequestInfo getRequestInfo(long requestStartTime, String numConnections) {
+        RequestInfo requestInfo = new RequestInfo(requestStartTime);
+        putValue(requestInfo, InventoryItem.numConnections, numConnections);
+        return requestInfo;
+    }
+
+    private static void putValue(RequestInfo requestInfo, InventoryItem inventoryItem, String value) {
+        requestInfo.getDataMap().put(inventoryItem,
+                new RequestInfo.Data(value, null, 0d, DeviationSeverity.OK, false, false));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.inventory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimeSeriesTest {
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testRawValues() {
+        TimeSeries timeSeries = new TimeSeries(3, HOUR, 2);
+        timeSeries.add(MINUTE, 1);
+        timeSeries.add(2 * MINUTE, 2);
+
+        List<TimeSeries.Point> points = timeSeries.query(0, Long.MAX_VALUE);
+        assertEquals(2, points.size());
+        assertPoint(points.get(0), MINUTE, 1, 1, 1, 1);
+        assertPoint(points.get(1), 2 * MINUTE, 2, 2, 2, 1);
+    }
+
+    @Test
+    public void testHourlyBucketRollover() {
+        // Each added value pushes the previous one into the buckets
+        TimeSeries timeSeries = new TimeSeries(1, HOUR, 10);
+        timeSeries.add(0, 1);
+        timeSeries.add(10 * MINUTE, 3);
+        timeSeries.add(59 * MINUTE, 5);
+        timeSeries.add(61 * MINUTE, 7);
+        timeSeries.add(2 * HOUR + 5 * MINUTE, 9);
+
+        List<TimeSeries.Point> points = timeSeries.query(0, Long.MAX_VALUE);
+        assertEquals(3, points.size());
+        // First hour got the values 1, 3 and 5
+        assertPoint(points.get(0), 0, 3, 1, 5, 3);
+        // The value at 61 min. started a new bucket
+        assertPoint(points.get(1), HOUR, 7, 7, 7, 1);
+        // The latest value is still raw
+        assertPoint(points.get(2), 2 * HOUR + 5 * MINUTE, 9, 9, 9, 1);
+    }
+
+    @Test
+    public void testWrapAroundAfter30Days() {
+        // Same dimensions as the InventoryTimeSeriesStore uses for the downsampled data
+        int bucketCapacity = 30 * 24;
+        TimeSeries timeSeries = new TimeSeries(1, HOUR, bucketCapacity);
+        int numValues = bucketCapacity + 6;
+        for (int i = 0; i < numValues; i++) {
+            timeSeries.add(i * HOUR, i);
+        }
+
+        List<TimeSeries.Point> points = timeSeries.query(0, Long.MAX_VALUE);
+        // All buckets are in use and the latest value is still raw
+        assertEquals(bucketCapacity + 1, points.size());
+        // The 5 oldest buckets got dropped
+        assertPoint(points.get(0), 5 * HOUR, 5, 5, 5, 1);
+        assertPoint(points.get(bucketCapacity - 1), (numValues - 2) * HOUR, numValues - 2, numValues - 2, numValues - 2, 1);
+        assertPoint(points.get(bucketCapacity), (numValues - 1) * HOUR, numValues - 1, numValues - 1, numValues - 1, 1);
+        for (int i = 1; i < points.size(); i++) {
+            assertTrue(points.get(i - 1).getTimestamp() < points.get(i).getTimestamp());
+        }
+    }
+
+    @Test
+    public void testQueryRange() {
+        TimeSeries timeSeries = new TimeSeries(2, HOUR, 10);
+        for (int i = 0; i < 5; i++) {
+            timeSeries.add(i * HOUR, i);
+        }
+
+        List<TimeSeries.Point> points = timeSeries.query(HOUR, 3 * HOUR);
+        assertEquals(3, points.size());
+        assertEquals(HOUR, points.get(0).getTimestamp());
+        assertEquals(2 * HOUR, points.get(1).getTimestamp());
+        assertEquals(3 * HOUR, points.get(2).getTimestamp());
+    }
+
+    private static void assertPoint(TimeSeries.Point point,
+                                    long timestamp,
+                                    double average,
+                                    double min,
+                                    double max,
+                                    int count) {
+        assertEquals(timestamp, point.getTimestamp());
+        assertEquals(average, point.getAverage(), DELTA);
+        assertEquals(min, point.getMin(), DELTA);
+        assertEquals(max, point.getMax(), DELTA);
+        assertEquals(count, point.getCount());
+    }
+}
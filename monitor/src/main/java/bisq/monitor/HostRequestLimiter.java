@@ -0,0 +1,133 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.monitor;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs asynchronous requests to remote hosts without blocking a thread per request.
+ * At most {@link #MAX_CONCURRENT_REQUESTS_PER_HOST} requests per host are in flight,
+ * further requests are queued. Each request gets cancelled if it did not complete
+ * within its deadline, counted from submission so the time waiting for a slot is
+ * included. A slow Tor circuit therefore only delays the requests to its own host and
+ * a caller never waits longer than the deadline.
+ * <p>
+ * Shared by all {@link Metric}s, so metrics running at the same time don't flood the
+ * same host with requests.
+ */
+public class HostRequestLimiter {
+
+    private static final int MAX_CONCURRENT_REQUESTS_PER_HOST = 2;
+    private static final HostRequestLimiter INSTANCE = new HostRequestLimiter();
+
+    public static HostRequestLimiter getInstance() {
+        return INSTANCE;
+    }
+
+    private final ScheduledExecutorService timeoutExecutor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("HostRequestLimiter timeouts")
+                    .setDaemon(true)
+                    .build());
+    private final Map<String, HostState> stateByHost = new HashMap<>();
+
+    private static class HostState {
+        private int numRunning;
+        private final Queue<Runnable> pending = new ArrayDeque<>();
+    }
+
+    private HostRequestLimiter() {
+    }
+
+    /**
+     * @param host         the host the request goes to
+     * @param request      starts the request, called as soon as the host has a free slot
+     * @param deadlineSec  max. duration of the request after submission, including the
+     *                     time waiting for a free slot
+     * @return future completing with the result of the request, or failing with a
+     * {@link java.util.concurrent.TimeoutException} if the deadline has passed. The
+     * request gets cancelled then, or does not get started if it is still queued.
+     */
+    public <T> ListenableFuture<T> submit(String host,
+                                          Supplier<ListenableFuture<T>> request,
+                                          long deadlineSec) {
+        SettableFuture<T> result = SettableFuture.create();
+        Runnable start = () -> {
+            if (result.isDone()) {
+                // Cancelled while waiting for a slot
+                release(host);
+                return;
+            }
+            ListenableFuture<T> future;
+            try {
+                future = request.get();
+            } catch (Throwable t) {
+                future = Futures.immediateFailedFuture(t);
+            }
+            // Cancelling the result at the deadline cancels the request as well
+            result.setFuture(future);
+            future.addListener(() -> release(host), MoreExecutors.directExecutor());
+        };
+
+        boolean startNow;
+        synchronized (stateByHost) {
+            HostState state = stateByHost.computeIfAbsent(host, k -> new HostState());
+            startNow = state.numRunning < MAX_CONCURRENT_REQUESTS_PER_HOST;
+            if (startNow) {
+                state.numRunning++;
+            } else {
+                state.pending.add(start);
+            }
+        }
+        if (startNow) {
+            start.run();
+        }
+        return Futures.withTimeout(result, deadlineSec, TimeUnit.SECONDS, timeoutExecutor);
+    }
+
+    private void release(String host) {
+        Runnable next;
+        synchronized (stateByHost) {
+            HostState state = stateByHost.get(host);
+            next = state.pending.poll();
+            if (next == null) {
+                state.numRunning--;
+                if (state.numRunning == 0) {
+                    stateByHost.remove(host);
+                }
+            }
+        }
+        // The slot gets handed over to the next request
+        if (next != null) {
+            next.run();
+        }
+    }
+}
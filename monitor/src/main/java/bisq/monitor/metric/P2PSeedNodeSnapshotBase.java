@@ -18,11 +18,11 @@
 package bisq.monitor.metric;
 
 import bisq.monitor.AvailableTor;
+import bisq.monitor.HostRequestLimiter;
 import bisq.monitor.Metric;
 import bisq.monitor.Monitor;
 import bisq.monitor.OnionParser;
 import bisq.monitor.Reporter;
-import bisq.monitor.ThreadGate;
 
 import bisq.core.account.witness.AccountAgeWitnessStore;
 import bisq.core.proto.network.CoreNetworkProtoResolver;
@@ -35,6 +35,10 @@ import bisq.network.p2p.network.Connection;
 import bisq.network.p2p.network.MessageListener;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.network.TorNetworkNode;
+import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
+import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.peers.keepalive.messages.Ping;
+import bisq.network.p2p.peers.keepalive.messages.Pong;
 
 import bisq.common.app.Version;
 import bisq.common.config.BaseCurrencyNetwork;
@@ -43,6 +47,7 @@ import bisq.common.proto.network.NetworkEnvelope;
 
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 
@@ -59,11 +64,15 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Contacts a list of hosts and asks them for all the data excluding persisted messages. The
@@ -75,13 +84,14 @@ import org.jetbrains.annotations.NotNull;
  *
  */
 @Slf4j
-public abstract class P2PSeedNodeSnapshotBase extends Metric implements MessageListener {
+public abstract class P2PSeedNodeSnapshotBase extends Metric {
 
     private static final String HOSTS = "run.hosts";
     private static final String TOR_PROXY_PORT = "run.torProxyPort";
     private static final String DATABASE_DIR = "run.dbDir";
+    private static final String TIMEOUT = "run.timeout";
+    private static NetworkNode sharedNetworkNode;
     final Map<NodeAddress, Statistics<?>> bucketsPerHost = new ConcurrentHashMap<>();
-    private final ThreadGate gate = new ThreadGate();
     protected final Set<byte[]> hashes = new TreeSet<>(Arrays::compare);
 
     /**
@@ -152,12 +162,7 @@ public abstract class P2PSeedNodeSnapshotBase extends Metric implements MessageL
 
     @Override
     protected void execute() {
-        // start the network node
-        final NetworkNode networkNode = new TorNetworkNode(Integer.parseInt(configuration.getProperty(TOR_PROXY_PORT, "9054")),
-                new CoreNetworkProtoResolver(Clock.systemDefaultZone()), false,
-                new AvailableTor(Monitor.TOR_WORKING_DIR, "unused"), null);
-        // we do not need to start the networkNode, as we do not need the HS
-        //networkNode.start(this);
+        NetworkNode networkNode = getNetworkNode(Integer.parseInt(configuration.getProperty(TOR_PROXY_PORT, "9054")));
 
         // clear our buckets
         bucketsPerHost.clear();
@@ -167,53 +172,84 @@ public abstract class P2PSeedNodeSnapshotBase extends Metric implements MessageL
         report();
     }
 
+    /**
+     * All snapshot metrics share one network node. We do not need to start it, as we
+     * only use outbound connections and no hidden service.
+     */
+    private static synchronized NetworkNode getNetworkNode(int port) {
+        if (sharedNetworkNode == null) {
+            sharedNetworkNode = new TorNetworkNode(port,
+                    new CoreNetworkProtoResolver(Clock.systemDefaultZone()), false,
+                    new AvailableTor(Monitor.TOR_WORKING_DIR, "unused"), null);
+        }
+        return sharedNetworkNode;
+    }
+
     protected abstract List<NetworkEnvelope> getRequests();
 
     protected void send(NetworkNode networkNode, NetworkEnvelope message) {
+        long deadlineSec = Long.parseLong(configuration.getProperty(TIMEOUT, "60"));
+        List<ListenableFuture<Void>> responses = new ArrayList<>();
 
-        ArrayList<Thread> threadList = new ArrayList<>();
-
-        // for each configured host
+        // We send to all hosts at once and wait until they all answered or their deadline
+        // has passed. We do that so we can minimize the time between querying the hosts
+        // and therefore the chance of inconsistencies. The deadline starts at submission,
+        // so all responses are done after deadlineSec.
         for (String current : configuration.getProperty(HOSTS, "").split(",")) {
-            threadList.add(new Thread(() -> {
-
-                try {
-                    // parse Url
-                    NodeAddress target = OnionParser.getNodeAddress(current);
-
-                    // do the data request
-                    aboutToSend(message);
-                    SettableFuture<Connection> future = networkNode.sendMessage(target, message);
-
-                    Futures.addCallback(future, new FutureCallback<>() {
-                        @Override
-                        public void onSuccess(Connection connection) {
-                            connection.addMessageListener(P2PSeedNodeSnapshotBase.this);
-                        }
-
-                        @Override
-                        public void onFailure(@NotNull Throwable throwable) {
-                            gate.proceed();
-                            log.error(
-                                    "Sending {} failed. That is expected if the peer is offline.\n\tException={}", message.getClass().getSimpleName(), throwable.getMessage());
-                        }
-                    }, MoreExecutors.directExecutor());
-
-                } catch (Exception e) {
-                    gate.proceed(); // release the gate on error
-                    e.printStackTrace();
-                }
-            }, current));
+            responses.add(HostRequestLimiter.getInstance().submit(current.trim(),
+                    () -> request(networkNode, current, message),
+                    deadlineSec));
+        }
+
+        try {
+            // Just a safeguard, the deadlines of the requests have passed earlier
+            Futures.successfulAsList(responses).get(deadlineSec + 5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.error("Waiting for responses failed", e);
         }
+    }
 
-        gate.engage(threadList.size());
+    private ListenableFuture<Void> request(NetworkNode networkNode, String host, NetworkEnvelope message) {
+        SettableFuture<Void> response = SettableFuture.create();
+        try {
+            // parse Url
+            NodeAddress target = OnionParser.getNodeAddress(host);
+
+            // do the data request
+            aboutToSend(message);
+            SettableFuture<Connection> future = networkNode.sendMessage(target, message);
+
+            Futures.addCallback(future, new FutureCallback<>() {
+                @Override
+                public void onSuccess(Connection connection) {
+                    MessageListener listener = (networkEnvelope, con) ->
+                            onResponse(networkEnvelope, con, message, response);
+                    connection.addMessageListener(listener);
+                    response.addListener(() -> connection.removeMessageListener(listener),
+                            MoreExecutors.directExecutor());
+                }
 
-        // start all threads and wait until they all finished. We do that so we can
-        // minimize the time between querying the hosts and therefore the chance of
-        // inconsistencies.
-        threadList.forEach(Thread::start);
+                @Override
+                public void onFailure(@NotNull Throwable throwable) {
+                    response.setException(throwable);
+                    log.error(
+                            "Sending {} failed. That is expected if the peer is offline.\n\tException={}", message.getClass().getSimpleName(), throwable.getMessage());
+                }
+            }, MoreExecutors.directExecutor());
+        } catch (Exception e) {
+            response.setException(e);
+            log.error("Sending {} to {} failed", message.getClass().getSimpleName(), host, e);
+        }
 
-        gate.await();
+        // Gets cancelled if the deadline has passed
+        response.addListener(() -> {
+            if (response.isCancelled()) {
+                log.warn("Got no response to {} from {} in time", message.getClass().getSimpleName(), host);
+            }
+        }, MoreExecutors.directExecutor());
+        return response;
     }
 
     protected void aboutToSend(NetworkEnvelope message) {
@@ -224,18 +260,49 @@ public abstract class P2PSeedNodeSnapshotBase extends Metric implements MessageL
      */
     abstract void report();
 
-    @Override
-    public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
+    private void onResponse(NetworkEnvelope networkEnvelope,
+                            Connection connection,
+                            NetworkEnvelope request,
+                            SettableFuture<Void> response) {
+        // The metrics share the network node, so several requests can be pending on the same connection and
+        // each listener gets all the responses. We only treat the response to our own request.
+        Integer requestNonce = getRequestNonce(request);
+        Integer responseNonce = getResponseNonce(networkEnvelope);
+        if (requestNonce != null && responseNonce != null && !requestNonce.equals(responseNonce)) {
+            log.debug("Ignoring {} as it is the response to another request",
+                    networkEnvelope.getClass().getSimpleName());
+            return;
+        }
+
         if (treatMessage(networkEnvelope, connection)) {
-            gate.proceed();
+            response.set(null);
         } else if (networkEnvelope instanceof CloseConnectionMessage) {
-            gate.unlock();
+            response.set(null);
         } else {
             log.warn("Got an unexpected message of type <{}>",
                     networkEnvelope.getClass().getSimpleName());
         }
-        connection.removeMessageListener(this);
     }
 
     protected abstract boolean treatMessage(NetworkEnvelope networkEnvelope, Connection connection);
+
+    @Nullable
+    private static Integer getRequestNonce(NetworkEnvelope request) {
+        if (request instanceof GetDataRequest) {
+            return ((GetDataRequest) request).getNonce();
+        } else if (request instanceof Ping) {
+            return ((Ping) request).getNonce();
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Integer getResponseNonce(NetworkEnvelope response) {
+        if (response instanceof GetDataResponse) {
+            return ((GetDataResponse) response).getRequestNonce();
+        } else if (response instanceof Pong) {
+            return ((Pong) response).getRequestNonce();
+        }
+        return null;
+    }
 }
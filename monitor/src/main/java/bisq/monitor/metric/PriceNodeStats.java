@@ -44,6 +44,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -63,6 +64,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 public class PriceNodeStats extends Metric {
 
     private static final String HOSTS = "run.hosts";
+    private static final String TIMEOUT = "run.timeout";
     private static final String IGNORE = "dashTxFee ltcTxFee dogeTxFee";
     // poor mans JSON parser
     private final Pattern stringNumberPattern = Pattern.compile("\"(.+)\" ?: ?(\\d+)");
@@ -83,6 +85,9 @@ public class PriceNodeStats extends Metric {
             Socks5Proxy proxy = tor.getProxy();
 
             String[] hosts = configuration.getProperty(HOSTS, "").split(",");
+            // The requests block a thread of the shared metric pool, so a stalled price node
+            // must not keep it forever
+            int timeoutMs = (int) TimeUnit.SECONDS.toMillis(Long.parseLong(configuration.getProperty(TIMEOUT, "60")));
 
             Collections.shuffle(Arrays.asList(hosts));
 
@@ -95,6 +100,7 @@ public class PriceNodeStats extends Metric {
                 // connect
                 try {
                     SocksSocket socket = new SocksSocket(proxy, tmp.getHostName(), tmp.getPort());
+                    socket.setSoTimeout(timeoutMs);
 
                     // prepare to receive data
                     BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
@@ -120,6 +126,7 @@ public class PriceNodeStats extends Metric {
 
                     // connect
                     socket = new SocksSocket(proxy, tmp.getHostName(), tmp.getPort());
+                    socket.setSoTimeout(timeoutMs);
 
                     // prepare to receive data
                     in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
@@ -32,17 +32,55 @@ import com.google.common.base.Charsets;
 import java.net.Socket;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Reports our findings to a graphite service.
+ * <p>
+ * Reporting only puts the points into a bounded queue, so it never blocks the
+ * metric. A sender thread writes the points in batches over a persistent
+ * connection using the plaintext protocol. If the service is slow or not
+ * reachable, the sender backs off and points which do not fit into the queue
+ * anymore get dropped. The number of dropped points is reported as
+ * {@code GraphiteReporter.droppedPoints}.
  *
  * @author Florian Reimair
  */
+@Slf4j
 public class GraphiteReporter extends Reporter {
 
+    private static final int QUEUE_SIZE = 20000;
+    private static final int MAX_BATCH_SIZE = 1000;
+    // Tor or the service might silently drop idle connections, so we reconnect after a while
+    private static final long IDLE_TIMEOUT_SEC = 60;
+    private static final long MIN_BACKOFF_MS = TimeUnit.SECONDS.toMillis(1);
+    private static final long MAX_BACKOFF_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final AtomicLong numDroppedPoints = new AtomicLong();
+
+    // Only accessed by the sender thread
+    private Socket socket;
+    private String connectedServiceUrl;
+    private long numReportedDroppedPoints;
+
+    public GraphiteReporter() {
+        Thread sender = new Thread(this::sendLoop, "GraphiteReporter");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
     @Override
     public void report(long value, String prefix) {
         HashMap<String, String> result = new HashMap<>();
@@ -59,19 +97,7 @@ public class GraphiteReporter extends Reporter {
     @Override
     public void report(Map<String, String> values, String prefix) {
         String timestamp = String.valueOf(System.currentTimeMillis());
-        values.forEach((key, value) -> {
-
-            report(key, value, timestamp, prefix);
-            try {
-                // give Tor some slack
-                // TODO maybe use the pickle protocol?
-                // https://graphite.readthedocs.io/en/latest/feeding-carbon.html
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                // TODO Auto-generated catch block
-                e.printStackTrace();
-            }
-        });
+        values.forEach((key, value) -> report(key, value, timestamp, prefix));
     }
 
     @Override
@@ -82,25 +108,89 @@ public class GraphiteReporter extends Reporter {
                 + (key.isEmpty() ? "" : "." + key)
                 + " " + value + " " + Long.parseLong(timeInMilliseconds) / 1000 + "\n";
 
-        try {
-            NodeAddress nodeAddress = OnionParser.getNodeAddress(configuration.getProperty("serviceUrl"));
-            Socket socket;
+        if (!queue.offer(report)) {
+            long dropped = numDroppedPoints.incrementAndGet();
+            if (dropped == 1 || dropped % 1000 == 0) {
+                log.warn("Graphite service does not keep up. Dropped {} points so far.", dropped);
+            }
+        }
+    }
+
+    @Override
+    public void report(Map<String, String> values) {
+        report(values, "");
+    }
+
+    public long getNumDroppedPoints() {
+        return numDroppedPoints.get();
+    }
+
+    private void sendLoop() {
+        List<String> batch = new ArrayList<>();
+        long backoffMs = MIN_BACKOFF_MS;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                // A batch which failed to send gets retried
+                if (batch.isEmpty()) {
+                    String first = queue.poll(IDLE_TIMEOUT_SEC, TimeUnit.SECONDS);
+                    if (first == null) {
+                        closeSocket();
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                }
+
+                send(batch);
+                batch.clear();
+                backoffMs = MIN_BACKOFF_MS;
+
+                long dropped = numDroppedPoints.get();
+                if (dropped != numReportedDroppedPoints) {
+                    numReportedDroppedPoints = dropped;
+                    report("droppedPoints", String.valueOf(dropped), String.valueOf(System.currentTimeMillis()), getName());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable t) {
+                log.warn("Sending {} points to graphite service failed. Retry in {} ms. {}",
+                        batch.size(), backoffMs, t.toString());
+                closeSocket();
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+        closeSocket();
+    }
+
+    private void send(List<String> batch) throws IOException {
+        String serviceUrl = configuration.getProperty("serviceUrl");
+        if (socket == null || !serviceUrl.equals(connectedServiceUrl)) {
+            closeSocket();
+            NodeAddress nodeAddress = OnionParser.getNodeAddress(serviceUrl);
             if (nodeAddress.getFullAddress().contains(".onion"))
                 socket = new TorSocket(nodeAddress.getHostName(), nodeAddress.getPort());
             else
                 socket = new Socket(nodeAddress.getHostName(), nodeAddress.getPort());
-
-            socket.getOutputStream().write(report.getBytes(Charsets.UTF_8));
-            socket.close();
-        } catch (IOException e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
+            connectedServiceUrl = serviceUrl;
         }
 
+        OutputStream outputStream = socket.getOutputStream();
+        outputStream.write(String.join("", batch).getBytes(Charsets.UTF_8));
+        outputStream.flush();
     }
 
-    @Override
-    public void report(Map<String, String> values) {
-        report(values, "");
+    private void closeSocket() {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignore) {
+            }
+            socket = null;
+        }
     }
 }
@@ -38,15 +38,18 @@ import bisq.common.app.Capability;
 import bisq.common.app.HasCapabilities;
 import bisq.common.app.Version;
 import bisq.common.config.Config;
+import bisq.common.metrics.MetricsRegistry;
 import bisq.common.proto.ProtobufferException;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.network.NetworkProtoResolver;
 import bisq.common.util.Utilities;
 
+import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.InvalidProtocolBufferException;
 
 import javax.inject.Inject;
 
+import com.google.common.io.ByteStreams;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.Uninterruptibles;
 
@@ -177,7 +180,10 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         this.connectionListener = connectionListener;
         this.networkFilter = networkFilter;
         uid = UUID.randomUUID().toString();
-        statistic = new Statistic();
+        statistic = new Statistic(uid);
+        MetricsRegistry.getDefault().gauge("bisq_p2p_connection_bundle_queue_size",
+                "Number of bundles of envelopes waiting to be sent to the peer of the connection",
+                queueOfBundles::size, "connection", uid);
 
         addMessageListener(messageListener);
 
@@ -433,10 +439,20 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         if (networkEnvelope instanceof BundleOfEnvelopes) {
             onBundleOfEnvelopes((BundleOfEnvelopes) networkEnvelope, connection);
         } else {
-            UserThread.execute(() -> messageListeners.forEach(e -> e.onMessage(networkEnvelope, connection)));
+            dispatchMessage(networkEnvelope, connection);
         }
     }
 
+    private void dispatchMessage(NetworkEnvelope networkEnvelope, Connection connection) {
+        long queuedTs = System.nanoTime();
+        UserThread.execute(() -> {
+            MessageTimings.record(MessageTimings.Phase.QUEUE_WAIT, networkEnvelope, queuedTs);
+            long ts = System.nanoTime();
+            messageListeners.forEach(e -> e.onMessage(networkEnvelope, connection));
+            MessageTimings.record(MessageTimings.Phase.HANDLER, networkEnvelope, ts);
+        });
+    }
+
     private void onBundleOfEnvelopes(BundleOfEnvelopes bundleOfEnvelopes, Connection connection) {
         Map<P2PDataStorage.ByteArray, Set<NetworkEnvelope>> itemsByHash = new HashMap<>();
         Set<NetworkEnvelope> envelopesToProcess = new HashSet<>();
@@ -466,8 +482,7 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                 envelopesToProcess.add(networkEnvelope);
             }
         }
-        envelopesToProcess.forEach(envelope -> UserThread.execute(() ->
-                messageListeners.forEach(listener -> listener.onMessage(envelope, connection))));
+        envelopesToProcess.forEach(envelope -> dispatchMessage(envelope, connection));
     }
 
 
@@ -566,6 +581,8 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
             protoOutputStream.onConnectionShutdown();
 
             capabilitiesListeners.clear();
+            statistic.shutDown();
+            MetricsRegistry.getDefault().remove("bisq_p2p_connection_bundle_queue_size", "connection", uid);
 
             try {
                 protoInputStream.close();
@@ -747,6 +764,17 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     private long lastReadTimeStamp;
     private boolean threadNameSet;
 
+    // Same as protobuf.NetworkEnvelope.parseDelimitedFrom but we read the first byte ourselves, so the
+    // time we measure for reading and parsing the message does not include waiting for the peer.
+    @Nullable
+    private protobuf.NetworkEnvelope parseDelimited(int firstByte) throws IOException {
+        if (firstByte == -1) {
+            return null;
+        }
+        int size = CodedInputStream.readRawVarint32(firstByte, protoInputStream);
+        return protobuf.NetworkEnvelope.parseFrom(ByteStreams.limit(protoInputStream, size));
+    }
+
     @Override
     public void run() {
         try {
@@ -765,7 +793,10 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                     }
 
                     // Blocking read from the inputStream
-                    protobuf.NetworkEnvelope proto = protobuf.NetworkEnvelope.parseDelimitedFrom(protoInputStream);
+                    int firstByte = protoInputStream.read();
+                    long readTs = System.nanoTime();
+                    protobuf.NetworkEnvelope proto = parseDelimited(firstByte);
+                    long readDuration = System.nanoTime() - readTs;
 
                     long ts = System.currentTimeMillis();
 
@@ -803,7 +834,10 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                         Thread.sleep(20);
                     }
 
+                    long decodeTs = System.nanoTime();
                     NetworkEnvelope networkEnvelope = networkProtoResolver.fromProto(proto);
+                    MessageTimings.record(MessageTimings.Phase.DECODE, networkEnvelope, decodeTs);
+                    MessageTimings.recordDuration(MessageTimings.Phase.READ, networkEnvelope, readDuration);
                     lastReadTimeStamp = now;
                     log.debug("<< Received networkEnvelope of type: {}", networkEnvelope.getClass().getSimpleName());
                     int size = proto.getSerializedSize();
@@ -0,0 +1,85 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.common.metrics.Histogram;
+import bisq.common.metrics.MetricsRegistry;
+import bisq.common.proto.network.NetworkEnvelope;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each processing phase of a message took, per {@link NetworkEnvelope}
+ * type, as histograms in the {@link MetricsRegistry}
+ * ({@code bisq_p2p_message_duration_micros{message="...",phase="..."}}).
+ * <p>
+ * Comparing the phases shows whether a node is bound by the network (read, send), by
+ * protobuf (decode) or by the user thread (queue wait, handler).
+ */
+final class MessageTimings {
+    private static final String METRIC_NAME = "bisq_p2p_message_duration_micros";
+    private static final String METRIC_HELP = "Time spent per processing phase of a message in microseconds";
+
+    enum Phase {
+        // From receiving the first byte of the message until it is parsed as protobuf message.
+        // Includes the transfer time of the remaining bytes.
+        READ("read"),
+        // Conversion of the protobuf message to the NetworkEnvelope
+        DECODE("decode"),
+        // Time the message waited in the user thread queue before its listeners got called
+        QUEUE_WAIT("queue_wait"),
+        // Time spent in all MessageListeners for that message
+        HANDLER("handler"),
+        // Serializing, writing and flushing the message to the socket
+        SEND("send");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final Map<Phase, Map<Class<?>, Histogram>> histograms = new EnumMap<>(Phase.class);
+
+    static {
+        for (Phase phase : Phase.values()) {
+            histograms.put(phase, new ConcurrentHashMap<>());
+        }
+    }
+
+    private MessageTimings() {
+    }
+
+    /**
+     * @param startNanos value of {@link System#nanoTime()} at the start of the phase
+     */
+    static void record(Phase phase, NetworkEnvelope networkEnvelope, long startNanos) {
+        recordDuration(phase, networkEnvelope, System.nanoTime() - startNanos);
+    }
+
+    static void recordDuration(Phase phase, NetworkEnvelope networkEnvelope, long durationNanos) {
+        histograms.get(phase)
+                .computeIfAbsent(networkEnvelope.getClass(), clazz -> MetricsRegistry.getDefault().histogram(
+                        METRIC_NAME, METRIC_HELP, "message", clazz.getSimpleName(), "phase", phase.label))
+                .record(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+    }
+}
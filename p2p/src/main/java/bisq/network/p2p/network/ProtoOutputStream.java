@@ -59,10 +59,12 @@ class ProtoOutputStream {
     }
 
     private void writeEnvelopeOrThrow(NetworkEnvelope envelope) throws IOException {
+        long ts = System.nanoTime();
         protobuf.NetworkEnvelope proto = envelope.toProtoNetworkEnvelope();
         proto.writeDelimitedTo(delegate);
         delegate.flush();
 
+        MessageTimings.record(MessageTimings.Phase.SEND, envelope, ts);
         statistic.addSentBytes(proto.getSerializedSize());
         statistic.addSentMessage(envelope);
 
@@ -18,26 +18,28 @@
 package bisq.network.p2p.network;
 
 import bisq.common.UserThread;
+import bisq.common.metrics.Counter;
+import bisq.common.metrics.Histogram;
+import bisq.common.metrics.MetricsRegistry;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.util.Utilities;
 
-import javafx.beans.property.DoubleProperty;
-import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.LongProperty;
-import javafx.beans.property.SimpleDoubleProperty;
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleLongProperty;
-
 import java.util.Date;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Network statistics per connection. As we are also interested in total network statistics
- * we use static properties to get traffic of all connections combined.
+ * we use static counters to get traffic of all connections combined.
+ * <p>
+ * All counters are kept in the {@link MetricsRegistry} and can be updated from any thread.
+ * Rates are calculated when they are read. The desktop app maps the values to JavaFX
+ * properties itself.
  */
 @Slf4j
 public class Statistic {
@@ -46,32 +48,19 @@ public class Statistic {
     // Static
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-
+    private final static MetricsRegistry metricsRegistry = MetricsRegistry.getDefault();
     private final static long startTime = System.currentTimeMillis();
-    private final static LongProperty totalSentBytes = new SimpleLongProperty(0);
-    private final static DoubleProperty totalSentBytesPerSec = new SimpleDoubleProperty(0);
-    private final static LongProperty totalReceivedBytes = new SimpleLongProperty(0);
-    private final static DoubleProperty totalReceivedBytesPerSec = new SimpleDoubleProperty(0);
-    private final static Map<String, Integer> totalReceivedMessages = new ConcurrentHashMap<>();
-    private final static Map<String, Integer> totalSentMessages = new ConcurrentHashMap<>();
-    private final static LongProperty numTotalSentMessages = new SimpleLongProperty(0);
-    private final static DoubleProperty numTotalSentMessagesPerSec = new SimpleDoubleProperty(0);
-    private final static LongProperty numTotalReceivedMessages = new SimpleLongProperty(0);
-    private final static DoubleProperty numTotalReceivedMessagesPerSec = new SimpleDoubleProperty(0);
+    private final static Counter totalSentBytes = metricsRegistry.counter("bisq_p2p_sent_bytes_total",
+            "Bytes sent to all peers");
+    private final static Counter totalReceivedBytes = metricsRegistry.counter("bisq_p2p_received_bytes_total",
+            "Bytes received from all peers");
+    // The per message type counters are exposed in the registry, the sums are kept separately for cheap reads
+    private final static LongAdder numTotalSentMessages = new LongAdder();
+    private final static LongAdder numTotalReceivedMessages = new LongAdder();
+    private final static Map<Class<?>, Counter> totalSentMessages = new ConcurrentHashMap<>();
+    private final static Map<Class<?>, Counter> totalReceivedMessages = new ConcurrentHashMap<>();
 
     static {
-        UserThread.runPeriodically(() -> {
-            numTotalSentMessages.set(totalSentMessages.values().stream().mapToInt(Integer::intValue).sum());
-            numTotalReceivedMessages.set(totalReceivedMessages.values().stream().mapToInt(Integer::intValue).sum());
-
-            long passed = (System.currentTimeMillis() - startTime) / 1000;
-            numTotalSentMessagesPerSec.set(((double) numTotalSentMessages.get()) / passed);
-            numTotalReceivedMessagesPerSec.set(((double) numTotalReceivedMessages.get()) / passed);
-
-            totalSentBytesPerSec.set(((double) totalSentBytes.get()) / passed);
-            totalReceivedBytesPerSec.set(((double) totalReceivedBytes.get()) / passed);
-        }, 1);
-
         // We log statistics every 5 minutes
         UserThread.runPeriodically(() -> {
             String ls = System.lineSeparator();
@@ -82,45 +71,63 @@ public class Statistic {
                             "Bytes received: {}" + ls +
                             "Number of received messages/Received messages: {} / {};" + ls +
                             "Number of received messages per sec: {};" + ls,
-                    Utilities.readableFileSize(totalSentBytes.get()),
-                    numTotalSentMessages.get(), totalSentMessages,
-                    numTotalSentMessagesPerSec.get(),
-                    Utilities.readableFileSize(totalReceivedBytes.get()),
-                    numTotalReceivedMessages.get(), totalReceivedMessages,
-                    numTotalReceivedMessagesPerSec.get());
+                    Utilities.readableFileSize(getTotalSentBytes()),
+                    getNumTotalSentMessages(), toCountsByName(totalSentMessages),
+                    getNumTotalSentMessagesPerSec(),
+                    Utilities.readableFileSize(getTotalReceivedBytes()),
+                    getNumTotalReceivedMessages(), toCountsByName(totalReceivedMessages),
+                    getNumTotalReceivedMessagesPerSec());
         }, TimeUnit.MINUTES.toSeconds(5));
     }
 
-    public static LongProperty totalSentBytesProperty() {
-        return totalSentBytes;
+    public static long getTotalSentBytes() {
+        return totalSentBytes.get();
     }
 
-    public static DoubleProperty totalSentBytesPerSecProperty() {
-        return totalSentBytesPerSec;
+    public static double getTotalSentBytesPerSec() {
+        return perSec(getTotalSentBytes());
     }
 
-    public static LongProperty totalReceivedBytesProperty() {
-        return totalReceivedBytes;
+    public static long getTotalReceivedBytes() {
+        return totalReceivedBytes.get();
     }
 
-    public static DoubleProperty totalReceivedBytesPerSecProperty() {
-        return totalReceivedBytesPerSec;
+    public static double getTotalReceivedBytesPerSec() {
+        return perSec(getTotalReceivedBytes());
     }
 
-    public static LongProperty numTotalSentMessagesProperty() {
-        return numTotalSentMessages;
+    public static long getNumTotalSentMessages() {
+        return numTotalSentMessages.sum();
     }
 
-    public static DoubleProperty numTotalSentMessagesPerSecProperty() {
-        return numTotalSentMessagesPerSec;
+    public static double getNumTotalSentMessagesPerSec() {
+        return perSec(getNumTotalSentMessages());
     }
 
-    public static LongProperty numTotalReceivedMessagesProperty() {
-        return numTotalReceivedMessages;
+    public static long getNumTotalReceivedMessages() {
+        return numTotalReceivedMessages.sum();
     }
 
-    public static DoubleProperty numTotalReceivedMessagesPerSecProperty() {
-        return numTotalReceivedMessagesPerSec;
+    public static double getNumTotalReceivedMessagesPerSec() {
+        return perSec(getNumTotalReceivedMessages());
+    }
+
+    private static double perSec(long value) {
+        long passed = Math.max(1, (System.currentTimeMillis() - startTime) / 1000);
+        return ((double) value) / passed;
+    }
+
+    private static Counter getMessageCounter(Map<Class<?>, Counter> counters,
+                                             String name,
+                                             String help,
+                                             NetworkEnvelope networkEnvelope) {
+        return counters.computeIfAbsent(networkEnvelope.getClass(), clazz ->
+                metricsRegistry.counter(name, help, "message", clazz.getSimpleName()));
+    }
+
+    private static Map<String, Long> toCountsByName(Map<Class<?>, Counter> counters) {
+        return counters.entrySet().stream()
+                .collect(Collectors.toMap(e -> e.getKey().getSimpleName(), e -> e.getValue().get()));
     }
 
 
@@ -128,21 +135,41 @@ public class Statistic {
     // Instance fields
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private final String connectionUid;
     private final Date creationDate;
-    private long lastActivityTimestamp = System.currentTimeMillis();
-    private final LongProperty sentBytes = new SimpleLongProperty(0);
-    private final LongProperty receivedBytes = new SimpleLongProperty(0);
-    private final Map<String, Integer> receivedMessages = new ConcurrentHashMap<>();
-    private final Map<String, Integer> sentMessages = new ConcurrentHashMap<>();
-    private final IntegerProperty roundTripTime = new SimpleIntegerProperty(0);
+    private volatile long lastActivityTimestamp = System.currentTimeMillis();
+    private final LongAdder sentBytes = new LongAdder();
+    private final LongAdder receivedBytes = new LongAdder();
+    private final Map<String, LongAdder> receivedMessages = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> sentMessages = new ConcurrentHashMap<>();
+    private volatile int roundTripTime;
+    private final Histogram roundTripTimeHistogram;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    Statistic() {
+    Statistic(String connectionUid) {
+        this.connectionUid = connectionUid;
         creationDate = new Date();
+
+        metricsRegistry.gauge("bisq_p2p_connection_sent_bytes", "Bytes sent to the peer of the connection",
+                sentBytes::sum, "connection", connectionUid);
+        metricsRegistry.gauge("bisq_p2p_connection_received_bytes", "Bytes received from the peer of the connection",
+                receivedBytes::sum, "connection", connectionUid);
+        roundTripTimeHistogram = metricsRegistry.histogram("bisq_p2p_connection_round_trip_time_ms",
+                "Round trip time of Ping/Pong messages in ms", "connection", connectionUid);
+    }
+
+    /**
+     * Removes the metrics of this connection from the {@link MetricsRegistry}. The
+     * totals are not affected.
+     */
+    void shutDown() {
+        metricsRegistry.remove("bisq_p2p_connection_sent_bytes", "connection", connectionUid);
+        metricsRegistry.remove("bisq_p2p_connection_received_bytes", "connection", connectionUid);
+        metricsRegistry.remove("bisq_p2p_connection_round_trip_time_ms", "connection", connectionUid);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -150,56 +177,37 @@ public class Statistic {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     void updateLastActivityTimestamp() {
-        UserThread.execute(() -> lastActivityTimestamp = System.currentTimeMillis());
+        lastActivityTimestamp = System.currentTimeMillis();
     }
 
     void addSentBytes(int value) {
-        UserThread.execute(() -> {
-            sentBytes.set(sentBytes.get() + value);
-            totalSentBytes.set(totalSentBytes.get() + value);
-        });
+        sentBytes.add(value);
+        totalSentBytes.add(value);
     }
 
     void addReceivedBytes(int value) {
-        UserThread.execute(() -> {
-            receivedBytes.set(receivedBytes.get() + value);
-            totalReceivedBytes.set(totalReceivedBytes.get() + value);
-        });
+        receivedBytes.add(value);
+        totalReceivedBytes.add(value);
     }
 
     // TODO would need msg inspection to get useful information...
     void addReceivedMessage(NetworkEnvelope networkEnvelope) {
-        String messageClassName = networkEnvelope.getClass().getSimpleName();
-        int counter = 1;
-        if (receivedMessages.containsKey(messageClassName)) {
-            counter = receivedMessages.get(messageClassName) + 1;
-        }
-        receivedMessages.put(messageClassName, counter);
-
-        counter = 1;
-        if (totalReceivedMessages.containsKey(messageClassName)) {
-            counter = totalReceivedMessages.get(messageClassName) + 1;
-        }
-        totalReceivedMessages.put(messageClassName, counter);
+        receivedMessages.computeIfAbsent(networkEnvelope.getClass().getSimpleName(), k -> new LongAdder()).increment();
+        getMessageCounter(totalReceivedMessages, "bisq_p2p_received_messages_total",
+                "Messages received from all peers by message type", networkEnvelope).increment();
+        numTotalReceivedMessages.increment();
     }
 
     void addSentMessage(NetworkEnvelope networkEnvelope) {
-        String messageClassName = networkEnvelope.getClass().getSimpleName();
-        int counter = 1;
-        if (sentMessages.containsKey(messageClassName)) {
-            counter = sentMessages.get(messageClassName) + 1;
-        }
-        sentMessages.put(messageClassName, counter);
-
-        counter = 1;
-        if (totalSentMessages.containsKey(messageClassName)) {
-            counter = totalSentMessages.get(messageClassName) + 1;
-        }
-        totalSentMessages.put(messageClassName, counter);
+        sentMessages.computeIfAbsent(networkEnvelope.getClass().getSimpleName(), k -> new LongAdder()).increment();
+        getMessageCounter(totalSentMessages, "bisq_p2p_sent_messages_total",
+                "Messages sent to all peers by message type", networkEnvelope).increment();
+        numTotalSentMessages.increment();
     }
 
     public void setRoundTripTime(int roundTripTime) {
-        this.roundTripTime.set(roundTripTime);
+        this.roundTripTime = roundTripTime;
+        roundTripTimeHistogram.record(roundTripTime);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -215,26 +223,18 @@ public class Statistic {
     }
 
     public long getSentBytes() {
-        return sentBytes.get();
-    }
-
-    public LongProperty sentBytesProperty() {
-        return sentBytes;
+        return sentBytes.sum();
     }
 
     public long getReceivedBytes() {
-        return receivedBytes.get();
-    }
-
-    public LongProperty receivedBytesProperty() {
-        return receivedBytes;
+        return receivedBytes.sum();
     }
 
     public Date getCreationDate() {
         return creationDate;
     }
 
-    public IntegerProperty roundTripTimeProperty() {
+    public int getRoundTripTime() {
         return roundTripTime;
     }
 
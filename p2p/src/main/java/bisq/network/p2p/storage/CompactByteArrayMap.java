@@ -0,0 +1,582 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Map with {@link P2PDataStorage.ByteArray} keys for the large maps of persistable network payloads.
+ * <p>
+ * The hashes of the payloads are 20 bytes long (RIPEMD-160). Such keys are stored inline in an int array of an
+ * open addressing hash table with linear probing, and the values are referenced by the slot index. So we do not
+ * need a ByteArray, a byte array and a map entry object per item, which dominate the heap of a seed node with
+ * several hundred thousand items. Keys with another length are kept in a regular HashMap.
+ * <p>
+ * All methods are synchronized. Like with a ConcurrentHashMap the map can be modified while it gets iterated.
+ * The iterators walk the slot arrays which were in use when the iterator got created. Inserts only fill free
+ * slots and a resize allocates new arrays, so these arrays never get reordered while they are iterated. Only
+ * removal shifts entries, so we copy the arrays before the first removal if an iterator was created on them.
+ * As removals are rare for the append-only stores this costs much less than a snapshot per iteration. Iterators
+ * return each entry which is in the map during the whole iteration exactly once and may or may not return
+ * entries added or removed during the iteration. Key objects are only created if the caller asks for the keys.
+ * Null keys and values are not permitted.
+ */
+public final class CompactByteArrayMap<V> extends AbstractMap<P2PDataStorage.ByteArray, V> {
+    private static final int KEY_LENGTH = 20;
+    private static final int INTS_PER_KEY = KEY_LENGTH / Integer.BYTES;
+    private static final int MIN_CAPACITY = 16;
+
+    // Keys of slot i are at keys[i * INTS_PER_KEY] ... keys[i * INTS_PER_KEY + INTS_PER_KEY - 1].
+    // A slot is free if its value is null.
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int threshold;
+    // Set if an iterator was created on the current arrays, so they must not get reordered in place
+    private boolean arraysShared;
+    private final Map<P2PDataStorage.ByteArray, V> otherKeys = new HashMap<>();
+
+    public CompactByteArrayMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public CompactByteArrayMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public CompactByteArrayMap(Map<P2PDataStorage.ByteArray, ? extends V> map) {
+        this(map.size());
+        putAll(map);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Map
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public synchronized int size() {
+        return size + otherKeys.size();
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public synchronized boolean containsKey(Object key) {
+        byte[] bytes = getBytes(key);
+        if (bytes == null) {
+            return false;
+        }
+        return bytes.length == KEY_LENGTH ? findSlot(bytes) >= 0 : otherKeys.containsKey(key);
+    }
+
+    @Override
+    public synchronized V get(Object key) {
+        byte[] bytes = getBytes(key);
+        if (bytes == null) {
+            return null;
+        }
+        if (bytes.length != KEY_LENGTH) {
+            return otherKeys.get(key);
+        }
+        int slot = findSlot(bytes);
+        return slot >= 0 ? valueAt(slot) : null;
+    }
+
+    @Override
+    public synchronized V put(P2PDataStorage.ByteArray key, V value) {
+        Objects.requireNonNull(value, "value must not be null");
+        byte[] bytes = Objects.requireNonNull(getBytes(key), "key must not be null");
+        if (bytes.length != KEY_LENGTH) {
+            return otherKeys.put(key, value);
+        }
+
+        int slot = findSlot(bytes);
+        if (slot >= 0) {
+            V previous = valueAt(slot);
+            values[slot] = value;
+            return previous;
+        }
+
+        insert(-(slot + 1), bytes, value);
+        return null;
+    }
+
+    @Override
+    public synchronized V putIfAbsent(P2PDataStorage.ByteArray key, V value) {
+        V previous = get(key);
+        return previous != null ? previous : put(key, value);
+    }
+
+    @Override
+    public synchronized V remove(Object key) {
+        byte[] bytes = getBytes(key);
+        if (bytes == null) {
+            return null;
+        }
+        if (bytes.length != KEY_LENGTH) {
+            return otherKeys.remove(key);
+        }
+
+        int slot = findSlot(bytes);
+        if (slot < 0) {
+            return null;
+        }
+        V previous = valueAt(slot);
+        removeSlot(slot);
+        return previous;
+    }
+
+    @Override
+    public synchronized boolean remove(Object key, Object value) {
+        V current = get(key);
+        if (current == null || !current.equals(value)) {
+            return false;
+        }
+        remove(key);
+        return true;
+    }
+
+    @Override
+    public synchronized void clear() {
+        allocate(MIN_CAPACITY);
+        size = 0;
+        otherKeys.clear();
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        if (value == null) {
+            return false;
+        }
+        Cursor cursor = new Cursor();
+        while (cursor.hasNext()) {
+            cursor.next();
+            if (value.equals(cursor.value())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super P2PDataStorage.ByteArray, ? super V> action) {
+        Objects.requireNonNull(action);
+        Cursor cursor = new Cursor();
+        while (cursor.hasNext()) {
+            cursor.next();
+            action.accept(cursor.key(), cursor.value());
+        }
+    }
+
+    @Override
+    public Set<Entry<P2PDataStorage.ByteArray, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    @Override
+    public Set<P2PDataStorage.ByteArray> keySet() {
+        return new KeySet();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new Values();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Returns the slot of the key or -(slot + 1) of the free slot where the key would be inserted
+    private int findSlot(byte[] bytes) {
+        int k0 = getInt(bytes, 0);
+        int k1 = getInt(bytes, 1);
+        int mask = values.length - 1;
+        int slot = hash(k0, k1) & mask;
+        while (values[slot] != null) {
+            int base = slot * INTS_PER_KEY;
+            if (keys[base] == k0 &&
+                    keys[base + 1] == k1 &&
+                    keys[base + 2] == getInt(bytes, 2) &&
+                    keys[base + 3] == getInt(bytes, 3) &&
+                    keys[base + 4] == getInt(bytes, 4)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -(slot + 1);
+    }
+
+    private void insert(int slot, byte[] bytes, V value) {
+        int base = slot * INTS_PER_KEY;
+        for (int i = 0; i < INTS_PER_KEY; i++) {
+            keys[base + i] = getInt(bytes, i);
+        }
+        values[slot] = value;
+        size++;
+        if (size > threshold) {
+            resize(values.length * 2);
+        }
+    }
+
+    // Backward shift deletion, so we do not need tombstones: We move the following entries of the probe sequence
+    // into the freed slot if their home slot is not between the freed slot and their current slot.
+    private void removeSlot(int slot) {
+        if (arraysShared) {
+            keys = keys.clone();
+            values = values.clone();
+            arraysShared = false;
+        }
+        int mask = values.length - 1;
+        int free = slot;
+        int current = (free + 1) & mask;
+        while (values[current] != null) {
+            int home = hashAt(current) & mask;
+            if (((current - home) & mask) >= ((current - free) & mask)) {
+                System.arraycopy(keys, current * INTS_PER_KEY, keys, free * INTS_PER_KEY, INTS_PER_KEY);
+                values[free] = values[current];
+                free = current;
+            }
+            current = (current + 1) & mask;
+        }
+        values[free] = null;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int oldSlot = 0; oldSlot < oldValues.length; oldSlot++) {
+            if (oldValues[oldSlot] == null) {
+                continue;
+            }
+            int oldBase = oldSlot * INTS_PER_KEY;
+            int slot = hash(oldKeys[oldBase], oldKeys[oldBase + 1]) & mask;
+            while (values[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            System.arraycopy(oldKeys, oldBase, keys, slot * INTS_PER_KEY, INTS_PER_KEY);
+            values[slot] = oldValues[oldSlot];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity * INTS_PER_KEY];
+        values = new Object[capacity];
+        threshold = capacity / 4 * 3;
+        arraysShared = false;
+    }
+
+    private int hashAt(int slot) {
+        int base = slot * INTS_PER_KEY;
+        return hash(keys[base], keys[base + 1]);
+    }
+
+    private static byte[] keyAt(int[] keys, int slot) {
+        byte[] bytes = new byte[KEY_LENGTH];
+        int base = slot * INTS_PER_KEY;
+        for (int i = 0; i < INTS_PER_KEY; i++) {
+            int value = keys[base + i];
+            bytes[i * 4] = (byte) (value >>> 24);
+            bytes[i * 4 + 1] = (byte) (value >>> 16);
+            bytes[i * 4 + 2] = (byte) (value >>> 8);
+            bytes[i * 4 + 3] = (byte) value;
+        }
+        return bytes;
+    }
+
+    private V valueAt(int slot) {
+        return valueAt(values, slot);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V valueAt(Object[] values, int slot) {
+        return (V) values[slot];
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity / 4 * 3 < expectedSize) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    // The keys are hashes already, we only mix two ints to not depend on the first bytes only
+    private static int hash(int k0, int k1) {
+        int hash = (k0 * 0x9E3779B9) ^ k1;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int getInt(byte[] bytes, int index) {
+        int offset = index * 4;
+        return (bytes[offset] & 0xFF) << 24 |
+                (bytes[offset + 1] & 0xFF) << 16 |
+                (bytes[offset + 2] & 0xFF) << 8 |
+                (bytes[offset + 3] & 0xFF);
+    }
+
+    private static byte[] getBytes(Object key) {
+        return key instanceof P2PDataStorage.ByteArray ? ((P2PDataStorage.ByteArray) key).bytes : null;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // EntrySet
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private final class EntrySet extends AbstractSet<Entry<P2PDataStorage.ByteArray, V>> {
+        @Override
+        public Iterator<Entry<P2PDataStorage.ByteArray, V>> iterator() {
+            Cursor cursor = new Cursor();
+            return new CursorIterator<>(cursor) {
+                @Override
+                Entry<P2PDataStorage.ByteArray, V> current() {
+                    return new SimpleImmutableEntry<>(cursor.key(), cursor.value());
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return CompactByteArrayMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            V value = get(entry.getKey());
+            return value != null && value.equals(entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            return CompactByteArrayMap.this.remove(entry.getKey(), entry.getValue());
+        }
+
+        @Override
+        public void clear() {
+            CompactByteArrayMap.this.clear();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // KeySet
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // We need to override the key set as the AbstractMap implementation would remove keys by iterating the map
+    private final class KeySet extends AbstractSet<P2PDataStorage.ByteArray> {
+        @Override
+        public Iterator<P2PDataStorage.ByteArray> iterator() {
+            Cursor cursor = new Cursor();
+            return new CursorIterator<>(cursor) {
+                @Override
+                P2PDataStorage.ByteArray current() {
+                    return cursor.key();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return CompactByteArrayMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return CompactByteArrayMap.this.remove(o) != null;
+        }
+
+        @Override
+        public void clear() {
+            CompactByteArrayMap.this.clear();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Values
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The values are read from the slots directly, no key objects are created
+    private final class Values extends AbstractCollection<V> {
+        @Override
+        public Iterator<V> iterator() {
+            Cursor cursor = new Cursor();
+            return new CursorIterator<>(cursor) {
+                @Override
+                V current() {
+                    return cursor.value();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return CompactByteArrayMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+
+        @Override
+        public void clear() {
+            CompactByteArrayMap.this.clear();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Cursor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Walks the slot arrays which were in use at creation, followed by a copy of the other keys (usually none).
+    // Each step to the next occupied slot is done with the lock held, so we see the inserts made into these
+    // arrays. The keys of an occupied slot never change in these arrays, so they can be read later.
+    private final class Cursor {
+        private final int[] slotKeys;
+        private final Object[] slotValues;
+        private final Iterator<Entry<P2PDataStorage.ByteArray, V>> otherIterator;
+        // Slot of the next item, slotValues.length if there are no more slots
+        private int nextSlot = -1;
+        private V nextValue;
+
+        private int currentSlot = -1;
+        private Entry<P2PDataStorage.ByteArray, V> currentOther;
+        private V currentValue;
+
+        Cursor() {
+            synchronized (CompactByteArrayMap.this) {
+                slotKeys = keys;
+                slotValues = values;
+                arraysShared = true;
+                otherIterator = otherKeys.isEmpty() ?
+                        Collections.emptyIterator() :
+                        new ArrayList<>(otherKeys.entrySet()).iterator();
+                advance();
+            }
+        }
+
+        boolean hasNext() {
+            return nextSlot < slotValues.length || otherIterator.hasNext();
+        }
+
+        void next() {
+            if (nextSlot < slotValues.length) {
+                currentSlot = nextSlot;
+                currentOther = null;
+                currentValue = nextValue;
+                advance();
+            } else if (otherIterator.hasNext()) {
+                currentSlot = -1;
+                currentOther = otherIterator.next();
+                currentValue = currentOther.getValue();
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        P2PDataStorage.ByteArray key() {
+            return currentOther != null ? currentOther.getKey() : new P2PDataStorage.ByteArray(keyAt(slotKeys, currentSlot));
+        }
+
+        V value() {
+            return currentValue;
+        }
+
+        void remove() {
+            if (currentSlot < 0 && currentOther == null) {
+                throw new IllegalStateException();
+            }
+            CompactByteArrayMap.this.remove(key());
+            currentSlot = -1;
+            currentOther = null;
+        }
+
+        private void advance() {
+            synchronized (CompactByteArrayMap.this) {
+                int slot = nextSlot + 1;
+                while (slot < slotValues.length && slotValues[slot] == null) {
+                    slot++;
+                }
+                nextSlot = slot;
+                nextValue = slot < slotValues.length ? valueAt(slotValues, slot) : null;
+            }
+        }
+    }
+
+    private abstract class CursorIterator<E> implements Iterator<E> {
+        private final Cursor cursor;
+
+        CursorIterator(Cursor cursor) {
+            this.cursor = cursor;
+        }
+
+        abstract E current();
+
+        @Override
+        public boolean hasNext() {
+            return cursor.hasNext();
+        }
+
+        @Override
+        public E next() {
+            cursor.next();
+            return current();
+        }
+
+        @Override
+        public void remove() {
+            cursor.remove();
+        }
+    }
+}
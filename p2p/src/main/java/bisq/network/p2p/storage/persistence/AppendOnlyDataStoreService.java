@@ -77,14 +77,33 @@ public class AppendOnlyDataStoreService {
 
 
     public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMap() {
-        return services.stream()
-                .flatMap(service -> {
-                    Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = service instanceof HistoricalDataStoreService ?
-                            ((HistoricalDataStoreService) service).getMapOfAllData() :
-                            service.getMap();
-                    return map.entrySet().stream();
-                })
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        return getMapsOfAllData().stream()
+                .flatMap(map -> map.entrySet().stream())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (first, second) -> first));
+    }
+
+    // Returns the maps of all stores without copying them. For historical data stores the live map and the map of
+    // the historical data are returned.
+    public List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> getMapsOfAllData() {
+        List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> maps = new ArrayList<>(services.size() + 1);
+        services.forEach(service -> {
+            if (service instanceof HistoricalDataStoreService) {
+                maps.addAll(((HistoricalDataStoreService<?>) service).getMapsOfAllData());
+            } else {
+                maps.add(service.getMap());
+            }
+        });
+        return maps;
+    }
+
+    // Looks up the maps of the stores directly instead of merging them like getMap()
+    public boolean containsKey(P2PDataStorage.ByteArray hashAsByteArray) {
+        for (Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map : getMapsOfAllData()) {
+            if (map.containsKey(hashAsByteArray)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public void put(P2PDataStorage.ByteArray hashAsByteArray, PersistableNetworkPayload payload) {
@@ -29,6 +29,7 @@ import com.google.common.collect.ImmutableMap;
 import java.io.File;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -105,6 +106,14 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
         return result;
     }
 
+    // Returns the live map and the map of the historical data without creating a merged copy. Data contained in the
+    // historical data got pruned from the live map at startup.
+    public List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> getMapsOfAllData() {
+        return allHistoricalPayloads != null ?
+                List.of(getMapOfLiveData(), allHistoricalPayloads) :
+                List.of(getMapOfLiveData());
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // MapStoreService
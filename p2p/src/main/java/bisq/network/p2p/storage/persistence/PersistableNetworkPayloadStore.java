@@ -17,6 +17,7 @@
 
 package bisq.network.p2p.storage.persistence;
 
+import bisq.network.p2p.storage.CompactByteArrayMap;
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
 
@@ -24,7 +25,6 @@ import bisq.common.proto.persistable.PersistableEnvelope;
 
 import java.util.Collection;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -35,8 +35,9 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public abstract class PersistableNetworkPayloadStore<T extends PersistableNetworkPayload> implements PersistableEnvelope {
+    // Stores with several hundred thousand items are common, so we use a map storing the hashes inline
     @Getter
-    protected final Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = new ConcurrentHashMap<>();
+    protected final Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = new CompactByteArrayMap<>();
 
     protected PersistableNetworkPayloadStore() {
     }
@@ -0,0 +1,63 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Read only view of the payloads of one type in the stores of the {@link AppendOnlyDataStoreService}.
+ * <p>
+ * The view does not copy any data but accesses the maps of the stores (live and historical data) directly,
+ * so domain services do not need to keep their own copy of large data sets like the account age witnesses.
+ */
+public class PersistableNetworkPayloadView<T extends PersistableNetworkPayload> {
+    private final AppendOnlyDataStoreService appendOnlyDataStoreService;
+    private final Class<T> payloadClass;
+
+    public PersistableNetworkPayloadView(AppendOnlyDataStoreService appendOnlyDataStoreService,
+                                         Class<T> payloadClass) {
+        this.appendOnlyDataStoreService = appendOnlyDataStoreService;
+        this.payloadClass = payloadClass;
+    }
+
+    public Optional<T> find(P2PDataStorage.ByteArray hash) {
+        for (Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map : appendOnlyDataStoreService.getMapsOfAllData()) {
+            PersistableNetworkPayload payload = map.get(hash);
+            if (payloadClass.isInstance(payload)) {
+                return Optional.of(payloadClass.cast(payload));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public boolean containsKey(P2PDataStorage.ByteArray hash) {
+        return find(hash).isPresent();
+    }
+
+    public Stream<T> stream() {
+        return appendOnlyDataStoreService.getMapsOfAllData().stream()
+                .flatMap(map -> map.values().stream())
+                .filter(payloadClass::isInstance)
+                .map(payloadClass::cast);
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompactByteArrayMapTest {
+    private final Random random = new Random(42);
+
+    private P2PDataStorage.ByteArray randomKey(int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return new P2PDataStorage.ByteArray(bytes);
+    }
+
+    // TESTCASE: Random puts and removes give the same result as with a HashMap, also if keys collide
+    @Test
+    public void randomOperations_sameAsHashMap() {
+        Map<P2PDataStorage.ByteArray, Integer> expected = new HashMap<>();
+        CompactByteArrayMap<Integer> map = new CompactByteArrayMap<>();
+        List<P2PDataStorage.ByteArray> keys = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            P2PDataStorage.ByteArray key = randomKey(20);
+            // Keys with the same first 8 bytes end up in the same probe sequence
+            if (i % 3 == 0 && !keys.isEmpty()) {
+                System.arraycopy(keys.get(i % keys.size()).bytes, 0, key.bytes, 0, 8);
+            }
+            keys.add(key);
+        }
+        keys.add(randomKey(32));
+        keys.add(randomKey(8));
+
+        for (int i = 0; i < 20000; i++) {
+            P2PDataStorage.ByteArray key = keys.get(random.nextInt(keys.size()));
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                Assert.assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+
+        Assert.assertEquals(expected.size(), map.size());
+        Assert.assertEquals(expected, map);
+        keys.forEach(key -> Assert.assertEquals(expected.get(key), map.get(key)));
+    }
+
+    // TESTCASE: Removing keys via the key set while iterating does not fail and removes the keys from the map
+    @Test
+    public void keySet_removeWhileIterating() {
+        CompactByteArrayMap<Integer> map = new CompactByteArrayMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(randomKey(20), i);
+        }
+
+        map.keySet().removeIf(key -> map.get(key) % 2 == 0);
+
+        Assert.assertEquals(50, map.size());
+        map.values().forEach(value -> Assert.assertEquals(1, value % 2));
+    }
+
+    // TESTCASE: putIfAbsent does not replace an existing value
+    @Test
+    public void putIfAbsent_keepsExistingValue() {
+        CompactByteArrayMap<Integer> map = new CompactByteArrayMap<>();
+        P2PDataStorage.ByteArray key = randomKey(20);
+
+        Assert.assertNull(map.putIfAbsent(key, 1));
+        Assert.assertEquals(Integer.valueOf(1), map.putIfAbsent(new P2PDataStorage.ByteArray(key.bytes.clone()), 2));
+        Assert.assertEquals(Integer.valueOf(1), map.get(key));
+    }
+
+    // TESTCASE: Iterating while another thread adds and removes entries (incl. resizes) returns each entry which
+    // is in the map during the whole iteration exactly once
+    @Test
+    public void iterate_whileModifiedConcurrently() throws InterruptedException {
+        CompactByteArrayMap<Integer> map = new CompactByteArrayMap<>();
+        Set<P2PDataStorage.ByteArray> stableKeys = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            P2PDataStorage.ByteArray key = randomKey(20);
+            stableKeys.add(key);
+            map.put(key, i);
+        }
+        List<P2PDataStorage.ByteArray> changingKeys = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            changingKeys.add(randomKey(i % 100 == 0 ? 32 : 20));
+        }
+
+        AtomicBoolean stopped = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            int i = 0;
+            while (!stopped.get()) {
+                P2PDataStorage.ByteArray key = changingKeys.get(i++ % changingKeys.size());
+                if (map.containsKey(key)) {
+                    map.remove(key);
+                } else {
+                    map.put(key, -1);
+                }
+            }
+        });
+        writer.start();
+        try {
+            for (int run = 0; run < 50; run++) {
+                Set<P2PDataStorage.ByteArray> keys = new HashSet<>();
+                map.keySet().forEach(key -> Assert.assertTrue("Key returned twice", keys.add(key)));
+                Assert.assertTrue(keys.containsAll(stableKeys));
+
+                Assert.assertEquals(stableKeys.size(), map.values().stream().filter(value -> value >= 0).count());
+
+                AtomicInteger numStableEntries = new AtomicInteger();
+                map.forEach((key, value) -> {
+                    if (value >= 0) {
+                        Assert.assertTrue(stableKeys.contains(key));
+                        numStableEntries.incrementAndGet();
+                    }
+                });
+                Assert.assertEquals(stableKeys.size(), numStableEntries.get());
+            }
+        } finally {
+            stopped.set(true);
+            writer.join();
+        }
+    }
+
+    // TESTCASE: Removals and resizes during the iteration do not move the entries which were not returned yet
+    // in front of the iterator
+    @Test
+    public void iterate_whileRemovingAndResizing() {
+        CompactByteArrayMap<Integer> map = new CompactByteArrayMap<>();
+        Set<P2PDataStorage.ByteArray> stableKeys = new HashSet<>();
+        List<P2PDataStorage.ByteArray> removedKeys = new ArrayList<>();
+        // The map is filled close to its load factor, so we get long probe sequences
+        for (int i = 0; i < 3000; i++) {
+            P2PDataStorage.ByteArray key = randomKey(20);
+            if (i % 2 == 0) {
+                stableKeys.add(key);
+            } else {
+                removedKeys.add(key);
+            }
+            map.put(key, i);
+        }
+
+        Set<P2PDataStorage.ByteArray> keys = new HashSet<>();
+        Iterator<P2PDataStorage.ByteArray> iterator = map.keySet().iterator();
+        int i = 0;
+        while (iterator.hasNext()) {
+            Assert.assertTrue("Key returned twice", keys.add(iterator.next()));
+            if (i < removedKeys.size()) {
+                map.remove(removedKeys.get(i));
+            }
+            map.put(randomKey(20), -1);
+            i++;
+        }
+
+        Assert.assertTrue(keys.containsAll(stableKeys));
+    }
+}
@@ -17,29 +17,64 @@
 
 package bisq.price;
 
-import bisq.common.UserThread;
-
 import org.springframework.context.SmartLifecycle;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import java.time.Duration;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
+/**
+ * Base class for all providers of price and fee data. The data is refreshed periodically
+ * and cached, so {@link #get()} never blocks.
+ * <p>
+ * All providers share one scheduler. The refreshes themselves run concurrently on a shared
+ * thread pool, so a slow provider does not delay the others. A refresh which takes
+ * longer than {@link #getRefreshTimeout()} gets cancelled (a partial result is still
+ * used), and a provider whose last
+ * successful refresh is older than {@link #getMaxDataAge()} is considered stale.
+ */
 public abstract class PriceProvider<T> implements SmartLifecycle, Supplier<T> {
 
-    protected final Logger log = LoggerFactory.getLogger(this.getClass());
+    // Only used for triggering refreshes and cancelling refreshes after their timeout
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("PriceProvider-scheduler").setDaemon(true).build());
+    // As a provider never runs more than one refresh at a time, the number of threads is
+    // limited by the number of providers
+    private static final ExecutorService REFRESH_EXECUTOR = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setNameFormat("PriceProvider-refresh-%d").setDaemon(true).build());
 
-    private final Timer timer = new Timer(true);
+    protected final Logger log = LoggerFactory.getLogger(this.getClass());
 
     protected final Duration refreshInterval;
 
-    private T cachedResult;
+    private final List<Runnable> refreshListeners = new CopyOnWriteArrayList<>();
+
+    private final AtomicBoolean refreshRunning = new AtomicBoolean();
+
+    @Nullable
+    private Future<?> scheduledRefreshes;
+
+    @Nullable
+    private Future<?> pendingRefresh;
+
+    private volatile long lastRefreshTs;
+
+    private volatile T cachedResult;
 
     public PriceProvider(Duration refreshInterval) {
         this.refreshInterval = refreshInterval;
@@ -52,39 +87,70 @@ public abstract class PriceProvider<T> implements SmartLifecycle, Supplier<T> {
     }
 
     @Override
-    public final void start() {
-        // do the initial refresh asynchronously
-        UserThread.runAfter(() -> {
+    public final synchronized void start() {
+        // the initial refresh is done right away, but asynchronously
+        scheduledRefreshes = SCHEDULER.scheduleAtFixedRate(this::scheduleRefresh,
+                0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void scheduleRefresh() {
+        if (isStale()) {
+            log.warn("data is stale, last successful refresh was {} sec. ago",
+                    (System.currentTimeMillis() - lastRefreshTs) / 1000);
+        }
+
+        // A refresh which got cancelled might still block its thread (e.g. in a socket
+        // read which does not react to interrupts). We don't start another one to not
+        // pile up hanging threads.
+        if (!refreshRunning.compareAndSet(false, true)) {
+            log.warn("previous refresh is still running, skipping this refresh");
+            return;
+        }
+
+        Future<?> refresh = REFRESH_EXECUTOR.submit(() -> {
             try {
                 refresh();
             } catch (Throwable t) {
-                log.warn("initial refresh failed", t);
+                // we only log calls to refresh that fail to ensure that the application
+                // does *not* halt, assuming the failure is temporary and on the side of
+                // the upstream price provider, eg. BitcoinAverage
+                log.warn("refresh failed", t);
+            } finally {
+                refreshRunning.set(false);
             }
-        }, 1, TimeUnit.MILLISECONDS);
-
-        timer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                try {
-                    refresh();
-                } catch (Throwable t) {
-                    // we only log scheduled calls to refresh that fail to ensure that
-                    // the application does *not* halt, assuming the failure is temporary
-                    // and on the side of the upstream price provider, eg. BitcoinAverage
-                    log.warn("refresh failed", t);
-                }
+        });
+        pendingRefresh = refresh;
+
+        SCHEDULER.schedule(() -> {
+            if (!refresh.isDone()) {
+                log.warn("refresh did not complete within {}, cancelling it", getRefreshTimeout());
+                refresh.cancel(true);
             }
-        }, refreshInterval.toMillis(), refreshInterval.toMillis());
+        }, getRefreshTimeout().toMillis(), TimeUnit.MILLISECONDS);
     }
 
     private void refresh() {
         long ts = System.currentTimeMillis();
 
-        cachedResult = doGet();
+        T result = doGet();
+        // Thread.interrupted() clears the flag, so the listeners do not run on an interrupted thread
+        if (Thread.interrupted()) {
+            if (result == null) {
+                log.warn("refresh got cancelled after {} ms., there is no result", (System.currentTimeMillis() - ts));
+                return;
+            }
+            // Providers which query their tickers one by one return the tickers they got until the
+            // cancellation. Publishing them is better than having no data at all.
+            log.warn("refresh got cancelled after {} ms., using the partial result", (System.currentTimeMillis() - ts));
+        }
+        cachedResult = result;
+        lastRefreshTs = System.currentTimeMillis();
 
-        log.info("refresh took {} ms.", (System.currentTimeMillis() - ts));
+        log.info("refresh took {} ms.", (lastRefreshTs - ts));
 
         onRefresh();
+
+        refreshListeners.forEach(Runnable::run);
     }
 
     protected abstract T doGet();
@@ -92,9 +158,51 @@ public abstract class PriceProvider<T> implements SmartLifecycle, Supplier<T> {
     protected void onRefresh() {
     }
 
+    /**
+     * @param listener called after each successful refresh, on the thread which did the
+     *                 refresh
+     */
+    public void addRefreshListener(Runnable listener) {
+        refreshListeners.add(listener);
+    }
+
+    /**
+     * @return max. duration of a refresh before it gets cancelled. By default two refresh
+     * intervals, so a provider which regularly needs a bit longer than its interval still
+     * gets its data published (the refreshes in between are skipped). It is shorter than
+     * {@link #getMaxDataAge()}, so a refresh gets cancelled before the data gets stale.
+     */
+    protected Duration getRefreshTimeout() {
+        return refreshInterval.multipliedBy(2);
+    }
+
+    /**
+     * @return max. age of the data of the last successful refresh before the provider
+     * is considered stale. By default three refresh intervals.
+     */
+    protected Duration getMaxDataAge() {
+        return refreshInterval.multipliedBy(3);
+    }
+
+    /**
+     * @return true if there was a successful refresh, but it is older than
+     * {@link #getMaxDataAge()}
+     */
+    public boolean isStale() {
+        long ts = lastRefreshTs;
+        return ts > 0 && System.currentTimeMillis() - ts > getMaxDataAge().toMillis();
+    }
+
     @Override
-    public void stop() {
-        timer.cancel();
+    public synchronized void stop() {
+        if (scheduledRefreshes != null) {
+            scheduledRefreshes.cancel(false);
+            scheduledRefreshes = null;
+        }
+        if (pendingRefresh != null) {
+            pendingRefresh.cancel(true);
+            pendingRefresh = null;
+        }
     }
 
     @Override
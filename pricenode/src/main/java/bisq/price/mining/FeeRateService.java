@@ -67,6 +67,10 @@ public class FeeRateService {
                 log.warn("feeRate is null, provider={} ", p.toString());
                 return;
             }
+            if (p.isStale()) {
+                log.warn("feeRate is stale, provider={} ", p.toString());
+                return;
+            }
             String currency = feeRate.getCurrency();
             if ("BTC".equals(currency)) {
                 sumOfAllFeeRates.getAndAdd(feeRate.getPrice());
@@ -18,36 +18,101 @@
 package bisq.price.spot;
 
 import bisq.price.PriceController;
-import bisq.price.mining.FeeRateService;
+import bisq.price.spot.MarketPricesSnapshotService.MarketPricesSnapshot;
 
 import bisq.common.config.Config;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @RestController
 class ExchangeRateController extends PriceController {
 
-    private final ExchangeRateService exchangeRateService;
-    private final FeeRateService feeRateService;
+    private static final int MAX_WAIT_SEC = 60;
 
-    public ExchangeRateController(ExchangeRateService exchangeRateService, FeeRateService feeRateService) {
-        this.exchangeRateService = exchangeRateService;
-        this.feeRateService = feeRateService;
+    private final MarketPricesSnapshotService marketPricesSnapshotService;
+
+    public ExchangeRateController(MarketPricesSnapshotService marketPricesSnapshotService) {
+        this.marketPricesSnapshotService = marketPricesSnapshotService;
     }
 
     @GetMapping(path = "/getAllMarketPrices")
-    public Map<String, Object> getAllMarketPrices() {
-        Map<String, Object> retVal = exchangeRateService.getAllMarketPrices();
+    public ResponseEntity<byte[]> getAllMarketPrices(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        MarketPricesSnapshot snapshot = marketPricesSnapshotService.getSnapshot();
+
+        if (snapshot.matches(ifNoneMatch))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getETag()).build();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(snapshot.getETag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip"))
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzippedJson());
+
+        return response.body(snapshot.getJson());
+    }
 
-        // add the fee info to results
-        feeRateService.getFees().forEach((key, value) -> {
-            retVal.put(translateFieldName(key), value);
-        });
+    /**
+     * Returns only the exchange rates which have changed since the snapshot with version
+     * {@code sinceVersion} of the pricenode run identified by {@code epoch}. If
+     * {@code waitSec} is set and no newer snapshot is available yet, the response is
+     * delayed until the next snapshot gets published or the wait time (max.
+     * {@value #MAX_WAIT_SEC} sec.) has passed. The field {@code held} tells the client
+     * if the response was delayed.
+     */
+    @GetMapping(path = "/getMarketPricesDelta")
+    public DeferredResult<Map<String, Object>> getMarketPricesDelta(
+            @RequestParam(value = "epoch", defaultValue = "") String epoch,
+            @RequestParam(value = "sinceVersion", defaultValue = "0") long sinceVersion,
+            @RequestParam(value = "waitSec", defaultValue = "0") int waitSec) {
+        long timeoutMs = TimeUnit.SECONDS.toMillis(Math.max(1, Math.min(waitSec, MAX_WAIT_SEC)));
+        DeferredResult<Map<String, Object>> result = new DeferredResult<>(timeoutMs);
+
+        MarketPricesSnapshot snapshot = marketPricesSnapshotService.getSnapshot();
+        if (waitSec <= 0 || !snapshot.isCurrent(epoch, sinceVersion)) {
+            result.setResult(getDelta(snapshot, epoch, sinceVersion, false));
+            return result;
+        }
+
+        Consumer<MarketPricesSnapshot> handler = newSnapshot ->
+                result.setResult(getDelta(newSnapshot, epoch, sinceVersion, true));
+        marketPricesSnapshotService.addNextSnapshotHandler(handler);
+        result.onTimeout(() ->
+                result.setResult(getDelta(marketPricesSnapshotService.getSnapshot(), epoch, sinceVersion, true)));
+        result.onCompletion(() -> marketPricesSnapshotService.removeNextSnapshotHandler(handler));
+
+        // A new snapshot might have been published before our handler was registered
+        MarketPricesSnapshot latest = marketPricesSnapshotService.getSnapshot();
+        if (!latest.isCurrent(epoch, sinceVersion)) {
+            marketPricesSnapshotService.removeNextSnapshotHandler(handler);
+            result.setResult(getDelta(latest, epoch, sinceVersion, false));
+        }
+
+        return result;
+    }
 
-        return retVal;
+    private static Map<String, Object> getDelta(MarketPricesSnapshot snapshot,
+                                                String epoch,
+                                                long sinceVersion,
+                                                boolean held) {
+        Map<String, Object> delta = snapshot.getDelta(epoch, sinceVersion);
+        delta.put("held", held);
+        return delta;
     }
 
     static String translateFieldName(String name) {
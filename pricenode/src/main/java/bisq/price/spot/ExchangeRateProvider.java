@@ -67,6 +67,7 @@ public abstract class ExchangeRateProvider extends PriceProvider<Set<ExchangeRat
     private final String name;
     private final String prefix;
     private final Environment env;
+    private long lastMarketDataCallTs;
 
     public ExchangeRateProvider(Environment env, String name, String prefix, Duration refreshInterval) {
         super(refreshInterval);
@@ -224,30 +225,27 @@ public abstract class ExchangeRateProvider extends PriceProvider<Set<ExchangeRat
 
             // In this case (retrieval of bulk tickers is not possible) retrieve the
             // tickers one by one
-            List<Ticker> finalTickersRetrievedFromExchange = tickersRetrievedFromExchange;
-            Stream.of(desiredFiatPairs, desiredCryptoPairs)
+            for (CurrencyPair cp : Stream.of(desiredFiatPairs, desiredCryptoPairs)
                     .flatMap(Collection::stream)
-                    .collect(Collectors.toList())
-                    .forEach(cp -> {
-                        try {
-
-                            // This is done in a loop, and can therefore result in a burst
-                            // of API calls. Some exchanges do not allow bursts
-                            // A simplistic solution is to delay every call by 1 second
-                            // TODO Switch to using a more elegant solution (per exchange)
-                            // like ResilienceSpecification (needs knowm xchange libs v5)
-                            if (getMarketDataCallDelay() > 0) {
-                                Thread.sleep(getMarketDataCallDelay());
-                            }
-
-                            Ticker ticker = marketDataService.getTicker(cp);
-                            finalTickersRetrievedFromExchange.add(ticker);
-
-                        } catch (IOException | InterruptedException ioException) {
-                            ioException.printStackTrace();
-                            log.error("Could not query tickers for " + getName(), e);
-                        }
-                    });
+                    .collect(Collectors.toList())) {
+                try {
+                    // This is done in a loop, and can therefore result in a burst of API
+                    // calls. Some exchanges do not allow bursts, so we respect the
+                    // exchange's call budget (see getMarketDataCallDelay())
+                    awaitMarketDataCallBudget();
+
+                    Ticker ticker = marketDataService.getTicker(cp);
+                    tickersRetrievedFromExchange.add(ticker);
+
+                } catch (InterruptedException interruptedException) {
+                    // The refresh got cancelled because it exceeded its timeout
+                    Thread.currentThread().interrupt();
+                    log.warn("Querying tickers for {} got interrupted", getName());
+                    break;
+                } catch (IOException ioException) {
+                    log.error("Could not query tickers for " + getName(), ioException);
+                }
+            }
         } catch (ExchangeException | // Errors reported by the exchange (rate limit, etc)
                 IOException | // Errors while trying to connect to the API (timeouts, etc)
                 // Potential error when integrating new exchange (hints that exchange
@@ -295,6 +293,27 @@ public abstract class ExchangeRateProvider extends PriceProvider<Set<ExchangeRat
         return result;
     }
 
+    /**
+     * Waits until the next market data call is allowed by the exchange's call budget,
+     * which is one call per {@link #getMarketDataCallDelay()} ms. The budget is kept across
+     * refreshes, so also the first call of a refresh respects it.
+     */
+    private void awaitMarketDataCallBudget() throws InterruptedException {
+        long delay = getMarketDataCallDelay();
+        if (delay <= 0)
+            return;
+
+        long waitTime;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            long nextCallTs = Math.max(now, lastMarketDataCallTs + delay);
+            lastMarketDataCallTs = nextCallTs;
+            waitTime = nextCallTs - now;
+        }
+        if (waitTime > 0)
+            Thread.sleep(waitTime);
+    }
+
     /**
      * Specifies optional delay between certain kind of API calls that can result in
      * bursts. We want to avoid bursts, because this can cause certain exchanges to
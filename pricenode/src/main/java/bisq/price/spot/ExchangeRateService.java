@@ -138,7 +138,9 @@ class ExchangeRateService {
     private Map<String, List<ExchangeRate>> getCurrencyCodeToExchangeRates() {
         Map<String, List<ExchangeRate>> currencyCodeToExchangeRates = new HashMap<>();
         for (ExchangeRateProvider p : providers) {
-            if (p.get() == null)
+            // We don't let outdated rates of a stale provider distort the aggregate rates.
+            // Its metadata still gets delivered, so clients can see the old timestamp.
+            if (p.get() == null || p.isStale())
                 continue;
             for (ExchangeRate exchangeRate : p.get()) {
                 String currencyCode = exchangeRate.getCurrency();
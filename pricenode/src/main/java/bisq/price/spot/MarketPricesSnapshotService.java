@@ -0,0 +1,312 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price.spot;
+
+import bisq.price.mining.FeeRateProvider;
+import bisq.price.mining.FeeRateService;
+
+import bisq.common.config.Config;
+
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.google.common.hash.Hashing;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.security.SecureRandom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the response of the {@code /getAllMarketPrices} endpoint as an immutable
+ * {@link MarketPricesSnapshot}. The snapshot gets rebuilt whenever one of the
+ * {@link ExchangeRateProvider}s or {@link FeeRateProvider}s has refreshed its data, so
+ * requests are served from already serialized (and gzipped) bytes instead of
+ * aggregating all provider data on each request.
+ * <p>
+ * Each snapshot has a version and remembers in which version each currency's rate has
+ * changed last, so clients which already have an older version only need to receive the
+ * rates which changed since then (see {@link MarketPricesSnapshot#getDelta(String, long)}).
+ * The version only gets increased if the exchange rates or fee rates have changed.
+ * Versions are only valid together with the random epoch of this pricenode run.
+ */
+@Service
+class MarketPricesSnapshotService {
+    protected final Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final ExchangeRateService exchangeRateService;
+    private final FeeRateService feeRateService;
+    private final ObjectMapper objectMapper;
+
+    // Versions start at 1 on each run of the pricenode. The random epoch lets us detect
+    // versions received from a previous run, which must not be used for a delta.
+    private final String epoch = Long.toHexString(new SecureRandom().nextLong());
+    private final Set<Consumer<MarketPricesSnapshot>> nextSnapshotHandlers = ConcurrentHashMap.newKeySet();
+    private volatile MarketPricesSnapshot snapshot;
+
+    public MarketPricesSnapshotService(ExchangeRateService exchangeRateService,
+                                       FeeRateService feeRateService,
+                                       List<ExchangeRateProvider> exchangeRateProviders,
+                                       List<FeeRateProvider> feeRateProviders,
+                                       ObjectMapper objectMapper) {
+        this.exchangeRateService = exchangeRateService;
+        this.feeRateService = feeRateService;
+        this.objectMapper = objectMapper;
+
+        exchangeRateProviders.forEach(provider -> provider.addRefreshListener(this::onProviderRefreshed));
+        feeRateProviders.forEach(provider -> provider.addRefreshListener(this::onProviderRefreshed));
+    }
+
+    /**
+     * @return the latest snapshot. If no provider has refreshed yet, the snapshot gets
+     * created from the data available at the time of the call.
+     */
+    public MarketPricesSnapshot getSnapshot() {
+        MarketPricesSnapshot current = snapshot;
+        return current != null ? current : update();
+    }
+
+    /**
+     * Registers a handler which gets called once with the next published snapshot. Used
+     * for long-polling requests. The handler gets called from the thread of the provider
+     * which triggered the update.
+     */
+    public void addNextSnapshotHandler(Consumer<MarketPricesSnapshot> handler) {
+        nextSnapshotHandlers.add(handler);
+    }
+
+    public void removeNextSnapshotHandler(Consumer<MarketPricesSnapshot> handler) {
+        nextSnapshotHandlers.remove(handler);
+    }
+
+    private void onProviderRefreshed() {
+        try {
+            MarketPricesSnapshot previous = snapshot;
+            MarketPricesSnapshot newSnapshot = update();
+            if (previous != null && previous.getVersion() == newSnapshot.getVersion())
+                return;
+
+            nextSnapshotHandlers.forEach(handler -> {
+                if (nextSnapshotHandlers.remove(handler))
+                    handler.accept(newSnapshot);
+            });
+        } catch (Throwable t) {
+            // We keep serving the previous snapshot
+            log.error("Updating market prices snapshot failed", t);
+        }
+    }
+
+    private synchronized MarketPricesSnapshot update() {
+        long ts = System.currentTimeMillis();
+        Map<String, Object> marketPrices = exchangeRateService.getAllMarketPrices();
+
+        // add the fee info to results
+        Map<String, Object> fees = feeRateService.getFees();
+        fees.forEach((key, value) ->
+                marketPrices.put(ExchangeRateController.translateFieldName(key), value));
+        // Only the rates are relevant for the version, the fee timestamp changes on each call
+        Object feeRates = fees.get(Config.LEGACY_FEE_DATAMAP);
+
+        @SuppressWarnings("unchecked")
+        List<ExchangeRate> exchangeRates = (List<ExchangeRate>) marketPrices.get("data");
+        Map<String, Object> metadata = new LinkedHashMap<>(marketPrices);
+        metadata.remove("data");
+
+        Map<String, ExchangeRate> exchangeRateByCurrency = new LinkedHashMap<>();
+        exchangeRates.forEach(exchangeRate -> exchangeRateByCurrency.put(exchangeRate.getCurrency(), exchangeRate));
+
+        MarketPricesSnapshot previous = snapshot;
+        boolean changed = previous == null ||
+                !exchangeRateByCurrency.equals(previous.exchangeRateByCurrency) ||
+                !Objects.equals(feeRates, previous.feeRates);
+        long version = previous == null ? 1 : changed ? previous.getVersion() + 1 : previous.getVersion();
+
+        Map<String, Long> changedAtVersionByCurrency = new HashMap<>();
+        exchangeRateByCurrency.forEach((currency, exchangeRate) -> {
+            boolean unchanged = previous != null && exchangeRate.equals(previous.exchangeRateByCurrency.get(currency));
+            changedAtVersionByCurrency.put(currency,
+                    unchanged ? previous.changedAtVersionByCurrency.get(currency) : version);
+        });
+
+        // A delta cannot express removed currencies, so clients with a version from before
+        // a removal get a full response
+        boolean removed = previous != null &&
+                !exchangeRateByCurrency.keySet().containsAll(previous.exchangeRateByCurrency.keySet());
+        long fullBeforeVersion = previous == null || removed ? version : previous.fullBeforeVersion;
+
+        snapshot = new MarketPricesSnapshot(epoch,
+                version,
+                fullBeforeVersion,
+                toJson(marketPrices),
+                metadata,
+                feeRates,
+                exchangeRateByCurrency,
+                changedAtVersionByCurrency);
+        if (changed) {
+            log.info("Updated market prices snapshot to version {}. Took {} ms.",
+                    version, System.currentTimeMillis() - ts);
+        } else {
+            log.debug("Market prices are unchanged, we keep version {}.", version);
+        }
+        return snapshot;
+    }
+
+    private byte[] toJson(Map<String, Object> marketPrices) {
+        try {
+            return objectMapper.writeValueAsBytes(marketPrices);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // MarketPricesSnapshot
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Immutable, serialized state of all market prices and fees at one point in time.
+     */
+    static final class MarketPricesSnapshot {
+        private final String epoch;
+        private final long version;
+        // Clients with an older version get a full response
+        private final long fullBeforeVersion;
+        private final byte[] json;
+        private final byte[] gzippedJson;
+        private final String eTag;
+        private final Map<String, Object> metadata;
+        private final Object feeRates;
+        private final Map<String, ExchangeRate> exchangeRateByCurrency;
+        private final Map<String, Long> changedAtVersionByCurrency;
+
+        MarketPricesSnapshot(String epoch,
+                             long version,
+                             long fullBeforeVersion,
+                             byte[] json,
+                             Map<String, Object> metadata,
+                             Object feeRates,
+                             Map<String, ExchangeRate> exchangeRateByCurrency,
+                             Map<String, Long> changedAtVersionByCurrency) {
+            this.epoch = epoch;
+            this.version = version;
+            this.fullBeforeVersion = fullBeforeVersion;
+            this.json = json;
+            this.gzippedJson = gzip(json);
+            this.eTag = "\"" + Hashing.sha256().hashBytes(json).toString().substring(0, 32) + "\"";
+            this.metadata = Collections.unmodifiableMap(metadata);
+            this.feeRates = feeRates;
+            this.exchangeRateByCurrency = Collections.unmodifiableMap(exchangeRateByCurrency);
+            this.changedAtVersionByCurrency = Collections.unmodifiableMap(changedAtVersionByCurrency);
+        }
+
+        long getVersion() {
+            return version;
+        }
+
+        /**
+         * @return true if the client with the given epoch and version has the data of
+         * this snapshot already
+         */
+        boolean isCurrent(String sinceEpoch, long sinceVersion) {
+            return epoch.equals(sinceEpoch) && version == sinceVersion;
+        }
+
+        /**
+         * @param sinceEpoch   the epoch the client has received last, empty if it has none
+         * @param sinceVersion the version of the snapshot the client has received last,
+         *                     0 if it has none
+         * @return the metadata (provider timestamps and fee info) together with the
+         * exchange rates which have changed since the given version. If the version is
+         * unknown (e.g. from before a restart) or currencies have been removed since then,
+         * all exchange rates are included and the field {@code full} is set to true.
+         */
+        Map<String, Object> getDelta(String sinceEpoch, long sinceVersion) {
+            boolean full = !epoch.equals(sinceEpoch) || sinceVersion < fullBeforeVersion || sinceVersion > version;
+            List<ExchangeRate> changed = exchangeRateByCurrency.values().stream()
+                    .filter(exchangeRate -> full ||
+                            changedAtVersionByCurrency.get(exchangeRate.getCurrency()) > sinceVersion)
+                    .collect(Collectors.toCollection(ArrayList::new));
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("epoch", epoch);
+            result.put("version", version);
+            result.put("full", full);
+            result.putAll(metadata);
+            result.put("data", changed);
+            return result;
+        }
+
+        byte[] getJson() {
+            return json;
+        }
+
+        byte[] getGzippedJson() {
+            return gzippedJson;
+        }
+
+        String getETag() {
+            return eTag;
+        }
+
+        /**
+         * @param ifNoneMatch value of the If-None-Match request header, might be null
+         * @return true if the client already has the data of this snapshot
+         */
+        boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            return Arrays.stream(ifNoneMatch.split(","))
+                    .map(String::trim)
+                    // We compare weakly, so also accept an ETag marked as weak by a proxy
+                    .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                    .anyMatch(tag -> tag.equals("*") || tag.equals(eTag));
+        }
+
+        private static byte[] gzip(byte[] data) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length / 4);
+            try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+                gzipOutputStream.write(data);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return outputStream.toByteArray();
+        }
+    }
+}
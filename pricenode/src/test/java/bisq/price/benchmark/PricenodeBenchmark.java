@@ -0,0 +1,289 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price.benchmark;
+
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import java.time.Duration;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.lang.management.ManagementFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline load test for the pricenode. Boots the Spring pricenode on a random port with
+ * stub exchange rate and fee rate providers (no network access needed) and requests
+ * {@code /getAllMarketPrices} and {@code /getFees} from a configurable number of
+ * concurrent clients. Reports throughput, latency percentiles and the server side
+ * allocation per request.
+ * <p>
+ * Run with {@code ./gradlew :pricenode:benchmark}. The parameters are set as system
+ * properties, e.g. {@code ./gradlew :pricenode:benchmark -Dbenchmark.concurrency=32}:
+ * <ul>
+ * <li>{@code benchmark.concurrency}: number of concurrent clients (default 16)</li>
+ * <li>{@code benchmark.warmupSec}: duration of the warmup, not measured (default 10)</li>
+ * <li>{@code benchmark.durationSec}: duration of the measurement (default 30)</li>
+ * <li>{@code benchmark.providers}: number of stub exchange rate providers (default 5)</li>
+ * <li>{@code benchmark.refreshIntervalMs}: refresh interval of the stub providers
+ * (default 1000)</li>
+ * <li>{@code benchmark.providerLatencyMs}: simulated exchange API latency at each
+ * refresh (default 200)</li>
+ * <li>{@code benchmark.endpoints}: comma separated endpoints (default
+ * getAllMarketPrices,getFees)</li>
+ * <li>{@code benchmark.gzip}: whether clients accept gzip encoding (default true)</li>
+ * </ul>
+ * The allocation per request is estimated from the bytes allocated by all threads of
+ * the JVM except the client threads, so it also contains the allocations of the stub
+ * providers and of threads which terminated during the measurement are missing.
+ */
+public class PricenodeBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 16);
+    private static final int WARMUP_SEC = Integer.getInteger("benchmark.warmupSec", 10);
+    private static final int DURATION_SEC = Integer.getInteger("benchmark.durationSec", 30);
+    private static final int PROVIDERS = Integer.getInteger("benchmark.providers", 5);
+    private static final long REFRESH_INTERVAL_MS = Long.getLong("benchmark.refreshIntervalMs", 1000);
+    private static final long PROVIDER_LATENCY_MS = Long.getLong("benchmark.providerLatencyMs", 200);
+    private static final List<String> ENDPOINTS = Arrays.asList(
+            System.getProperty("benchmark.endpoints", "getAllMarketPrices,getFees").split("\\s*,\\s*"));
+    private static final boolean GZIP = Boolean.parseBoolean(System.getProperty("benchmark.gzip", "true"));
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Spring configuration of the pricenode without the real providers, which would
+     * connect to the exchanges.
+     */
+    @Configuration
+    @EnableAutoConfiguration
+    @ComponentScan(basePackages = "bisq.price", excludeFilters = @ComponentScan.Filter(
+            type = FilterType.REGEX,
+            pattern = {"bisq\\.price\\.Main", "bisq\\.price\\.(spot|mining)\\.providers\\..*", "bisq\\.price\\.benchmark\\..*"}))
+    static class BenchmarkConfiguration {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BenchmarkConfiguration.class)
+                .properties("server.port=0",
+                        // We don't want to log each request
+                        "logging.level.bisq.price=WARN")
+                .initializers(ctx -> {
+                    Duration refreshInterval = Duration.ofMillis(REFRESH_INTERVAL_MS);
+                    for (int i = 0; i < PROVIDERS; i++) {
+                        ctx.getBeanFactory().registerSingleton("stubExchangeRateProvider" + i,
+                                new StubExchangeRateProvider(ctx.getEnvironment(), i, refreshInterval, PROVIDER_LATENCY_MS));
+                    }
+                    ctx.getBeanFactory().registerSingleton("stubFeeRateProvider",
+                            new StubFeeRateProvider(refreshInterval));
+                })
+                .run(args);
+
+        try {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/";
+            System.out.printf("Pricenode started at %s with %d stub providers%n", baseUrl, PROVIDERS);
+
+            // Give the providers time for their initial refresh
+            Thread.sleep(REFRESH_INTERVAL_MS + PROVIDER_LATENCY_MS);
+
+            System.out.printf("Warming up for %d sec.%n", WARMUP_SEC);
+            run(baseUrl, WARMUP_SEC);
+
+            System.out.printf("Measuring for %d sec. with %d clients, endpoints %s, gzip %s%n",
+                    DURATION_SEC, CONCURRENCY, ENDPOINTS, GZIP);
+            report(run(baseUrl, DURATION_SEC));
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Result run(String baseUrl, int durationSec) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            CountDownLatch startLatch = new CountDownLatch(1);
+            List<Future<Client>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENCY; i++) {
+                int offset = i;
+                futures.add(executor.submit(() -> {
+                    Client client = new Client(baseUrl, offset);
+                    startLatch.await();
+                    client.run(durationSec);
+                    return client;
+                }));
+            }
+
+            long allocatedBytesAtStart = getAllocatedBytesOfAllThreads();
+            long startTs = System.nanoTime();
+            startLatch.countDown();
+
+            List<Client> clients = new ArrayList<>();
+            for (Future<Client> future : futures) {
+                clients.add(future.get());
+            }
+            long elapsedNanos = System.nanoTime() - startTs;
+            long allocatedBytes = getAllocatedBytesOfAllThreads() - allocatedBytesAtStart;
+            long clientAllocatedBytes = clients.stream().mapToLong(client -> client.allocatedBytes).sum();
+            return new Result(clients, elapsedNanos, allocatedBytes - clientAllocatedBytes);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void report(Result result) {
+        double elapsedSec = result.elapsedNanos / 1e9;
+        long totalRequests = 0;
+        for (int i = 0; i < ENDPOINTS.size(); i++) {
+            int endpointIndex = i;
+            long[] latencies = result.clients.stream()
+                    .flatMapToLong(client -> Arrays.stream(client.latencies[endpointIndex], 0, client.counts[endpointIndex]))
+                    .sorted()
+                    .toArray();
+            long errors = result.clients.stream().mapToLong(client -> client.errors[endpointIndex]).sum();
+            totalRequests += latencies.length;
+
+            System.out.printf(Locale.US, "%-20s requests %8d  errors %5d  throughput %9.1f req/s  " +
+                            "latency ms: p50 %7.2f  p90 %7.2f  p99 %7.2f  p99.9 %7.2f  max %7.2f%n",
+                    "/" + ENDPOINTS.get(i),
+                    latencies.length,
+                    errors,
+                    latencies.length / elapsedSec,
+                    percentile(latencies, 50),
+                    percentile(latencies, 90),
+                    percentile(latencies, 99),
+                    percentile(latencies, 99.9),
+                    percentile(latencies, 100));
+        }
+        System.out.printf(Locale.US, "Total throughput %.1f req/s, server side allocation %.1f KB/request%n",
+                totalRequests / elapsedSec,
+                totalRequests > 0 ? result.serverAllocatedBytes / 1024d / totalRequests : 0);
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        if (sortedLatencies.length == 0)
+            return 0;
+        int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))] / 1e6;
+    }
+
+    private static long getAllocatedBytesOfAllThreads() {
+        return Arrays.stream(THREAD_MX_BEAN.getThreadAllocatedBytes(THREAD_MX_BEAN.getAllThreadIds()))
+                .filter(bytes -> bytes > 0)
+                .sum();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Result
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class Result {
+        private final List<Client> clients;
+        private final long elapsedNanos;
+        private final long serverAllocatedBytes;
+
+        Result(List<Client> clients, long elapsedNanos, long serverAllocatedBytes) {
+            this.clients = clients;
+            this.elapsedNanos = elapsedNanos;
+            this.serverAllocatedBytes = serverAllocatedBytes;
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Client
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Sends requests to the endpoints in turn and records the latency of each request in
+     * nanoseconds.
+     */
+    private static class Client {
+        private final String baseUrl;
+        private final byte[] buffer = new byte[64 * 1024];
+        private final long[][] latencies = new long[ENDPOINTS.size()][1024];
+        private final int[] counts = new int[ENDPOINTS.size()];
+        private final long[] errors = new long[ENDPOINTS.size()];
+        private int nextEndpoint;
+        private long allocatedBytes;
+
+        Client(String baseUrl, int offset) {
+            this.baseUrl = baseUrl;
+            this.nextEndpoint = offset % ENDPOINTS.size();
+        }
+
+        void run(int durationSec) {
+            long threadId = Thread.currentThread().getId();
+            long allocatedBytesAtStart = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+            long endTs = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSec);
+            while (System.nanoTime() < endTs && !Thread.currentThread().isInterrupted()) {
+                int endpoint = nextEndpoint;
+                nextEndpoint = (nextEndpoint + 1) % ENDPOINTS.size();
+
+                long ts = System.nanoTime();
+                try {
+                    request(ENDPOINTS.get(endpoint));
+                    record(endpoint, System.nanoTime() - ts);
+                } catch (IOException e) {
+                    errors[endpoint]++;
+                }
+            }
+            allocatedBytes = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - allocatedBytesAtStart;
+        }
+
+        private void request(String endpoint) throws IOException {
+            HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + endpoint).openConnection();
+            if (GZIP)
+                connection.setRequestProperty("Accept-Encoding", "gzip");
+
+            if (connection.getResponseCode() != 200)
+                throw new IOException("Unexpected response code " + connection.getResponseCode());
+
+            // Read the full response, the connection gets reused by keep-alive
+            try (InputStream inputStream = connection.getInputStream()) {
+                //noinspection StatementWithEmptyBody
+                while (inputStream.read(buffer) != -1) {
+                }
+            }
+        }
+
+        private void record(int endpoint, long latencyNanos) {
+            if (counts[endpoint] == latencies[endpoint].length)
+                latencies[endpoint] = Arrays.copyOf(latencies[endpoint], latencies[endpoint].length * 2);
+            latencies[endpoint][counts[endpoint]++] = latencyNanos;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price.benchmark;
+
+import bisq.price.spot.ExchangeRate;
+import bisq.price.spot.ExchangeRateProvider;
+
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * {@link ExchangeRateProvider} serving synthetic rates for all currencies supported by
+ * Bisq, without any network access. Prices follow a random walk, so each refresh
+ * changes all rates.
+ */
+class StubExchangeRateProvider extends ExchangeRateProvider {
+
+    private final long latencyMs;
+    private final Random random;
+    private final Map<String, Double> priceByCurrency = new HashMap<>();
+
+    /**
+     * @param latencyMs simulated duration of the exchange API call at each refresh
+     */
+    StubExchangeRateProvider(Environment env, int index, Duration refreshInterval, long latencyMs) {
+        super(env, "STUB-" + index, "stub" + index, refreshInterval);
+        this.latencyMs = latencyMs;
+        this.random = new Random(index);
+    }
+
+    @Override
+    protected synchronized Set<ExchangeRate> doGet() {
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new HashSet<>();
+            }
+        }
+
+        Set<String> currencies = new HashSet<>(getSupportedFiatCurrencies());
+        currencies.addAll(getSupportedCryptoCurrencies());
+
+        long now = System.currentTimeMillis();
+        Set<ExchangeRate> exchangeRates = new HashSet<>();
+        currencies.forEach(currency -> {
+            double price = priceByCurrency.computeIfAbsent(currency, c -> 1 + random.nextDouble() * 100_000);
+            // random walk within +/- 0.5 %
+            price = price * (1 + (random.nextDouble() - 0.5) / 100);
+            priceByCurrency.put(currency, price);
+            exchangeRates.add(new ExchangeRate(currency, price, now, getName()));
+        });
+        return exchangeRates;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price.benchmark;
+
+import bisq.price.mining.FeeRate;
+import bisq.price.mining.FeeRateProvider;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import java.util.Random;
+
+/**
+ * {@link FeeRateProvider} serving synthetic fee rates without any network access.
+ */
+class StubFeeRateProvider extends FeeRateProvider {
+
+    private final Random random = new Random();
+
+    StubFeeRateProvider(Duration refreshInterval) {
+        super(refreshInterval);
+    }
+
+    @Override
+    protected FeeRate doGet() {
+        long feeRate = MIN_FEE_RATE_FOR_TRADING + random.nextInt(100);
+        return new FeeRate("BTC", feeRate, MIN_FEE_RATE_FOR_WITHDRAWAL, Instant.now().getEpochSecond());
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price.spot;
+
+import bisq.price.mining.FeeRateService;
+import bisq.price.spot.MarketPricesSnapshotService.MarketPricesSnapshot;
+
+import bisq.common.config.Config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.mockito.ArgumentCaptor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class MarketPricesSnapshotServiceTest {
+
+    private List<ExchangeRate> exchangeRates;
+    private Map<String, Object> feeRates;
+    private Runnable refreshListener;
+    private MarketPricesSnapshotService service;
+
+    @BeforeEach
+    public void setUp() {
+        exchangeRates = new ArrayList<>();
+        exchangeRates.add(new ExchangeRate("EUR", 10_000, 1, "Provider"));
+        exchangeRates.add(new ExchangeRate("USD", 12_000, 1, "Provider"));
+        feeRates = new HashMap<>(Collections.singletonMap(Config.BTC_TX_FEE, 10L));
+
+        ExchangeRateService exchangeRateService = mock(ExchangeRateService.class);
+        when(exchangeRateService.getAllMarketPrices()).thenAnswer(invocation -> {
+            Map<String, Object> marketPrices = new HashMap<>();
+            marketPrices.put("providerTs", System.currentTimeMillis());
+            marketPrices.put("data", new ArrayList<>(exchangeRates));
+            return marketPrices;
+        });
+        FeeRateService feeRateService = mock(FeeRateService.class);
+        when(feeRateService.getFees()).thenAnswer(invocation -> {
+            Map<String, Object> fees = new HashMap<>();
+            fees.put(Config.BTC_FEES_TS, System.nanoTime());
+            fees.put(Config.LEGACY_FEE_DATAMAP, new HashMap<>(feeRates));
+            return fees;
+        });
+        ExchangeRateProvider provider = mock(ExchangeRateProvider.class);
+
+        service = new MarketPricesSnapshotService(exchangeRateService,
+                feeRateService,
+                Collections.singletonList(provider),
+                Collections.emptyList(),
+                new ObjectMapper());
+
+        ArgumentCaptor<Runnable> listenerCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(provider).addRefreshListener(listenerCaptor.capture());
+        refreshListener = listenerCaptor.getValue();
+    }
+
+    @Test
+    public void refresh_withUnchangedRates_keepsVersion() {
+        long version = service.getSnapshot().getVersion();
+        List<MarketPricesSnapshot> published = new ArrayList<>();
+        service.addNextSnapshotHandler(published::add);
+
+        refreshListener.run();
+
+        assertEquals(version, service.getSnapshot().getVersion());
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    public void refresh_withChangedRates_increasesVersion() {
+        long version = service.getSnapshot().getVersion();
+        List<MarketPricesSnapshot> published = new ArrayList<>();
+        service.addNextSnapshotHandler(published::add);
+
+        exchangeRates.set(0, new ExchangeRate("EUR", 10_001, 2, "Provider"));
+        refreshListener.run();
+
+        assertEquals(version + 1, service.getSnapshot().getVersion());
+        assertEquals(List.of(service.getSnapshot()), published);
+
+        feeRates.put(Config.BTC_TX_FEE, 11L);
+        refreshListener.run();
+
+        assertEquals(version + 2, service.getSnapshot().getVersion());
+    }
+
+    @Test
+    public void refresh_withRemovedCurrency_requiresFullResponse() {
+        MarketPricesSnapshot snapshot = service.getSnapshot();
+        String epoch = (String) snapshot.getDelta("", 0).get("epoch");
+
+        exchangeRates.set(0, new ExchangeRate("EUR", 10_001, 2, "Provider"));
+        refreshListener.run();
+        long versionBeforeRemoval = service.getSnapshot().getVersion();
+        assertEquals(false, service.getSnapshot().getDelta(epoch, snapshot.getVersion()).get("full"));
+
+        exchangeRates.remove(1);
+        refreshListener.run();
+
+        assertEquals(true, service.getSnapshot().getDelta(epoch, versionBeforeRemoval).get("full"));
+        assertEquals(false, service.getSnapshot().getDelta(epoch, service.getSnapshot().getVersion()).get("full"));
+    }
+}
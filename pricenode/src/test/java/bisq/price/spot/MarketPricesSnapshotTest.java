@@ -0,0 +1,131 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price.spot;
+
+import bisq.price.spot.MarketPricesSnapshotService.MarketPricesSnapshot;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MarketPricesSnapshotTest {
+
+    private static final byte[] JSON = "{\"data\":[]}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void gzippedJson_decompressesToJson() throws IOException {
+        MarketPricesSnapshot snapshot = newSnapshot(1, JSON);
+
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzippedJson()))) {
+            assertArrayEquals(JSON, inputStream.readAllBytes());
+        }
+    }
+
+    @Test
+    public void eTag_dependsOnContentOnly() {
+        MarketPricesSnapshot snapshot = newSnapshot(1, JSON);
+
+        assertEquals(snapshot.getETag(), newSnapshot(2, JSON).getETag());
+        assertNotEquals(snapshot.getETag(),
+                newSnapshot(1, "{}".getBytes(StandardCharsets.UTF_8)).getETag());
+    }
+
+    @Test
+    public void matches_ifNoneMatchHeader() {
+        MarketPricesSnapshot snapshot = newSnapshot(1, JSON);
+        String eTag = snapshot.getETag();
+
+        assertFalse(snapshot.matches(null));
+        assertFalse(snapshot.matches("\"other\""));
+        assertTrue(snapshot.matches(eTag));
+        assertTrue(snapshot.matches("W/" + eTag));
+        assertTrue(snapshot.matches("\"other\", " + eTag));
+        assertTrue(snapshot.matches("*"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void getDelta_containsOnlyChangedExchangeRates() {
+        ExchangeRate eur = new ExchangeRate("EUR", 10_000, 1, "Provider");
+        ExchangeRate usd = new ExchangeRate("USD", 12_000, 2, "Provider");
+        Map<String, ExchangeRate> exchangeRates = new LinkedHashMap<>();
+        exchangeRates.put("EUR", eur);
+        exchangeRates.put("USD", usd);
+        Map<String, Long> changedAtVersion = new LinkedHashMap<>();
+        changedAtVersion.put("EUR", 100L);
+        changedAtVersion.put("USD", 102L);
+        MarketPricesSnapshot snapshot = new MarketPricesSnapshot("epoch",
+                103,
+                100,
+                JSON,
+                Collections.singletonMap("providerTs", 3L),
+                null,
+                exchangeRates,
+                changedAtVersion);
+
+        Map<String, Object> delta = snapshot.getDelta("epoch", 101);
+        assertEquals("epoch", delta.get("epoch"));
+        assertEquals(103L, delta.get("version"));
+        assertEquals(false, delta.get("full"));
+        assertEquals(3L, delta.get("providerTs"));
+        assertEquals(List.of(usd), delta.get("data"));
+
+        assertTrue(((List<ExchangeRate>) snapshot.getDelta("epoch", 103).get("data")).isEmpty());
+
+        // Unknown versions, versions from before a removal of a currency and versions
+        // of another epoch result in a full update
+        assertEquals(true, snapshot.getDelta("epoch", 0).get("full"));
+        assertEquals(List.of(eur, usd), snapshot.getDelta("epoch", 0).get("data"));
+        assertEquals(true, snapshot.getDelta("epoch", 99).get("full"));
+        assertEquals(true, snapshot.getDelta("epoch", 104).get("full"));
+        assertEquals(true, snapshot.getDelta("otherEpoch", 101).get("full"));
+        assertEquals(List.of(eur, usd), snapshot.getDelta("otherEpoch", 101).get("data"));
+    }
+
+    @Test
+    public void isCurrent_requiresSameEpochAndVersion() {
+        MarketPricesSnapshot snapshot = newSnapshot(2, JSON);
+
+        assertTrue(snapshot.isCurrent("epoch", 2));
+        assertFalse(snapshot.isCurrent("epoch", 1));
+        assertFalse(snapshot.isCurrent("otherEpoch", 2));
+    }
+
+    private static MarketPricesSnapshot newSnapshot(long version, byte[] json) {
+        return new MarketPricesSnapshot("epoch",
+                version,
+                1,
+                json,
+                Collections.emptyMap(),
+                null,
+                Collections.emptyMap(),
+                Collections.emptyMap());
+    }
+}
@@ -38,6 +38,8 @@ import bisq.common.app.DevEnv;
 import bisq.common.config.BaseCurrencyNetwork;
 import bisq.common.config.Config;
 import bisq.common.handlers.ResultHandler;
+import bisq.common.metrics.MetricsHttpServer;
+import bisq.common.metrics.MetricsRegistry;
 
 import com.google.inject.Key;
 import com.google.inject.name.Names;
@@ -50,6 +52,7 @@ public class SeedNodeMain extends ExecutableForAppWithP2p {
     private static final String VERSION = "1.7.0";
     private SeedNode seedNode;
     private Timer checkConnectionLossTime;
+    private MetricsHttpServer metricsHttpServer;
 
     public SeedNodeMain() {
         super("Bisq Seednode", "bisq-seednode", "bisq_seednode", VERSION);
@@ -127,6 +130,11 @@ public class SeedNodeMain extends ExecutableForAppWithP2p {
 
         seedNode.startApplication();
 
+        if (config.metricsPort != Config.UNSPECIFIED_PORT) {
+            metricsHttpServer = new MetricsHttpServer(MetricsRegistry.getDefault(), config.metricsPort);
+            metricsHttpServer.start();
+        }
+
         injector.getInstance(P2PService.class).addP2PServiceListener(new P2PServiceListener() {
             @Override
             public void onDataReceived() {
@@ -200,6 +208,9 @@ public class SeedNodeMain extends ExecutableForAppWithP2p {
     @Override
     public void gracefulShutDown(ResultHandler resultHandler) {
         seedNode.shutDown();
+        if (metricsHttpServer != null) {
+            metricsHttpServer.shutDown();
+        }
         super.gracefulShutDown(resultHandler);
     }
 }